@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Compares throughput and latency of the default thread-per-request model against the
+# virtual-threads profile. Requires a built jar, a reachable database and `hey`
+# (https://github.com/rakyll/hey). Both runs use the same Java 21 JVM; the build does not run on Java 17,
+# so this compares thread models, not JDK versions.
+#
+#   mvn -B package -DskipTests
+#   scripts/load-compare.sh [requests] [concurrency]
+set -euo pipefail
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-400}
+PORT=${PORT:-8080}
+JAR=$(ls target/expenses-*.jar | head -n 1)
+OUT=${OUT:-target/load-compare}
+mkdir -p "$OUT"
+
+wait_ready() {
+  for _ in $(seq 1 60); do
+    curl -fs "http://localhost:$PORT/actuator/health" > /dev/null && return 0
+    sleep 1
+  done
+  echo "application did not become ready" >&2
+  return 1
+}
+
+seed() {
+  curl -fs -X POST "http://localhost:$PORT/api/users/register" -H 'Content-Type: application/json' \
+    -d "{\"name\":\"Load Test\",\"email\":\"load-$RANDOM@example.com\",\"password\":\"secret123\"}" > "$OUT/user.json"
+  curl -fs -X POST "http://localhost:$PORT/api/categories" -H 'Content-Type: application/json' \
+    -d "{\"name\":\"Load-$RANDOM\",\"description\":\"load test\"}" > "$OUT/category.json"
+}
+
+run() {
+  local label=$1 profiles=$2
+  SPRING_PROFILES_ACTIVE=$profiles java -jar "$JAR" --server.port="$PORT" > "$OUT/$label-app.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+  wait_ready
+  seed
+  local user_id category_id
+  user_id=$(sed -E 's/.*"id":([0-9]+).*/\1/' "$OUT/user.json")
+  category_id=$(sed -E 's/.*"id":([0-9]+).*/\1/' "$OUT/category.json")
+
+  hey -n "$REQUESTS" -c "$CONCURRENCY" -m POST -T application/json \
+    -d "{\"amount\":12.5,\"description\":\"load\",\"categoryId\":$category_id,\"userId\":$user_id}" \
+    "http://localhost:$PORT/api/expenses" > "$OUT/$label-write.txt"
+  hey -n "$REQUESTS" -c "$CONCURRENCY" \
+    "http://localhost:$PORT/api/expenses/user/$user_id/page?size=50" > "$OUT/$label-read.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run platform-threads "${BASE_PROFILES:-default}"
+run virtual-threads "${BASE_PROFILES:-default},virtual-threads"
+
+for kind in write read; do
+  echo "== $kind"
+  for label in platform-threads virtual-threads; do
+    printf '%-18s %s | %s\n' "$label" \
+      "$(grep 'Requests/sec' "$OUT/$label-$kind.txt" | xargs)" \
+      "$(grep '99% in' "$OUT/$label-$kind.txt" | xargs)"
+  done
+done
@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Compares the default image against the AOT + CDS image (Dockerfile target `aot`): milliseconds from
+# `docker run` until /actuator/health answers, and the latency of the first API request after that.
+# Requires docker, curl and GNU date. Both images run against the same PostgreSQL container, alternately.
+#
+#   scripts/startup-compare.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+OUT=${OUT:-target/startup-compare}
+NETWORK=expenses-startup
+DB=expenses-startup-db
+APP=expenses-startup-app
+mkdir -p "$OUT"
+echo "image,run,ready_ms,first_request_ms" > "$OUT/results.csv"
+
+docker build -q -t expenses-app:default . > /dev/null
+docker build -q --target aot -t expenses-app:aot . > /dev/null
+
+docker network create "$NETWORK" > /dev/null 2>&1 || true
+trap 'docker rm -f "$APP" "$DB" > /dev/null 2>&1 || true' EXIT
+docker run -d --rm --name "$DB" --network "$NETWORK" \
+  -e POSTGRES_DB=expenses -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres postgres:16-alpine > /dev/null
+until docker exec "$DB" pg_isready -U postgres > /dev/null 2>&1; do sleep 0.5; done
+
+now_ms() { date +%s%3N; }
+
+start_app() {
+  docker run -d --rm --name "$APP" --network "$NETWORK" -p "$PORT:8080" \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/expenses" \
+    -e SPRING_DATASOURCE_USERNAME=postgres -e SPRING_DATASOURCE_PASSWORD=postgres \
+    "$1" > /dev/null
+}
+
+wait_ready() {
+  local start=$1
+  until curl -fs "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if (( $(now_ms) - start > 120000 )); then
+      echo "application did not become ready" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+}
+
+measure() {
+  local label=$1 run=$2 start ready first
+  start=$(now_ms)
+  start_app "expenses-app:$label"
+  wait_ready "$start"
+  ready=$(( $(now_ms) - start ))
+  first=$(curl -fs -o /dev/null -w '%{time_total}' "http://localhost:$PORT/api/categories")
+  echo "$label,$run,$ready,$(awk -v s="$first" 'BEGIN { printf "%d", s * 1000 }')" >> "$OUT/results.csv"
+  docker logs "$APP" > "$OUT/$label-$run.log" 2>&1
+  docker rm -f "$APP" > /dev/null
+}
+
+# The first start migrates the empty database; keep it out of the results.
+start_app expenses-app:default
+wait_ready "$(now_ms)"
+docker rm -f "$APP" > /dev/null
+
+for run in $(seq 1 "$RUNS"); do
+  measure default "$run"
+  measure aot "$run"
+done
+
+median() {
+  grep "^$1," "$OUT/results.csv" | cut -d, -f"$2" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+printf '%-8s %14s %20s\n' image ready_ms first_request_ms
+for label in default aot; do
+  printf '%-8s %14s %20s\n' "$label" "$(median "$label" 3)" "$(median "$label" 4)"
+done
@@ -0,0 +1,100 @@
+package com.ishwor.expenses.benchmark;
+
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.mapper.ExpenseMapper;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded data shared by all benchmarks, so every run and every release measures the same rows.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+    static final int USERS = 100;
+    static final int CATEGORIES = 20;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 730;
+    private static final Instant CREATED_AT = Instant.parse("2025-01-01T00:00:00Z");
+    private static final String[] WORDS = {
+            "coffee", "groceries", "rent", "fuel", "lunch", "train", "books", "gym",
+            "pharmacy", "dinner", "taxi", "internet", "phone", "cinema", "gift", "parking"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<ExpenseView> views(int count) {
+        Random random = new Random(SEED);
+        List<ExpenseView> views = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long categoryId = 1 + random.nextInt(CATEGORIES);
+            long userId = 1 + random.nextInt(USERS);
+            views.add(new ExpenseView(
+                    (long) i + 1,
+                    BigDecimal.valueOf(100 + random.nextInt(50_000), 2),
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+                    categoryId,
+                    categoryName(categoryId),
+                    userId,
+                    userName(userId),
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)),
+                    CREATED_AT.plusSeconds(i)
+            ));
+        }
+        return views;
+    }
+
+    static List<ExpenseResponse> responses(int count) {
+        return views(count).stream().map(ExpenseMapper::toResponse).toList();
+    }
+
+    static List<Expense> entities(int count) {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (long id = 1; id <= CATEGORIES; id++) {
+            Category category = new Category();
+            category.setId(id);
+            category.setName(categoryName(id));
+            categories.add(category);
+        }
+        List<User> users = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setName(userName(id));
+            users.add(user);
+        }
+
+        List<Expense> expenses = new ArrayList<>(count);
+        for (ExpenseView view : views(count)) {
+            Expense expense = new Expense();
+            expense.setId(view.id());
+            expense.setAmount(view.amount());
+            expense.setDescription(view.description());
+            expense.setCategory(categories.get((int) (view.categoryId() - 1)));
+            expense.setUser(users.get((int) (view.userId() - 1)));
+            expense.setExpenseDate(view.expenseDate());
+            expense.setCreatedAt(view.createdAt());
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    static String categoryName(long id) {
+        return "Category " + id;
+    }
+
+    static String userName(long id) {
+        return "User " + id;
+    }
+}
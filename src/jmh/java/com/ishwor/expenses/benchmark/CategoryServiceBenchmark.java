@@ -0,0 +1,55 @@
+package com.ishwor.expenses.benchmark;
+
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.response.CategoryResponse;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.service.CategoryService;
+import com.ishwor.expenses.service.impl.CategoryServiceImpl;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getAllCategories} through the caching proxy (the request path) and straight against H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryServiceBenchmark {
+
+    @Param({"20", "1000"})
+    int categories;
+
+    private ConfigurableApplicationContext context;
+    private CategoryService cachedService;
+    private CategoryService uncachedService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(0, categories);
+        cachedService = context.getBean(CategoryService.class);
+        uncachedService = new CategoryServiceImpl(context.getBean(CategoryRepository.class),
+                context.getBean(ChangeVersions.class), context.getBean(ReadYourWrites.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CategoryResponse> getAllCategoriesCached() {
+        return cachedService.getAllCategories();
+    }
+
+    @Benchmark
+    public List<CategoryResponse> getAllCategoriesUncached() {
+        return uncachedService.getAllCategories();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ishwor.expenses.benchmark;
+
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.analytics.ExpenseFilter;
+import com.ishwor.expenses.analytics.GroupedSpend;
+import com.ishwor.expenses.analytics.SpendColumns;
+import com.ishwor.expenses.config.AnalyticsProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan cost of the in-memory column store: a filtered sum and a group-by over every expense, and the per-user
+ * selection that feeds the spending series. Divide {@code expenses} by the score for rows per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseColumnStoreBenchmark {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final ExpenseFilter FIRST_QUARTER =
+            new ExpenseFilter(null, null, FIRST_DAY, LocalDate.of(2024, 3, 31));
+    private static final ExpenseFilter ONE_USER_ONE_YEAR =
+            ExpenseFilter.forUser(1L, FIRST_DAY, LocalDate.of(2024, 12, 31));
+
+    @Param({"100000", "1000000", "5000000"})
+    int expenses;
+
+    private ExpenseColumnStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        store = new ExpenseColumnStore(new AnalyticsProperties(4000, 50_000, true));
+        for (int i = 0; i < expenses; i++) {
+            store.put((long) i + 1, 1L + random.nextInt(BenchmarkData.USERS),
+                    1L + random.nextInt(BenchmarkData.CATEGORIES), FIRST_DAY.plusDays(random.nextInt(730)),
+                    BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+        }
+    }
+
+    @Benchmark
+    public long sumFirstQuarter() {
+        return store.sumCents(FIRST_QUARTER);
+    }
+
+    @Benchmark
+    public GroupedSpend sumFirstQuarterByCategory() {
+        return store.sumByCategory(FIRST_QUARTER);
+    }
+
+    @Benchmark
+    public SpendColumns selectOneUserForSeries() {
+        return store.spendColumns(ONE_USER_ONE_YEAR);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ishwor.expenses.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.json.ResponseJsonSerializers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of {@link ExpenseResponse} lists with the module set and date format Spring MVC uses: Jackson's
+ * own record serializer against the hand-written {@link ResponseJsonSerializers}. Run with {@code -prof gc} to
+ * compare allocation per list as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseJsonBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int expenses;
+
+    private List<ExpenseResponse> responses;
+    private ObjectWriter writer;
+    private ObjectWriter tunedWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        responses = BenchmarkData.responses(expenses);
+        writer = listWriter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        tunedWriter = listWriter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializers(new ResponseJsonSerializers.ExpenseResponseSerializer())
+                .build());
+    }
+
+    @Benchmark
+    public long serializeList() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, responses);
+        return out.count;
+    }
+
+    @Benchmark
+    public long serializeListTuned() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        tunedWriter.writeValue(out, responses);
+        return out.count;
+    }
+
+    private static ObjectWriter listWriter(ObjectMapper objectMapper) {
+        return objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ExpenseResponse.class));
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
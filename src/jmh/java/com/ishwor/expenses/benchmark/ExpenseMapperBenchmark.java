@@ -0,0 +1,44 @@
+package com.ishwor.expenses.benchmark;
+
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.mapper.ExpenseMapper;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning read models and entities into {@link ExpenseResponse} lists, as the list endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseMapperBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int expenses;
+
+    private List<ExpenseView> views;
+    private List<Expense> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        views = BenchmarkData.views(expenses);
+        entities = BenchmarkData.entities(expenses);
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> mapViews() {
+        return views.stream().map(ExpenseMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<ExpenseResponse> mapEntities() {
+        return entities.stream().map(ExpenseMapper::toResponse).toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ishwor.expenses.benchmark;
+
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Repository read paths behind the list, page, detail and export endpoints, against seeded H2 data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseRepositoryBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "expenseDate", "id");
+    private static final Limit PAGE = Limit.of(51);
+    // The open date range of a page without a month window.
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    @Param({"1000", "100000", "1000000"})
+    int expenses;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private TransactionTemplate readOnly;
+    private ExpenseView middleOfUser;
+    private long lookupId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(expenses, BenchmarkData.CATEGORIES);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        int perUser = Math.max(1, expenses / BenchmarkData.USERS);
+        List<ExpenseView> firstHalf = expenseRepository.findViewsByUserId(
+                USER_ID, EARLIEST, LATEST, NEWEST_FIRST, Limit.of(Math.max(1, perUser / 2)));
+        middleOfUser = firstHalf.get(firstHalf.size() - 1);
+        lookupId = expenses / 2 + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExpenseView> legacyListAll() {
+        return expenseRepository.findViews(EARLIEST, LATEST, NEWEST_FIRST, Limit.of(1000));
+    }
+
+    @Benchmark
+    public List<ExpenseView> userFirstPage() {
+        return expenseRepository.findViewsByUserId(USER_ID, EARLIEST, LATEST, NEWEST_FIRST, PAGE);
+    }
+
+    @Benchmark
+    public List<ExpenseView> userPageAfterCursor() {
+        return expenseRepository.findViewsByUserIdBefore(
+                USER_ID, middleOfUser.expenseDate(), middleOfUser.id(), EARLIEST, NEWEST_FIRST, PAGE);
+    }
+
+    @Benchmark
+    public Optional<ExpenseView> findViewById() {
+        return expenseRepository.findViewById(lookupId);
+    }
+
+    @Benchmark
+    public void streamUserExport(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<ExpenseView> views = expenseRepository.streamViewsByUserId(USER_ID)) {
+                views.forEach(blackhole::consume);
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.ishwor.expenses.benchmark;
+
+import com.ishwor.expenses.analytics.BucketSize;
+import com.ishwor.expenses.analytics.SpendColumns;
+import com.ishwor.expenses.analytics.SpendSeries;
+import com.ishwor.expenses.analytics.SpendingSeriesEngine;
+import com.ishwor.expenses.config.AnalyticsProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregation cost of the spending series over ten years of one user's history, with the parallel split
+ * forced on or off, so the threshold in {@code expenses.analytics.parallel-threshold} can be checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpendingSeriesBenchmark {
+    private static final LocalDate FROM = LocalDate.of(2015, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Param({"10000", "100000", "1000000"})
+    int expenses;
+
+    @Param({"DAY", "WEEK", "MONTH"})
+    BucketSize bucket;
+
+    private SpendColumns columns;
+    private SpendingSeriesEngine sequential;
+    private SpendingSeriesEngine parallel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        int days = (int) (TO.toEpochDay() - FROM.toEpochDay()) + 1;
+        columns = new SpendColumns(expenses);
+        for (int i = 0; i < expenses; i++) {
+            columns.add(FROM.plusDays(random.nextInt(days)), 1 + random.nextInt(BenchmarkData.CATEGORIES),
+                    100 + random.nextInt(50_000));
+        }
+        sequential = new SpendingSeriesEngine(new AnalyticsProperties(4000, Integer.MAX_VALUE, false));
+        parallel = new SpendingSeriesEngine(new AnalyticsProperties(4000, 0, false));
+    }
+
+    @Benchmark
+    public SpendSeries totalsSequential() {
+        return sequential.aggregate(columns, FROM, TO, bucket, false);
+    }
+
+    @Benchmark
+    public SpendSeries totalsParallel() {
+        return parallel.aggregate(columns, FROM, TO, bucket, false);
+    }
+
+    @Benchmark
+    public SpendSeries byCategoryParallel() {
+        return parallel.aggregate(columns, FROM, TO, bucket, true);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ishwor.expenses.analytics;
+
+import com.ishwor.expenses.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+public enum BucketSize {
+    DAY(ChronoUnit.DAYS),
+    // ISO weeks, starting on Monday.
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    BucketSize(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Number of buckets needed to cover {@code from} to {@code to}, both inclusive.
+     */
+    public long count(LocalDate from, LocalDate to) {
+        return unit.between(startOf(from), startOf(to)) + 1;
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static BucketSize from(String value) {
+        try {
+            return BucketSize.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Bucket must be 'day', 'week' or 'month'");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ishwor.expenses.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each distinct value to a dense int code, in order of first appearance. Codes are never reused, so a
+ * column of codes stays valid as values come and go.
+ */
+final class Dictionary<T> {
+    private final Map<T, Integer> codes = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    int encode(T value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * The value's code, or -1 when it was never encoded.
+     */
+    int code(T value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    T value(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
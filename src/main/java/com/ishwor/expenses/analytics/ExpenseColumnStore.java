@@ -0,0 +1,233 @@
+package com.ishwor.expenses.analytics;
+
+import com.ishwor.expenses.config.AnalyticsProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Every expense in the table as primitive columns in memory, for analytical reads that should not touch the
+ * database at all. {@link ExpenseColumnStoreLoader} fills it at startup; expense writers then report each
+ * change, and the store applies it once their transaction commits, so a rolled-back write never shows up.
+ * <p>
+ * Every query is one pass over the arrays, reading only the columns its filter uses and folding each row in
+ * without a data-dependent branch, so a scan is bound by memory bandwidth rather than by the number of rows.
+ * Scans share a read lock; writes take the write lock for one row at a time. Like the text index this only sees
+ * writes made through this instance, so it stays off unless {@code expenses.analytics.column-store=true}.
+ */
+@Component
+public class ExpenseColumnStore {
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ExpenseColumns columns = new ExpenseColumns(1024);
+
+    public ExpenseColumnStore(AnalyticsProperties analyticsProperties) {
+        this.enabled = analyticsProperties.columnStore();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * An expense was created or changed; {@code amount} has at most two decimals, as the column does.
+     */
+    public void put(Long id, Long userId, Long categoryId, LocalDate expenseDate, BigDecimal amount) {
+        if (!enabled) {
+            return;
+        }
+        long amountCents = amount.movePointRight(2).longValueExact();
+        afterCommit(() -> write(() -> columns.put(id, userId, categoryId, expenseDate, amountCents)));
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> write(() -> columns.remove(id)));
+    }
+
+    /**
+     * Swaps in freshly loaded columns.
+     */
+    void replace(ExpenseColumns loaded) {
+        write(() -> columns = loaded);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sumCents(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            Scan scan = new Scan(columns, filter);
+            long[] cents = columns.cents;
+            long sum = 0;
+            for (int row = 0; row < scan.size; row++) {
+                sum += scan.matches(row) ? cents[row] : 0;
+            }
+            return sum;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            Scan scan = new Scan(columns, filter);
+            int count = 0;
+            for (int row = 0; row < scan.size; row++) {
+                count += scan.matches(row) ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public GroupedSpend sumByCategory(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            return group(new Scan(columns, filter), columns.categories, columns.categoryIds, columns.cents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public GroupedSpend sumByUser(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            return group(new Scan(columns, filter), columns.users, columns.userIds, columns.cents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The matching expenses as input for {@link SpendingSeriesEngine}.
+     */
+    public SpendColumns spendColumns(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            Scan scan = new Scan(columns, filter);
+            // Selection vector: every row is written, but the cursor only advances on a match.
+            int[] selected = new int[scan.size];
+            int matched = 0;
+            for (int row = 0; row < scan.size; row++) {
+                selected[matched] = row;
+                matched += scan.matches(row) ? 1 : 0;
+            }
+            SpendColumns spend = new SpendColumns(matched);
+            for (int i = 0; i < matched; i++) {
+                int row = selected[i];
+                spend.add(columns.epochDays[row], columns.categoryIds.value(columns.categories[row]),
+                        columns.cents[row]);
+            }
+            return spend;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static GroupedSpend group(Scan scan, int[] codes, Dictionary<Long> keys, long[] cents) {
+        long[] sums = new long[keys.size()];
+        long[] counts = new long[keys.size()];
+        for (int row = 0; row < scan.size; row++) {
+            boolean match = scan.matches(row);
+            int code = codes[row];
+            sums[code] += match ? cents[row] : 0;
+            counts[code] += match ? 1 : 0;
+        }
+        int[] present = IntStream.range(0, counts.length)
+                .filter(code -> counts[code] > 0)
+                .boxed()
+                .sorted(Comparator.comparing(keys::value))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] groupKeys = new long[present.length];
+        long[] groupCents = new long[present.length];
+        long[] groupCounts = new long[present.length];
+        for (int i = 0; i < present.length; i++) {
+            groupKeys[i] = keys.value(present[i]);
+            groupCents[i] = sums[present[i]];
+            groupCounts[i] = counts[present[i]];
+        }
+        return new GroupedSpend(groupKeys, groupCents, groupCounts);
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * A filter resolved against one set of columns: dictionary codes instead of values, epoch days instead of
+     * dates, and the arrays held in final fields so the JIT can keep them in registers across a scan.
+     */
+    private static final class Scan {
+        final int size;
+        private final int[] users;
+        private final int[] categories;
+        private final int[] epochDays;
+        private final boolean anyUser;
+        private final boolean anyCategory;
+        private final int user;
+        private final int category;
+        private final int from;
+        private final int to;
+
+        Scan(ExpenseColumns columns, ExpenseFilter filter) {
+            size = columns.size;
+            users = columns.users;
+            categories = columns.categories;
+            epochDays = columns.epochDays;
+            // A value the dictionary has never seen gets code -1, which no row holds.
+            anyUser = filter.userId() == null;
+            user = anyUser ? 0 : columns.userIds.code(filter.userId());
+            anyCategory = filter.categoryId() == null;
+            category = anyCategory ? 0 : columns.categoryIds.code(filter.categoryId());
+            from = filter.from() != null ? (int) filter.from().toEpochDay() : Integer.MIN_VALUE;
+            to = filter.to() != null ? (int) filter.to().toEpochDay() : Integer.MAX_VALUE;
+        }
+
+        // The any* tests are the same for every row, so they branch and unfiltered columns are never read; the
+        // per-row comparisons are combined without short-circuiting, leaving no data-dependent branch.
+        boolean matches(int row) {
+            int day = epochDays[row];
+            return (anyUser || users[row] == user)
+                    & (anyCategory || categories[row] == category)
+                    & day >= from & day <= to;
+        }
+    }
+}
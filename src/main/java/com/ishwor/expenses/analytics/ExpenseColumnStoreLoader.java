@@ -0,0 +1,59 @@
+package com.ishwor.expenses.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+
+/**
+ * Fills {@link ExpenseColumnStore} from the expenses table once all beans exist and before the web server starts
+ * accepting requests. Reads plain JDBC rows, streamed in fetch-size chunks, so loading millions of expenses never
+ * materializes an entity or the whole result.
+ */
+@Component
+public class ExpenseColumnStoreLoader implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseColumnStoreLoader.class);
+    private static final String SELECT_EXPENSES =
+            "SELECT id, user_id, category_id, expense_date, amount FROM expenses";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseColumnStore columnStore;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseColumnStoreLoader(JdbcTemplate jdbcTemplate, ExpenseColumnStore columnStore,
+                                    PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.columnStore = columnStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!columnStore.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        ExpenseColumns loaded = new ExpenseColumns(1024);
+        // PostgreSQL only streams with a fetch size inside a transaction.
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_EXPENSES);
+            statement.setFetchSize(10_000);
+            return statement;
+        }, (RowCallbackHandler) row -> {
+            BigDecimal amount = row.getBigDecimal(5);
+            loaded.put(row.getLong(1), row.getLong(2), row.getLong(3), row.getDate(4).toLocalDate(),
+                    amount.movePointRight(2).longValueExact());
+        }));
+        columnStore.replace(loaded);
+        log.info("Loaded {} expenses into the column store in {} ms", loaded.size,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ishwor.expenses.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The rows of {@link ExpenseColumnStore}: one primitive array per column, all {@code size} long. Users and
+ * categories are stored as dictionary codes. Rows are kept dense: removing one moves the last
+ * row into its place, so scans never skip holes. Not thread-safe; the store guards it.
+ */
+final class ExpenseColumns {
+    final Dictionary<Long> userIds = new Dictionary<>();
+    final Dictionary<Long> categoryIds = new Dictionary<>();
+    private final LongIntMap rowOfId;
+
+    long[] ids;
+    int[] users;
+    int[] categories;
+    int[] epochDays;
+    long[] cents;
+    int size;
+
+    ExpenseColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        rowOfId = new LongIntMap(capacity);
+        ids = new long[capacity];
+        users = new int[capacity];
+        categories = new int[capacity];
+        epochDays = new int[capacity];
+        cents = new long[capacity];
+    }
+
+    /**
+     * Adds the expense, or overwrites its row when the id is already present.
+     */
+    void put(long id, long userId, long categoryId, LocalDate date, long amountCents) {
+        int row = rowOfId.get(id);
+        if (row < 0) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            ids[row] = id;
+            rowOfId.put(id, row);
+        }
+        users[row] = userIds.encode(userId);
+        categories[row] = categoryIds.encode(categoryId);
+        epochDays[row] = (int) date.toEpochDay();
+        cents[row] = amountCents;
+    }
+
+    boolean remove(long id) {
+        int row = rowOfId.remove(id);
+        if (row < 0) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            users[row] = users[last];
+            categories[row] = categories[last];
+            epochDays[row] = epochDays[last];
+            cents[row] = cents[last];
+            rowOfId.put(ids[row], row);
+        }
+        return true;
+    }
+
+    private void grow() {
+        int capacity = size + (size >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        users = Arrays.copyOf(users, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ishwor.expenses.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Which expenses a {@link ExpenseColumnStore} query covers. Null fields do not filter; dates are inclusive.
+ */
+public record ExpenseFilter(
+        Long userId,
+        Long categoryId,
+        LocalDate from,
+        LocalDate to
+) {
+    public static ExpenseFilter all() {
+        return new ExpenseFilter(null, null, null, null);
+    }
+
+    public static ExpenseFilter forUser(Long userId, LocalDate from, LocalDate to) {
+        return new ExpenseFilter(userId, null, from, to);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ishwor.expenses.analytics;
+
+/**
+ * Spend per group, ordered by key: {@code cents[i]} and {@code counts[i]} belong to {@code keys[i]}. Groups
+ * without a matching expense are left out.
+ */
+public record GroupedSpend(
+        long[] keys,
+        long[] cents,
+        long[] counts
+) {}
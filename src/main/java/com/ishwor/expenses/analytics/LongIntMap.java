@@ -0,0 +1,104 @@
+package com.ishwor.expenses.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from {@code long} to non-negative {@code int}, so an index of millions of expense ids
+ * costs two flat arrays instead of millions of boxed entries. Linear probing, with deletes shifting later
+ * entries back instead of leaving tombstones.
+ */
+final class LongIntMap {
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, expectedSize) * 2 - 1) << 1);
+    }
+
+    /**
+     * The value stored for {@code key}, or -1.
+     */
+    int get(long key) {
+        for (int slot = slot(key); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > values.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Removes {@code key}; returns its value, or -1 when it was absent.
+     */
+    int remove(long key) {
+        int gap = slot(key);
+        while (keys[gap] != key || values[gap] == EMPTY) {
+            if (values[gap] == EMPTY) {
+                return EMPTY;
+            }
+            gap = (gap + 1) & mask;
+        }
+        int removed = values[gap];
+        // Pull back every later entry of the run whose home slot is not between the gap and where it sits.
+        for (int slot = (gap + 1) & mask; values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = slot(keys[slot]);
+            boolean reachable = gap < slot ? home > gap && home <= slot : home > gap || home <= slot;
+            if (!reachable) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldValues.length * 2);
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+    }
+}
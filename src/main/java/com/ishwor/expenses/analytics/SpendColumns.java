@@ -0,0 +1,63 @@
+package com.ishwor.expenses.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Column-oriented buffer of expenses for aggregation: dates as epoch days and amounts as cents, so scanning
+ * millions of rows touches three primitive arrays instead of millions of objects.
+ */
+public final class SpendColumns {
+    private int[] epochDays;
+    private long[] categoryIds;
+    private long[] cents;
+    private int size;
+
+    public SpendColumns() {
+        this(1024);
+    }
+
+    public SpendColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.epochDays = new int[capacity];
+        this.categoryIds = new long[capacity];
+        this.cents = new long[capacity];
+    }
+
+    public void add(LocalDate date, long categoryId, long amountCents) {
+        add((int) date.toEpochDay(), categoryId, amountCents);
+    }
+
+    void add(int epochDay, long categoryId, long amountCents) {
+        if (size == cents.length) {
+            int capacity = size + (size >> 1);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+        }
+        epochDays[size] = epochDay;
+        categoryIds[size] = categoryId;
+        cents[size] = amountCents;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    long categoryId(int row) {
+        return categoryIds[row];
+    }
+
+    long cents(int row) {
+        return cents[row];
+    }
+
+    long[] distinctCategoryIds() {
+        return Arrays.stream(categoryIds, 0, size).sorted().distinct().toArray();
+    }
+}
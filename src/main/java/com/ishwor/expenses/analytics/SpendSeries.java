@@ -0,0 +1,16 @@
+package com.ishwor.expenses.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregated spend per bucket. {@code categoryCents[c][b]} belongs to {@code categoryIds[c]} and bucket
+ * {@code b}; both arrays are empty when the series was not split by category.
+ */
+public record SpendSeries(
+        List<LocalDate> bucketStarts,
+        long[] totalCents,
+        long[] counts,
+        long[] categoryIds,
+        long[][] categoryCents
+) {}
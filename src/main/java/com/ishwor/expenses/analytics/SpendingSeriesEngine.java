@@ -0,0 +1,82 @@
+package com.ishwor.expenses.analytics;
+
+import com.ishwor.expenses.config.AnalyticsProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Buckets {@link SpendColumns} into a time series. Each row is mapped to its bucket through a day-indexed lookup
+ * table, then summed into one flat {@code long[]} accumulator; large inputs are split across the common pool with
+ * one accumulator per fork, merged at the end.
+ */
+@Component
+public class SpendingSeriesEngine {
+    private final int parallelThreshold;
+
+    public SpendingSeriesEngine(AnalyticsProperties analyticsProperties) {
+        this.parallelThreshold = analyticsProperties.parallelThreshold();
+    }
+
+    public SpendSeries aggregate(SpendColumns columns, LocalDate from, LocalDate to, BucketSize bucket, boolean byCategory) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = bucket.startOf(from); !start.isAfter(to); start = bucket.next(start)) {
+            starts.add(start);
+        }
+        int buckets = starts.size();
+        int firstDay = (int) from.toEpochDay();
+        int[] bucketOfDay = bucketOfDay(starts, from, to);
+        long[] categoryIds = byCategory ? columns.distinctCategoryIds() : new long[0];
+
+        // Layout: [totals | counts | category 0 totals | category 1 totals | ...], each `buckets` wide.
+        int width = buckets * (2 + categoryIds.length);
+        IntStream rows = IntStream.range(0, columns.size());
+        if (columns.size() >= parallelThreshold) {
+            rows = rows.parallel();
+        }
+        long[] acc = rows.collect(() -> new long[width], (sums, row) -> {
+            int day = columns.epochDay(row) - firstDay;
+            if (day < 0 || day >= bucketOfDay.length) {
+                return;
+            }
+            int b = bucketOfDay[day];
+            long cents = columns.cents(row);
+            sums[b] += cents;
+            sums[buckets + b]++;
+            if (categoryIds.length > 0) {
+                int c = Arrays.binarySearch(categoryIds, columns.categoryId(row));
+                sums[buckets * (2 + c) + b] += cents;
+            }
+        }, SpendingSeriesEngine::addInto);
+
+        long[][] categoryCents = new long[categoryIds.length][];
+        for (int c = 0; c < categoryIds.length; c++) {
+            categoryCents[c] = Arrays.copyOfRange(acc, buckets * (2 + c), buckets * (3 + c));
+        }
+        return new SpendSeries(starts, Arrays.copyOfRange(acc, 0, buckets),
+                Arrays.copyOfRange(acc, buckets, 2 * buckets), categoryIds, categoryCents);
+    }
+
+    private static int[] bucketOfDay(List<LocalDate> starts, LocalDate from, LocalDate to) {
+        int[] bucketOfDay = new int[(int) (to.toEpochDay() - from.toEpochDay()) + 1];
+        int b = 0;
+        LocalDate day = from;
+        for (int i = 0; i < bucketOfDay.length; i++, day = day.plusDays(1)) {
+            while (b + 1 < starts.size() && !day.isBefore(starts.get(b + 1))) {
+                b++;
+            }
+            bucketOfDay[i] = b;
+        }
+        return bucketOfDay;
+    }
+
+    private static void addInto(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ishwor.expenses.archive;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One expense as stored in a segment. The user is implied by the segment, and names are resolved when the
+ * row is read back, so renamed categories show their current name just like hot rows do.
+ */
+public record ArchivedExpense(
+        long id,
+        long amountCents,
+        String description,
+        long categoryId,
+        LocalDate expenseDate,
+        Instant createdAt
+) {}
@@ -0,0 +1,178 @@
+package com.ishwor.expenses.archive;
+
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.ExpenseArchiveSegment;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseArchiveSegmentRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ArchiveSegmentRange;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for expenses the archival job moved out of the expenses table: compressed per-user segments in
+ * {@code expense_archive_segments}, each next to its catalog entry. Reads first look up the catalog, which is
+ * indexed by user and date range, and only decode segments whose dates overlap the request, so a query for recent
+ * expenses costs one index probe and no segment read.
+ * <p>
+ * Catalog lookups run in the caller's transaction. A segment row commits together with the deletion of its hot
+ * rows, so a reader sees each expense exactly once, in the table or in a segment.
+ */
+@Component
+public class ExpenseArchive {
+    private static final Comparator<ArchivedExpense> BY_DATE_AND_ID =
+            Comparator.comparing(ArchivedExpense::expenseDate).thenComparingLong(ArchivedExpense::id);
+
+    private final ExpenseArchiveSegmentRepository segmentRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+
+    public ExpenseArchive(ExpenseArchiveSegmentRepository segmentRepository, UserRepository userRepository,
+                          CategoryRepository categoryRepository) {
+        this.segmentRepository = segmentRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * The user's archived expenses dated {@code from} to {@code to} inclusive, ordered by date and id. Segments are
+     * decoded lazily as the stream is consumed, one group of date-overlapping segments at a time, so memory is
+     * bounded by the largest such group rather than by the range. Consume the stream inside the caller's
+     * transaction.
+     */
+    public Stream<ArchivedExpense> read(Long userId, LocalDate from, LocalDate to) {
+        List<ArchiveSegmentRange> segments = segmentRepository.findOverlapping(userId, from, to);
+        return segments.isEmpty() ? Stream.empty() : rows(segments, from, to, false);
+    }
+
+    /**
+     * Like {@link #read}, as the read model the export writes, with user and category names as they are now.
+     */
+    public Stream<ExpenseView> readViews(Long userId, LocalDate from, LocalDate to) {
+        return views(userId, from, to, false);
+    }
+
+    /**
+     * Like {@link #readViews}, newest first, for pages that walk back in time.
+     */
+    public Stream<ExpenseView> readViewsNewestFirst(Long userId, LocalDate from, LocalDate to) {
+        return views(userId, from, to, true);
+    }
+
+    /**
+     * The latest date any of the user's archived expenses between {@code from} and {@code to} can have, from the
+     * catalog alone; empty when no segment overlaps the range.
+     */
+    public Optional<LocalDate> newestDate(Long userId, LocalDate from, LocalDate to) {
+        return segmentRepository.findOverlapping(userId, from, to).stream()
+                .map(ArchiveSegmentRange::toDate)
+                .max(Comparator.naturalOrder())
+                .map(date -> date.isAfter(to) ? to : date);
+    }
+
+    private Stream<ExpenseView> views(Long userId, LocalDate from, LocalDate to, boolean newestFirst) {
+        List<ArchiveSegmentRange> segments = segmentRepository.findOverlapping(userId, from, to);
+        if (segments.isEmpty()) {
+            return Stream.empty();
+        }
+        String userName = userRepository.findById(userId).map(User::getName).orElse(null);
+        Map<Long, String> categoryNames = new HashMap<>();
+        return rows(segments, from, to, newestFirst)
+                .map(row -> new ExpenseView(row.id(), BigDecimal.valueOf(row.amountCents(), 2), row.description(),
+                        row.categoryId(), categoryName(categoryNames, row.categoryId()), userId, userName,
+                        row.expenseDate(), row.createdAt()));
+    }
+
+    private Stream<ArchivedExpense> rows(List<ArchiveSegmentRange> segments, LocalDate from, LocalDate to,
+                                         boolean newestFirst) {
+        List<List<ArchiveSegmentRange>> groups = overlapping(segments);
+        if (newestFirst) {
+            Collections.reverse(groups);
+        }
+        return groups.stream().flatMap(group -> readGroup(group, from, to, newestFirst).stream());
+    }
+
+    /**
+     * Splits segments ordered by start date into groups whose date ranges overlap. Segments of different groups
+     * never share a date, so each group can be read and sorted on its own and the groups concatenated.
+     */
+    private static List<List<ArchiveSegmentRange>> overlapping(List<ArchiveSegmentRange> segments) {
+        List<List<ArchiveSegmentRange>> groups = new ArrayList<>();
+        List<ArchiveSegmentRange> group = null;
+        LocalDate groupEnd = null;
+        for (ArchiveSegmentRange segment : segments) {
+            if (group == null || segment.fromDate().isAfter(groupEnd)) {
+                group = new ArrayList<>();
+                groups.add(group);
+                groupEnd = segment.toDate();
+            } else if (segment.toDate().isAfter(groupEnd)) {
+                groupEnd = segment.toDate();
+            }
+            group.add(segment);
+        }
+        return groups;
+    }
+
+    private List<ArchivedExpense> readGroup(List<ArchiveSegmentRange> group, LocalDate from, LocalDate to,
+                                            boolean newestFirst) {
+        List<ArchivedExpense> rows = new ArrayList<>();
+        for (ArchiveSegmentRange segment : group) {
+            for (ArchivedExpense row : readSegment(segment.id())) {
+                if (!row.expenseDate().isBefore(from) && !row.expenseDate().isAfter(to)) {
+                    rows.add(row);
+                }
+            }
+        }
+        if (newestFirst) {
+            rows.sort(BY_DATE_AND_ID.reversed());
+        } else if (group.size() > 1) {
+            rows.sort(BY_DATE_AND_ID);
+        }
+        return rows;
+    }
+
+    // Looked up once per category while a stream is consumed; a deleted category stays without a name.
+    private String categoryName(Map<Long, String> names, Long categoryId) {
+        if (!names.containsKey(categoryId)) {
+            names.put(categoryId, categoryRepository.findById(categoryId).map(Category::getName).orElse(null));
+        }
+        return names.get(categoryId);
+    }
+
+    /**
+     * Encodes rows for {@link ExpenseArchiveSegment#setData}.
+     */
+    byte[] encode(List<ArchivedExpense> rows) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ExpenseSegmentCodec.write(rows, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode expense segment", e);
+        }
+        return output.toByteArray();
+    }
+
+    private List<ArchivedExpense> readSegment(Long segmentId) {
+        try {
+            return ExpenseSegmentCodec.read(new ByteArrayInputStream(segmentRepository.findDataById(segmentId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read expense segment " + segmentId, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ishwor.expenses.archive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Runs {@link ExpenseArchiver} every {@code expenses.archive.interval}, starting one interval after startup. With
+ * several instances each runs its own job; the row locks keep them from archiving the same expense twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expenses.archive", name = "enabled", havingValue = "true")
+public class ExpenseArchiveJob {
+    private final ExpenseArchiver archiver;
+
+    public ExpenseArchiveJob(ExpenseArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    @Scheduled(initialDelayString = "${expenses.archive.interval:24h}",
+            fixedDelayString = "${expenses.archive.interval:24h}")
+    public void run() {
+        archiver.archiveExpired(LocalDate.now());
+    }
+}
@@ -0,0 +1,164 @@
+package com.ishwor.expenses.archive;
+
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.config.ArchiveProperties;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.ExpenseArchiveSegment;
+import com.ishwor.expenses.repository.ExpenseArchiveSegmentRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.search.ExpenseTextIndex;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves expenses older than {@code expenses.archive.horizon} out of the expenses table into {@link ExpenseArchive},
+ * one transaction per user and month, oldest first: lock the month's rows, store them as one segment and delete
+ * them. Only one month of rows is ever loaded, however much history a user has, and monthly segments keep what a
+ * read decodes in one go small. The cutoff is always the first day of a month, so no month is ever split between
+ * the table and the archive. The monthly rollup is left alone, which keeps summaries of archived months answering
+ * from it.
+ * <p>
+ * A segment commits together with the deletion of its rows, so a failed month rolls back whole and the months
+ * before it stay archived; the next run continues from there. Archived
+ * expenses are read-only: they drop out of the text index and the single-expense endpoints, and searches, exports
+ * and spending series read them back.
+ */
+@Component
+public class ExpenseArchiver {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseArchiver.class);
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseArchiveSegmentRepository segmentRepository;
+    private final ExpenseArchive archive;
+    private final ExpenseTextIndex textIndex;
+    private final ExpenseColumnStore columnStore;
+    private final ChangeVersions changeVersions;
+    private final ReadYourWrites readYourWrites;
+    private final Period horizon;
+    private final TransactionTemplate transaction;
+    private final Counter archivedRows;
+    private final Counter failedUsers;
+
+    public ExpenseArchiver(ExpenseRepository expenseRepository, ExpenseArchiveSegmentRepository segmentRepository,
+                           ExpenseArchive archive, ExpenseTextIndex textIndex, ExpenseColumnStore columnStore,
+                           ChangeVersions changeVersions, ReadYourWrites readYourWrites, ArchiveProperties archiveProperties,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.segmentRepository = segmentRepository;
+        this.archive = archive;
+        this.textIndex = textIndex;
+        this.columnStore = columnStore;
+        this.changeVersions = changeVersions;
+        this.readYourWrites = readYourWrites;
+        this.horizon = archiveProperties.horizon();
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.archivedRows = Counter.builder("expenses.archive.rows")
+                .description("Expenses moved from the expenses table into archive segments")
+                .register(meterRegistry);
+        this.failedUsers = Counter.builder("expenses.archive.failures")
+                .description("Users whose expired expenses could not be archived in a run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archives everything dated before the cutoff for {@code today}; returns the number of expenses moved.
+     */
+    public int archiveExpired(LocalDate today) {
+        return archiveBefore(cutoff(today));
+    }
+
+    public LocalDate cutoff(LocalDate today) {
+        return today.minus(horizon).withDayOfMonth(1);
+    }
+
+    int archiveBefore(LocalDate cutoff) {
+        long started = System.nanoTime();
+        int archived = 0;
+        int users = 0;
+        for (Long userId : expenseRepository.findUserIdsWithExpensesBefore(cutoff)) {
+            try {
+                archived += archiveUser(userId, cutoff);
+                users++;
+            } catch (RuntimeException e) {
+                failedUsers.increment();
+                log.error("Failed to archive expenses of user {} before {}", userId, cutoff, e);
+            }
+        }
+        if (users > 0) {
+            log.info("Archived {} expenses of {} users dated before {} in {} ms", archived, users, cutoff,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return archived;
+    }
+
+    private int archiveUser(Long userId, LocalDate cutoff) {
+        int archived = 0;
+        int moved;
+        while ((moved = archiveOldestMonth(userId, cutoff)) > 0) {
+            archived += moved;
+        }
+        return archived;
+    }
+
+    // Returns 0 once nothing before the cutoff is left.
+    private int archiveOldestMonth(Long userId, LocalDate cutoff) {
+        List<Long> ids = transaction.execute(status -> {
+            Optional<LocalDate> oldest = expenseRepository.findOldestDateByUserIdBefore(userId, cutoff);
+            if (oldest.isEmpty()) {
+                return List.<Long>of();
+            }
+            // The cutoff is a month start, so the month never reaches past it.
+            LocalDate from = oldest.get().withDayOfMonth(1);
+            LocalDate to = from.plusMonths(1);
+            List<ArchivedExpense> rows = expenseRepository.findForArchiveByUserId(userId, from, to).stream()
+                    .map(ExpenseArchiver::toArchived)
+                    .toList();
+            if (rows.isEmpty()) {
+                return List.<Long>of();
+            }
+            segmentRepository.save(segment(userId, rows));
+
+            int deleted = expenseRepository.deleteArchivedByUserId(userId, from, to);
+            if (deleted != rows.size()) {
+                throw new IllegalStateException("Archived " + rows.size() + " expenses but deleted " + deleted);
+            }
+            changeVersions.expensesChanged(userId);
+            readYourWrites.userWritten(userId);
+            return rows.stream().map(ArchivedExpense::id).toList();
+        });
+        ids.forEach(id -> {
+            textIndex.remove(userId, id);
+            columnStore.remove(id);
+        });
+        archivedRows.increment(ids.size());
+        return ids.size();
+    }
+
+    private ExpenseArchiveSegment segment(Long userId, List<ArchivedExpense> rows) {
+        ExpenseArchiveSegment segment = new ExpenseArchiveSegment();
+        segment.setUserId(userId);
+        segment.setFromDate(rows.getFirst().expenseDate());
+        segment.setToDate(rows.getLast().expenseDate());
+        segment.setRowCount(rows.size());
+        segment.setData(archive.encode(rows));
+        return segment;
+    }
+
+    private static ArchivedExpense toArchived(Expense expense) {
+        return new ArchivedExpense(expense.getId(), expense.getAmount().movePointRight(2).longValueExact(),
+                expense.getDescription(), expense.getCategory().getId(), expense.getExpenseDate(),
+                expense.getCreatedAt());
+    }
+}
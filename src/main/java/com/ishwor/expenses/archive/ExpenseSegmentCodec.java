@@ -0,0 +1,171 @@
+package com.ishwor.expenses.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary format of a segment file: a gzip stream holding a header and then the rows column by column. Ids, dates
+ * and creation times are delta-encoded against the previous row and every number is a variable-length integer,
+ * so rows sorted by date cost a few bytes each before compression; descriptions are length-prefixed UTF-8.
+ *
+ * <pre>
+ * magic "EXPS", version, count,
+ * ids[count], epochDays[count], categoryIds[count], amountCents[count],
+ * createdAtSeconds[count], createdAtNanos[count], descriptions[count]
+ * </pre>
+ */
+public final class ExpenseSegmentCodec {
+    private static final int MAGIC = 0x45585053;
+    private static final int VERSION = 1;
+
+    private ExpenseSegmentCodec() {
+    }
+
+    public static void write(List<ArchivedExpense> rows, OutputStream output) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(output, 64 * 1024);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeUnsigned(out, rows.size());
+
+        long previous = 0;
+        for (ArchivedExpense row : rows) {
+            writeSigned(out, row.id() - previous);
+            previous = row.id();
+        }
+        previous = 0;
+        for (ArchivedExpense row : rows) {
+            long epochDay = row.expenseDate().toEpochDay();
+            writeSigned(out, epochDay - previous);
+            previous = epochDay;
+        }
+        for (ArchivedExpense row : rows) {
+            writeUnsigned(out, row.categoryId());
+        }
+        for (ArchivedExpense row : rows) {
+            writeSigned(out, row.amountCents());
+        }
+        previous = 0;
+        for (ArchivedExpense row : rows) {
+            long seconds = row.createdAt().getEpochSecond();
+            writeSigned(out, seconds - previous);
+            previous = seconds;
+        }
+        for (ArchivedExpense row : rows) {
+            writeUnsigned(out, row.createdAt().getNano());
+        }
+        for (ArchivedExpense row : rows) {
+            if (row.description() == null) {
+                writeUnsigned(out, 0);
+            } else {
+                byte[] bytes = row.description().getBytes(StandardCharsets.UTF_8);
+                writeUnsigned(out, bytes.length + 1L);
+                out.write(bytes);
+            }
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    public static List<ArchivedExpense> read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(input, 64 * 1024), 64 * 1024));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an expense segment");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported expense segment version " + version);
+        }
+        int count = Math.toIntExact(readUnsigned(in));
+
+        long[] ids = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readSigned(in);
+            ids[i] = previous;
+        }
+        long[] epochDays = new long[count];
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readSigned(in);
+            epochDays[i] = previous;
+        }
+        long[] categoryIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            categoryIds[i] = readUnsigned(in);
+        }
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = readSigned(in);
+        }
+        long[] seconds = new long[count];
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readSigned(in);
+            seconds[i] = previous;
+        }
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            nanos[i] = readUnsigned(in);
+        }
+
+        List<ArchivedExpense> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long length = readUnsigned(in);
+            String description = null;
+            if (length > 0) {
+                byte[] bytes = new byte[Math.toIntExact(length - 1)];
+                in.readFully(bytes);
+                description = new String(bytes, StandardCharsets.UTF_8);
+            }
+            rows.add(new ArchivedExpense(ids[i], amounts[i], description, categoryIds[i],
+                    LocalDate.ofEpochDay(epochDays[i]), Instant.ofEpochSecond(seconds[i], nanos[i])));
+        }
+        return rows;
+    }
+
+    private static void writeSigned(DataOutputStream out, long value) throws IOException {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeUnsigned(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readSigned(DataInputStream in) throws IOException {
+        long value = readUnsigned(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readUnsigned(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated expense segment");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed expense segment");
+    }
+}
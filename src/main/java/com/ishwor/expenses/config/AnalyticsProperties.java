@@ -0,0 +1,15 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "expenses.analytics")
+public record AnalyticsProperties(
+        // Largest series a single request may ask for; ten years of daily buckets fit.
+        @DefaultValue("4000") int maxBuckets,
+        // Row count from which aggregation is split across the common fork-join pool.
+        @DefaultValue("50000") int parallelThreshold,
+        // Serve series from the in-process column store instead of the database. It only sees this instance's
+        // writes, so only turn it on when a single instance writes to the database.
+        @DefaultValue("false") boolean columnStore
+) {}
@@ -0,0 +1,16 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.Period;
+
+@ConfigurationProperties(prefix = "expenses.archive")
+public record ArchiveProperties(
+        // Runs the archival job every interval; the read side merges existing segments either way.
+        @DefaultValue("false") boolean enabled,
+        // Expenses dated before the first day of the month this far back are moved out of the expenses table.
+        @DefaultValue("2y") Period horizon,
+        @DefaultValue("24h") Duration interval
+) {}
@@ -0,0 +1,10 @@
+package com.ishwor.expenses.config;
+
+public final class CacheNames {
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_LIST = "categoryList";
+    public static final String USERS = "users";
+
+    private CacheNames() {
+    }
+}
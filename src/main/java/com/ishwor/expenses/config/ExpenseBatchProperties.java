@@ -0,0 +1,9 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "expenses.batch")
+public record ExpenseBatchProperties(
+        @DefaultValue("1000") int maxItems
+) {}
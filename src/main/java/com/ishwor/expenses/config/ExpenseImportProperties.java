@@ -0,0 +1,13 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "expenses.import")
+public record ExpenseImportProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("100") int maxReportedErrors,
+        // Longest CSV record or NDJSON line, in characters; a longer one is rejected as a row and the import goes on.
+        // Bounds what an unterminated quote or a body without line breaks buffers.
+        @DefaultValue("65536") int maxRecordLength
+) {}
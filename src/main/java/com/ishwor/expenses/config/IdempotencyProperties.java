@@ -0,0 +1,14 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "expenses.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("10000") int maxKeys,
+        @DefaultValue("24h") Duration ttl,
+        // How long a duplicate waits for the in-flight request with its key before it is answered with a 503.
+        @DefaultValue("30s") Duration waitTimeout
+) {}
@@ -0,0 +1,21 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Monthly partitioning of the expenses table (PostgreSQL only). Maintenance runs wherever the table is partitioned.
+ */
+@ConfigurationProperties(prefix = "expenses.partitioning")
+public record PartitionProperties(
+        // Adds the migration that partitions expenses by month; has to stay on once it has run. Off keeps the plain table.
+        @DefaultValue("false") boolean enabled,
+        // Partitions are kept in place for the current month and this many after it.
+        @DefaultValue("3") int monthsAhead,
+        // Months that ended longer ago than this are detached and dropped. Unset keeps every month.
+        Period retention,
+        @DefaultValue("24h") Duration interval
+) {}
@@ -0,0 +1,19 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "expenses.datasource")
+public record ReplicaProperties(
+        // Read-only transactions are spread over these; with none configured everything uses spring.datasource.
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("10") int replicaPoolSize,
+        // How long reads that depend on a write stay on the primary. A fixed bound, not a lag check: keep it above
+        // the worst replica lag.
+        @DefaultValue("2s") Duration readYourWritesWindow
+) {
+    public record Replica(String url, String username, String password) {}
+}
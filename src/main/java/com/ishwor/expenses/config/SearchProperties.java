@@ -0,0 +1,11 @@
+package com.ishwor.expenses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "expenses.search")
+public record SearchProperties(
+        // Serve description search from the in-process index instead of a database scan. It only sees this
+        // instance's writes, so only turn it on when a single instance writes to the database.
+        @DefaultValue("false") boolean textIndex
+) {}
@@ -0,0 +1,21 @@
+package com.ishwor.expenses.config;
+
+import com.ishwor.expenses.writebehind.WriteBehindDurability;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "expenses.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("COMMIT") WriteBehindDurability durability,
+        // Queued expenses beyond this are refused with 503 instead of growing the heap.
+        @DefaultValue("10000") int capacity,
+        // Expenses per group transaction; capped by expenses.batch.max-items.
+        @DefaultValue("500") int maxBatch,
+        // How long the flusher waits for a group to fill once the first expense has arrived.
+        @DefaultValue("10ms") Duration maxDelay,
+        // How long a commit-durability caller waits for its group before it is answered with a 503.
+        @DefaultValue("30s") Duration commitTimeout
+) {}
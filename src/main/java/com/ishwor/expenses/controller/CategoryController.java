@@ -3,9 +3,11 @@ package com.ishwor.expenses.controller;
 import com.ishwor.expenses.dto.request.CategoryRequest;
 import com.ishwor.expenses.dto.response.CategoryResponse;
 import com.ishwor.expenses.service.CategoryService;
+import com.ishwor.expenses.versioning.ChangeVersions;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,9 +15,11 @@ import java.util.List;
 @RequestMapping("/api/categories")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final ChangeVersions changeVersions;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ChangeVersions changeVersions) {
         this.categoryService = categoryService;
+        this.changeVersions = changeVersions;
     }
 
     @PostMapping
@@ -25,7 +29,10 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.categoriesETag())) {
+            return null;
+        }
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
 
@@ -1,47 +1,202 @@
 package com.ishwor.expenses.controller;
 
+import com.ishwor.expenses.analytics.BucketSize;
 import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseImportResponse;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
 import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.ExpenseSummaryResponse;
+import com.ishwor.expenses.dto.response.SpendingSeriesResponse;
+import com.ishwor.expenses.exporter.ExpenseExport;
+import com.ishwor.expenses.exporter.ExportFormat;
+import com.ishwor.expenses.idempotency.IdempotencyStore;
+import com.ishwor.expenses.idempotency.IdempotentResult;
+import com.ishwor.expenses.importer.ImportFormat;
+import com.ishwor.expenses.repository.search.ExpenseSearchCriteria;
+import com.ishwor.expenses.service.ExpenseAnalyticsService;
+import com.ishwor.expenses.service.ExpenseBatchService;
+import com.ishwor.expenses.service.ExpenseExportService;
+import com.ishwor.expenses.service.ExpenseImportService;
 import com.ishwor.expenses.service.ExpenseService;
+import com.ishwor.expenses.service.ExpenseSummaryService;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/expenses")
 public class ExpenseController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final ExpenseService expenseService;
+    private final ExpenseBatchService expenseBatchService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseSummaryService expenseSummaryService;
+    private final ExpenseAnalyticsService expenseAnalyticsService;
+    private final ChangeVersions changeVersions;
+    private final IdempotencyStore idempotencyStore;
 
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService, ExpenseBatchService expenseBatchService,
+                             ExpenseImportService expenseImportService, ExpenseExportService expenseExportService,
+                             ExpenseSummaryService expenseSummaryService, ExpenseAnalyticsService expenseAnalyticsService,
+                             ChangeVersions changeVersions, IdempotencyStore idempotencyStore) {
         this.expenseService = expenseService;
+        this.expenseBatchService = expenseBatchService;
+        this.expenseImportService = expenseImportService;
+        this.expenseExportService = expenseExportService;
+        this.expenseSummaryService = expenseSummaryService;
+        this.expenseAnalyticsService = expenseAnalyticsService;
+        this.changeVersions = changeVersions;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @PostMapping
-    public ResponseEntity<ExpenseResponse> addExpense(@Valid @RequestBody ExpenseRequest request) {
-        return ResponseEntity.ok(expenseService.addExpense(request));
+    public ResponseEntity<ExpenseResponse> addExpense(
+            @Valid @RequestBody ExpenseRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(expenseService.addExpense(request));
+        }
+        return idempotent(idempotencyStore.execute("create", idempotencyKey, request,
+                () -> expenseService.addExpense(request)));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ExpenseBatchResponse> addExpenses(@RequestBody List<ExpenseRequest> requests) {
+        return ResponseEntity.ok(expenseBatchService.addExpenses(requests));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ExpenseImportResponse> importCsv(InputStream body) {
+        return ResponseEntity.ok(expenseImportService.importExpenses(body, ImportFormat.CSV));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ExpenseImportResponse> importNdjson(InputStream body) {
+        return ResponseEntity.ok(expenseImportService.importExpenses(body, ImportFormat.NDJSON));
     }
 
     @GetMapping
-    public ResponseEntity<List<ExpenseResponse>> getAllExpenses() {
+    public ResponseEntity<List<ExpenseResponse>> getAllExpenses(WebRequest webRequest) {
+        // The tag is read before the query, so a concurrent write can only make it look older than the rows.
+        if (webRequest.checkNotModified(changeVersions.allExpensesETag())) {
+            return null;
+        }
         return ResponseEntity.ok(expenseService.getAllExpenses());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePageResponse> getExpensesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(expenseService.getExpensesPage(cursor, size, sort));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ExpensePageResponse> searchExpenses(
+            @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "categoryId", required = false) Set<Long> categoryIds,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(userId, from, to, categoryIds, minAmount, maxAmount);
+        return ResponseEntity.ok(expenseService.searchExpenses(criteria, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ExpenseResponse> getExpenseById(@PathVariable Long id) {
         return ResponseEntity.ok(expenseService.getExpenseById(id));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ExpenseResponse>> getExpensesByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<ExpenseResponse>> getExpensesByUser(@PathVariable Long userId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.userExpensesETag(userId))) {
+            return null;
+        }
         return ResponseEntity.ok(expenseService.getExpensesByUser(userId));
     }
 
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<List<ExpenseResponse>> searchDescriptions(
+            @PathVariable Long userId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(expenseService.searchDescriptions(userId, q, limit));
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<ExpensePageResponse> getExpensesPageByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(expenseService.getExpensesPageByUser(userId, cursor, size, sort));
+    }
+
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<ExpenseSummaryResponse> getMonthlySummary(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(expenseSummaryService.getMonthlySummary(userId, month != null ? month : YearMonth.now()));
+    }
+
+    @GetMapping("/user/{userId}/series")
+    public ResponseEntity<SpendingSeriesResponse> getSpendingSeries(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam(defaultValue = "false") boolean byCategory) {
+        // Defaults to the last twelve months including the current one.
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+        return ResponseEntity.ok(expenseAnalyticsService.getSpendingSeries(userId, start, end, BucketSize.from(bucket), byCategory));
+    }
+
+    @GetMapping("/user/{userId}/export")
+    public void exportExpensesByUser(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        ExpenseExport export = expenseExportService.exportExpensesByUser(userId, exportFormat, from, to);
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"expenses-user-" + userId + "." + exportFormat.extension() + "\"");
+        export.writeTo(response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseResponse> updateExpense(
-            @PathVariable Long id, @Valid @RequestBody ExpenseRequest request) {
-        return ResponseEntity.ok(expenseService.updateExpense(id, request));
+            @PathVariable Long id, @Valid @RequestBody ExpenseRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(expenseService.updateExpense(id, request));
+        }
+        return idempotent(idempotencyStore.execute("update:" + id, idempotencyKey, request,
+                () -> expenseService.updateExpense(id, request)));
     }
 
     @DeleteMapping("/{id}")
@@ -49,4 +204,10 @@ public class ExpenseController {
         expenseService.deleteExpense(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<ExpenseResponse> idempotent(IdempotentResult<ExpenseResponse> result) {
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", Boolean.toString(result.replayed()))
+                .body(result.value());
+    }
 }
@@ -0,0 +1,28 @@
+package com.ishwor.expenses.controller;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseAcceptedResponse;
+import com.ishwor.expenses.writebehind.ExpenseWriteBehindQueue;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/expenses")
+@ConditionalOnProperty(prefix = "expenses.write-behind", name = "enabled", havingValue = "true")
+public class ExpenseIngestController {
+    private final ExpenseWriteBehindQueue writeBehindQueue;
+
+    public ExpenseIngestController(ExpenseWriteBehindQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<ExpenseAcceptedResponse> ingestExpense(@Valid @RequestBody ExpenseRequest request) {
+        return ResponseEntity.accepted().body(writeBehindQueue.submit(request));
+    }
+}
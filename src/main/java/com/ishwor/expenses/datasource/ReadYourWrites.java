@@ -0,0 +1,95 @@
+package com.ishwor.expenses.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ishwor.expenses.config.ReplicaProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides which read-only transactions {@link ReadWriteRoutingDataSource} may send to a replica. Writers record
+ * what they changed once their transaction commits; read-only service methods then opt in to a replica unless
+ * the data they are about to read changed within {@code expenses.datasource.read-your-writes-window}.
+ * <p>
+ * That window is a fixed bound, not a check of replica lag: a replica further behind than the window, or a read
+ * landing on another instance than the write, can still return rows older than the client's write. Responses
+ * that carry a list {@code ETag} never opt in, so a fresh tag is never paired with stale rows that a client
+ * would then cache.
+ * <p>
+ * Reads are opt-in because Spring Data runs every repository call in a read-only transaction of its own,
+ * including the lookups that validate a write. The {@code replicaUnless...} methods must run inside the read-only
+ * transaction and before its first query: the physical connection, and with it the routing decision, is only
+ * taken at the first statement. Like {@link com.ishwor.expenses.versioning.ChangeVersions} this only sees writes
+ * made through this instance.
+ */
+@Component
+public class ReadYourWrites {
+    private static final Object REPLICA_ALLOWED = new Object();
+
+    private final long windowNanos;
+    private final Cache<Long, Boolean> recentlyWrittenUsers;
+    private volatile long expensesWrittenAt;
+
+    public ReadYourWrites(ReplicaProperties replicaProperties) {
+        this.windowNanos = replicaProperties.readYourWritesWindow().toNanos();
+        this.recentlyWrittenUsers = Caffeine.newBuilder()
+                .expireAfterWrite(replicaProperties.readYourWritesWindow())
+                .build();
+        this.expensesWrittenAt = System.nanoTime() - windowNanos;
+    }
+
+    /**
+     * A user, or one of their expenses, was created, changed or deleted.
+     */
+    public void userWritten(Long userId) {
+        afterCommit(() -> {
+            recentlyWrittenUsers.put(userId, Boolean.TRUE);
+            expensesWrittenAt = System.nanoTime();
+        });
+    }
+
+    public void replicaUnlessUserWritten(Long userId) {
+        if (recentlyWrittenUsers.getIfPresent(userId) == null) {
+            allowReplica();
+        }
+    }
+
+    // Covers the global expense pages after any expense change.
+    public void replicaUnlessExpensesWritten() {
+        if (System.nanoTime() - expensesWrittenAt >= windowNanos) {
+            allowReplica();
+        }
+    }
+
+    static boolean isReplicaAllowed() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_ALLOWED);
+    }
+
+    private static void allowReplica() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_ALLOWED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_ALLOWED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_ALLOWED);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable record) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ishwor.expenses.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record CategorySeriesResponse(
+        Long categoryId,
+        String categoryName,
+        List<BigDecimal> totals
+) {}
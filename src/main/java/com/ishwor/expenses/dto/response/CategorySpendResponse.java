@@ -0,0 +1,10 @@
+package com.ishwor.expenses.dto.response;
+
+import java.math.BigDecimal;
+
+public record CategorySpendResponse(
+        Long categoryId,
+        String categoryName,
+        BigDecimal totalAmount,
+        long expenseCount
+) {}
@@ -0,0 +1,11 @@
+package com.ishwor.expenses.dto.response;
+
+/**
+ * Acknowledgement for an asynchronously ingested expense. {@code expenseId} is only known once the
+ * expense has been committed, i.e. in {@code commit} durability mode.
+ */
+public record ExpenseAcceptedResponse(
+        String acceptedId,
+        Long expenseId,
+        boolean committed
+) {}
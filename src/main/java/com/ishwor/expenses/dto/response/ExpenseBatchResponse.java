@@ -0,0 +1,11 @@
+package com.ishwor.expenses.dto.response;
+
+import java.util.List;
+
+public record ExpenseBatchResponse(
+        int received,
+        int created,
+        int failed,
+        List<ExpenseResponse> expenses,
+        List<ExpenseBatchError> errors
+) {}
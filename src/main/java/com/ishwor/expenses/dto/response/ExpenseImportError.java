@@ -0,0 +1,8 @@
+package com.ishwor.expenses.dto.response;
+
+import java.util.List;
+
+public record ExpenseImportError(
+        long line,
+        List<String> messages
+) {}
@@ -0,0 +1,12 @@
+package com.ishwor.expenses.dto.response;
+
+import java.util.List;
+
+public record ExpenseImportResponse(
+        long rowsRead,
+        long imported,
+        long rejected,
+        long durationMillis,
+        double rowsPerSecond,
+        List<ExpenseImportError> errors
+) {}
@@ -0,0 +1,9 @@
+package com.ishwor.expenses.dto.response;
+
+import java.util.List;
+
+public record ExpensePageResponse(
+        List<ExpenseResponse> items,
+        String nextCursor,
+        boolean hasMore
+) {}
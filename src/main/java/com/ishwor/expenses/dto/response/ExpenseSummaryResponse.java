@@ -0,0 +1,13 @@
+package com.ishwor.expenses.dto.response;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+public record ExpenseSummaryResponse(
+        Long userId,
+        YearMonth month,
+        BigDecimal totalAmount,
+        long expenseCount,
+        List<CategorySpendResponse> categories
+) {}
@@ -0,0 +1,19 @@
+package com.ishwor.expenses.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Chart-ready series: {@code buckets} holds each bucket's first day and every list below is aligned with it.
+ */
+public record SpendingSeriesResponse(
+        Long userId,
+        LocalDate from,
+        LocalDate to,
+        String bucket,
+        List<LocalDate> buckets,
+        List<BigDecimal> totals,
+        List<Long> counts,
+        List<CategorySeriesResponse> categories
+) {}
@@ -0,0 +1,61 @@
+package com.ishwor.expenses.exporter;
+
+import com.ishwor.expenses.repository.projection.ExpenseView;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes expenses as CSV. The column names match what the CSV importer expects, so an
+ * export can be imported again as-is.
+ */
+public class ExpenseCsvWriter {
+    static final String HEADER = "id,expenseDate,amount,description,categoryId,categoryName,userId,userName,createdAt";
+
+    private final Writer writer;
+
+    public ExpenseCsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    public void write(ExpenseView view) throws IOException {
+        writer.write(String.valueOf(view.id()));
+        writer.write(',');
+        writer.write(view.expenseDate().toString());
+        writer.write(',');
+        writer.write(view.amount().toPlainString());
+        writer.write(',');
+        writeEscaped(view.description());
+        writer.write(',');
+        writer.write(String.valueOf(view.categoryId()));
+        writer.write(',');
+        writeEscaped(view.categoryName());
+        writer.write(',');
+        writer.write(String.valueOf(view.userId()));
+        writer.write(',');
+        writeEscaped(view.userName());
+        writer.write(',');
+        writer.write(view.createdAt() == null ? "" : view.createdAt().toString());
+        writer.write('\n');
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,13 @@
+package com.ishwor.expenses.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A prepared export. Validation has already happened when one is handed out, so the
+ * caller can commit response headers before any rows are read.
+ */
+@FunctionalInterface
+public interface ExpenseExport {
+    void writeTo(OutputStream output) throws IOException;
+}
@@ -0,0 +1,95 @@
+package com.ishwor.expenses.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ishwor.expenses.config.IdempotencyProperties;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ServiceUnavailableException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of writes sent with an {@code Idempotency-Key} header, bounded in size and expiring
+ * after {@code expenses.idempotency.ttl}.
+ * <p>
+ * The first request for a key registers an in-flight future before running the write; duplicates that arrive
+ * meanwhile wait on that future instead of writing again, and later retries get the stored value. Failures are
+ * not remembered, so a retry after an error runs the write again. Whatever the write throws, errors included,
+ * completes the future and frees the key, and duplicates give up after {@code expenses.idempotency.wait-timeout}
+ * rather than waiting on a request that never finishes. Entries live in this instance only.
+ */
+@Component
+public class IdempotencyStore {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.waitTimeout = properties.waitTimeout();
+    }
+
+    /**
+     * Runs {@code action} once per {@code operation} and {@code key}. The request is kept alongside the outcome
+     * so that a key reused with a different payload is rejected instead of silently answered with the old result.
+     */
+    public <T> IdempotentResult<T> execute(String operation, String key, Object request, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String entryKey = operation + ":" + key;
+        Entry mine = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(entryKey, mine);
+
+        if (existing != null) {
+            if (!Objects.equals(existing.request(), request)) {
+                throw new BadRequestException("Idempotency-Key was already used with a different request");
+            }
+            return new IdempotentResult<>(await(existing, waitTimeout), true);
+        }
+
+        try {
+            T value = action.get();
+            mine.outcome().complete(value);
+            return new IdempotentResult<>(value, false);
+        } catch (Throwable e) {
+            entries.asMap().remove(entryKey, mine);
+            mine.outcome().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Each duplicate bounds its own wait; the shared future is only ever completed by the request that owns it.
+    @SuppressWarnings("unchecked")
+    private static <T> T await(Entry entry, Duration timeout) {
+        try {
+            return (T) entry.outcome().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the request with this Idempotency-Key");
+        }
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> outcome) {}
+}
@@ -0,0 +1,3 @@
+package com.ishwor.expenses.idempotency;
+
+public record IdempotentResult<T>(T value, boolean replayed) {}
@@ -0,0 +1,103 @@
+package com.ishwor.expenses.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Character source for the import readers. Line breaks are \n, \r or \r\n, as for BufferedReader.readLine, and
+ * are returned as a single \n; {@link #line()} follows them. Nothing here holds more than {@code maxLength}
+ * characters of a line: a reader that gives up on a record skips to the next line break without keeping it.
+ */
+final class BoundedLineReader implements Closeable {
+    private final Reader reader;
+    private final int maxLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+
+    BoundedLineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * The 1-based line of the next character.
+     */
+    long line() {
+        return line;
+    }
+
+    boolean atEnd() throws IOException {
+        return peek() < 0;
+    }
+
+    int read() throws IOException {
+        int c = peekRaw();
+        if (c < 0) {
+            return c;
+        }
+        position++;
+        if (c == '\r' || c == '\n') {
+            if (c == '\r' && peekRaw() == '\n') {
+                position++;
+            }
+            line++;
+            return '\n';
+        }
+        return c;
+    }
+
+    int peek() throws IOException {
+        int c = peekRaw();
+        return c == '\r' ? '\n' : c;
+    }
+
+    /**
+     * Reads the rest of the current line into {@code into}, without its break. Returns false, having skipped the
+     * rest of the line, once it runs past {@code maxLength} characters.
+     */
+    boolean readLine(StringBuilder into) throws IOException {
+        into.setLength(0);
+        for (int c = read(); c >= 0 && c != '\n'; c = read()) {
+            if (into.length() == maxLength) {
+                skipLine();
+                return false;
+            }
+            into.append((char) c);
+        }
+        return true;
+    }
+
+    /**
+     * Discards everything up to and including the next line break.
+     */
+    void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != '\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int peekRaw() throws IOException {
+        if (position == limit) {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return -1;
+            }
+            position = 0;
+            limit = read;
+        }
+        return buffer[position];
+    }
+}
@@ -0,0 +1,154 @@
+package com.ishwor.expenses.importer;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 style CSV with a header row naming the {@link ExpenseRequest} fields.
+ * Column order is free; {@code expenseDate} is optional. A record longer than {@code maxRecordLength} characters,
+ * such as everything after an unterminated quote, becomes a rejected row instead of being buffered whole, and
+ * reading carries on at the next line break.
+ */
+public class CsvExpenseRowReader implements ExpenseRowReader {
+    private static final List<String> REQUIRED_COLUMNS = List.of("amount", "description", "categoryid", "userid");
+    // Returned by readRecord, compared by identity, for a record cut off at maxRecordLength.
+    private static final List<String> OVERLONG = List.of();
+
+    private final BoundedLineReader lines;
+    private Map<String, Integer> columns;
+
+    public CsvExpenseRowReader(BufferedReader reader, int maxRecordLength) {
+        this.lines = new BoundedLineReader(reader, maxRecordLength);
+    }
+
+    @Override
+    public ExpenseRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        while (true) {
+            long recordLine = lines.line();
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields == OVERLONG) {
+                return ExpenseRow.invalid(recordLine, "Record is longer than " + lines.maxLength()
+                        + " characters; skipped through line " + (lines.line() - 1));
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            return toRow(recordLine, fields);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("CSV input is empty");
+        }
+        if (header == OVERLONG) {
+            throw new BadRequestException("CSV header is longer than " + lines.maxLength() + " characters");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.put(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("CSV header is missing column '" + required + "'");
+            }
+        }
+    }
+
+    private ExpenseRow toRow(long line, List<String> fields) {
+        try {
+            String amount = field(fields, "amount");
+            String categoryId = field(fields, "categoryid");
+            String userId = field(fields, "userid");
+            String expenseDate = field(fields, "expensedate");
+            return ExpenseRow.valid(line, new ExpenseRequest(
+                    amount == null ? null : new BigDecimal(amount),
+                    field(fields, "description"),
+                    categoryId == null ? null : Long.valueOf(categoryId),
+                    userId == null ? null : Long.valueOf(userId),
+                    expenseDate == null ? null : LocalDate.parse(expenseDate)
+            ));
+        } catch (NumberFormatException e) {
+            return ExpenseRow.invalid(line, "Invalid number");
+        } catch (DateTimeParseException e) {
+            return ExpenseRow.invalid(line, "Invalid expenseDate, expected yyyy-MM-dd");
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // A quoted field may span physical lines, so one record can consume several of them; inside quotes each line
+    // break becomes \n. Past maxRecordLength the rest of the current line is skipped and OVERLONG returned.
+    private List<String> readRecord() throws IOException {
+        if (lines.atEnd()) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        int length = 0;
+        for (int c = lines.read(); c >= 0; c = lines.read()) {
+            if (c == '\n' && !inQuotes) {
+                break;
+            }
+            if (++length > lines.maxLength()) {
+                if (c != '\n') {
+                    lines.skipLine();
+                }
+                return OVERLONG;
+            }
+            if (c == '\n') {
+                current.append('\n');
+            } else if (inQuotes) {
+                if (c == '"' && lines.peek() == '"') {
+                    current.append('"');
+                    lines.read();
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    current.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append((char) c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
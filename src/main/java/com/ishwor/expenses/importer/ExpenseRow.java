@@ -0,0 +1,17 @@
+package com.ishwor.expenses.importer;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+
+/**
+ * One parsed input record. Exactly one of {@code request} and {@code error} is set.
+ */
+public record ExpenseRow(long line, ExpenseRequest request, String error) {
+
+    public static ExpenseRow valid(long line, ExpenseRequest request) {
+        return new ExpenseRow(line, request, null);
+    }
+
+    public static ExpenseRow invalid(long line, String error) {
+        return new ExpenseRow(line, null, error);
+    }
+}
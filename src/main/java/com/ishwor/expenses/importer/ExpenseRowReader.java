@@ -0,0 +1,16 @@
+package com.ishwor.expenses.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-based reader over an import stream. Rows are produced one at a time so the
+ * caller decides how much to buffer.
+ */
+public interface ExpenseRowReader extends Closeable {
+
+    /**
+     * @return the next row, or {@code null} once the input is exhausted
+     */
+    ExpenseRow next() throws IOException;
+}
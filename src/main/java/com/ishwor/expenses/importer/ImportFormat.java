@@ -0,0 +1,6 @@
+package com.ishwor.expenses.importer;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
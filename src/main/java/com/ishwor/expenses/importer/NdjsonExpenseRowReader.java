@@ -0,0 +1,47 @@
+package com.ishwor.expenses.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads one {@link ExpenseRequest} JSON object per line. A line longer than {@code maxRecordLength} characters
+ * becomes a rejected row and is skipped without being buffered whole; the lines after it are still read.
+ */
+public class NdjsonExpenseRowReader implements ExpenseRowReader {
+    private final BoundedLineReader lines;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder line = new StringBuilder();
+
+    public NdjsonExpenseRowReader(BufferedReader reader, ObjectMapper objectMapper, int maxRecordLength) {
+        this.lines = new BoundedLineReader(reader, maxRecordLength);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExpenseRow next() throws IOException {
+        while (!lines.atEnd()) {
+            long lineNumber = lines.line();
+            if (!lines.readLine(line)) {
+                return ExpenseRow.invalid(lineNumber, "Line is longer than " + lines.maxLength() + " characters");
+            }
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            try {
+                return ExpenseRow.valid(lineNumber, objectMapper.readValue(line.toString(), ExpenseRequest.class));
+            } catch (JsonProcessingException e) {
+                return ExpenseRow.invalid(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+}
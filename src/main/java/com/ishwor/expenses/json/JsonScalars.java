@@ -0,0 +1,104 @@
+package com.ishwor.expenses.json;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Formats amounts and timestamps straight into a caller's {@code char[]}, producing exactly what Jackson writes
+ * for them by default, so the tuned serializers never build an intermediate string.
+ */
+final class JsonScalars {
+    // Longest output of either method: a 23-digit fraction with sign and "0.", or a timestamp with nanoseconds.
+    static final int BUFFER_SIZE = 32;
+
+    private JsonScalars() {
+    }
+
+    /**
+     * Writes {@code value} as {@link BigDecimal#toString()} would, right-aligned ending at {@code buffer.length};
+     * returns the start index, or -1 when the value needs exponent notation or more than 18 digits.
+     */
+    static int decimal(BigDecimal value, char[] buffer) {
+        int scale = value.scale();
+        int precision = value.precision();
+        if (scale < 0 || precision > 18 || precision - 1 - scale < -6) {
+            return -1;
+        }
+        long unscaled = value.unscaledValue().longValue();
+        long remaining = Math.abs(unscaled);
+        int start = buffer.length;
+        int written = 0;
+        // At least one integer digit, and every fraction digit even when it is a leading zero.
+        while (remaining != 0 || written <= scale) {
+            if (written == scale && scale > 0) {
+                buffer[--start] = '.';
+            }
+            buffer[--start] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+            written++;
+        }
+        if (unscaled < 0) {
+            buffer[--start] = '-';
+        }
+        return start;
+    }
+
+    /**
+     * Writes {@code instant} in ISO-8601 as {@link Instant#toString()} would, starting at index 0; returns the
+     * length, or -1 for years outside 0000-9999.
+     */
+    static int instant(Instant instant, char[] buffer) {
+        long seconds = instant.getEpochSecond();
+        long days = Math.floorDiv(seconds, 86_400);
+        int secondOfDay = (int) Math.floorMod(seconds, 86_400);
+
+        // Civil date from days since 1970-01-01, in 400-year eras starting on March 1st (H. Hinnant).
+        long shifted = days + 719_468;
+        long era = Math.floorDiv(shifted, 146_097);
+        long dayOfEra = shifted - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+
+        int pos = digits(buffer, 0, (int) year, 4);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, month, 2);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, day, 2);
+        buffer[pos++] = 'T';
+        pos = digits(buffer, pos, secondOfDay / 3_600, 2);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, secondOfDay / 60 % 60, 2);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, secondOfDay % 60, 2);
+        int nanos = instant.getNano();
+        // Fractions come in groups of three digits, as many as the value needs.
+        if (nanos != 0) {
+            buffer[pos++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                pos = digits(buffer, pos, nanos / 1_000_000, 3);
+            } else if (nanos % 1_000 == 0) {
+                pos = digits(buffer, pos, nanos / 1_000, 6);
+            } else {
+                pos = digits(buffer, pos, nanos, 9);
+            }
+        }
+        buffer[pos++] = 'Z';
+        return pos;
+    }
+
+    // Zero-padded to `width` digits.
+    private static int digits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
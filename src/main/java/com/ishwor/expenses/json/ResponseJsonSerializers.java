@@ -0,0 +1,141 @@
+package com.ishwor.expenses.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.ishwor.expenses.dto.response.CategoryResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.UserResponse;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Hand-written serializers for the response records that make up the expense and category lists. They write the
+ * same JSON as Jackson's record serializer, field by field in declaration order, but skip its per-property
+ * reflection: field names are encoded once, ids go straight to {@code writeNumber(long)}, and amounts and
+ * timestamps are formatted into a small {@code char[]} by {@link JsonScalars} instead of through
+ * {@code toString()} or a {@code DateTimeFormatter}. Registered with the application's {@code ObjectMapper}, so
+ * every response containing these records uses them, single objects and pages included.
+ */
+@JsonComponent
+public class ResponseJsonSerializers {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString CATEGORY_ID = new SerializedString("categoryId");
+    private static final SerializableString CATEGORY_NAME = new SerializedString("categoryName");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString USER_NAME = new SerializedString("userName");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+
+    public static class ExpenseResponseSerializer extends StdSerializer<ExpenseResponse> {
+        public ExpenseResponseSerializer() {
+            super(ExpenseResponse.class);
+        }
+
+        @Override
+        public void serialize(ExpenseResponse expense, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] buffer = new char[JsonScalars.BUFFER_SIZE];
+            gen.writeStartObject(expense);
+            gen.writeFieldName(ID);
+            writeNumber(gen, expense.id());
+            gen.writeFieldName(AMOUNT);
+            writeDecimal(gen, expense.amount(), buffer);
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(expense.description());
+            gen.writeFieldName(CATEGORY_ID);
+            writeNumber(gen, expense.categoryId());
+            gen.writeFieldName(CATEGORY_NAME);
+            gen.writeString(expense.categoryName());
+            gen.writeFieldName(USER_ID);
+            writeNumber(gen, expense.userId());
+            gen.writeFieldName(USER_NAME);
+            gen.writeString(expense.userName());
+            gen.writeFieldName(CREATED_AT);
+            writeInstant(gen, provider, expense.createdAt(), buffer);
+            gen.writeEndObject();
+        }
+    }
+
+    public static class CategoryResponseSerializer extends StdSerializer<CategoryResponse> {
+        public CategoryResponseSerializer() {
+            super(CategoryResponse.class);
+        }
+
+        @Override
+        public void serialize(CategoryResponse category, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(category);
+            gen.writeFieldName(ID);
+            writeNumber(gen, category.id());
+            gen.writeFieldName(NAME);
+            gen.writeString(category.name());
+            gen.writeFieldName(DESCRIPTION);
+            gen.writeString(category.description());
+            gen.writeFieldName(CREATED_AT);
+            writeInstant(gen, provider, category.createdAt(), new char[JsonScalars.BUFFER_SIZE]);
+            gen.writeEndObject();
+        }
+    }
+
+    public static class UserResponseSerializer extends StdSerializer<UserResponse> {
+        public UserResponseSerializer() {
+            super(UserResponse.class);
+        }
+
+        @Override
+        public void serialize(UserResponse user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(user);
+            gen.writeFieldName(ID);
+            writeNumber(gen, user.id());
+            gen.writeFieldName(NAME);
+            gen.writeString(user.name());
+            gen.writeFieldName(EMAIL);
+            gen.writeString(user.email());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator gen, BigDecimal value, char[] buffer) throws IOException {
+        int start = value == null ? -1 : JsonScalars.decimal(value, buffer);
+        if (start >= 0) {
+            gen.writeNumber(buffer, start, buffer.length - start);
+        } else if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    // ISO-8601 as Spring Boot configures Jackson; a mapper that writes dates as timestamps gets its own serializer.
+    private static void writeInstant(JsonGenerator gen, SerializerProvider provider, Instant value, char[] buffer)
+            throws IOException {
+        if (value != null && provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, gen);
+            return;
+        }
+        int length = value == null ? -1 : JsonScalars.instant(value, buffer);
+        if (length >= 0) {
+            gen.writeString(buffer, 0, length);
+        } else if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ishwor.expenses.mapper;
+
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+
+public final class ExpenseMapper {
+
+    private ExpenseMapper() {
+    }
+
+    public static ExpenseResponse toResponse(ExpenseView view) {
+        return new ExpenseResponse(
+                view.id(),
+                view.amount(),
+                view.description(),
+                view.categoryId(),
+                view.categoryName(),
+                view.userId(),
+                view.userName(),
+                view.createdAt()
+        );
+    }
+
+    // Only for entities whose user and category are already initialized (e.g. just saved).
+    public static ExpenseResponse toResponse(Expense expense) {
+        return new ExpenseResponse(
+                expense.getId(),
+                expense.getAmount(),
+                expense.getDescription(),
+                expense.getCategory().getId(),
+                expense.getCategory().getName(),
+                expense.getUser().getId(),
+                expense.getUser().getName(),
+                expense.getCreatedAt()
+        );
+    }
+
+    // For writes that hold only a reference to the category or user: names come from the caller.
+    public static ExpenseResponse toResponse(Expense expense, String categoryName, String userName) {
+        return new ExpenseResponse(
+                expense.getId(),
+                expense.getAmount(),
+                expense.getDescription(),
+                expense.getCategory().getId(),
+                categoryName,
+                expense.getUser().getId(),
+                userName,
+                expense.getCreatedAt()
+        );
+    }
+}
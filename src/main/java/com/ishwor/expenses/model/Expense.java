@@ -13,11 +13,17 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_user_date_id", columnList = "user_id, expense_date, id"),
+        @Index(name = "idx_expenses_date_id", columnList = "expense_date, id"),
+        @Index(name = "idx_expenses_user_category_date", columnList = "user_id, category_id, expense_date"),
+        @Index(name = "idx_expenses_category", columnList = "category_id")
+})
 public class Expense {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
-    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_id_seq", allocationSize = 1) // ✅ Ensure ID auto-generation
+    // Pooled allocation: one nextval per 50 inserts. The database sequence must use INCREMENT BY 50.
+    @SequenceGenerator(name = "expenses_seq", sequenceName = "expenses_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -29,15 +35,15 @@ public class Expense {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @OnDelete(action = OnDeleteAction.SET_NULL)
-    @JoinColumn(name = "category_id", nullable = false)
+    @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(name = "fk_expenses_category"))
     private Category category;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_expenses_user"))
     private User user;
 
-    @Column(name = "expense_date")
+    @Column(name = "expense_date", nullable = false)
     private LocalDate expenseDate = LocalDate.now();
 
     @Column(name = "created_at", nullable = false, updatable = false)
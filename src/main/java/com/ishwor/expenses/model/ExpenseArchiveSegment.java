@@ -0,0 +1,45 @@
+package com.ishwor.expenses.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One compressed segment of archived expenses and its catalog entry. The dates are those of the first and last
+ * expense in the segment, so a read only decodes segments that overlap the range it asks for.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "expense_archive_segments", indexes = {
+        @Index(name = "idx_expense_archive_segments_user_dates", columnList = "user_id, from_date, to_date")
+})
+public class ExpenseArchiveSegment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_archive_segments_seq")
+    @SequenceGenerator(name = "expense_archive_segments_seq", sequenceName = "expense_archive_segments_id_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    // The rows as written by ExpenseSegmentCodec.
+    @Column(name = "data", nullable = false, updatable = false)
+    private byte[] data;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+}
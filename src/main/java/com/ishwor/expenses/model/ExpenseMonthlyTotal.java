@@ -0,0 +1,32 @@
+package com.ishwor.expenses.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Rollup of a user's expenses per category and month, maintained by every expense write so that
+ * summaries read one row per category instead of scanning expenses.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "expense_monthly_totals", indexes = {
+        @Index(name = "idx_expense_monthly_totals_user_month", columnList = "user_id, month_start")
+})
+public class ExpenseMonthlyTotal {
+    @EmbeddedId
+    private ExpenseMonthlyTotalId id;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+}
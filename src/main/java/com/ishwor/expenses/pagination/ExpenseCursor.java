@@ -0,0 +1,43 @@
+package com.ishwor.expenses.pagination;
+
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position on (expense_date, id). Clients only ever see the encoded form,
+ * so the layout can change without breaking the API.
+ */
+public record ExpenseCursor(LocalDate expenseDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static ExpenseCursor of(ExpenseView view) {
+        return new ExpenseCursor(view.expenseDate(), view.id());
+    }
+
+    public String encode() {
+        String raw = expenseDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new ExpenseCursor(
+                    LocalDate.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
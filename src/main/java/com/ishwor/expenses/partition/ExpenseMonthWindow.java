@@ -0,0 +1,77 @@
+package com.ishwor.expenses.partition;
+
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.projection.MonthCount;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Date bounds for keyset pages over the partitioned {@code expenses} table. A page ordered by
+ * {@code (expense_date, id)} without a date range opens every monthly partition, one index probe each, because
+ * the default partition keeps PostgreSQL from reading them one after another. The monthly rollup tells how many
+ * expenses each month holds, so a page can be confined to the months that hold enough rows to fill it, and the
+ * rest are pruned when the statement starts.
+ * <p>
+ * The bound is only a first guess. Archived and dropped months keep their totals, so a bounded page can come up
+ * short; callers then continue past its last row without a bound. Where the table is not partitioned, or the
+ * rollup counts fewer expenses than the page asks for, there is no bound and this costs no query.
+ */
+@Component
+public class ExpenseMonthWindow {
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final ExpensePartitionMaintainer partitionMaintainer;
+    private final ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    public ExpenseMonthWindow(ExpensePartitionMaintainer partitionMaintainer,
+                              ExpenseMonthlyTotalRepository monthlyTotalRepository) {
+        this.partitionMaintainer = partitionMaintainer;
+        this.monthlyTotalRepository = monthlyTotalRepository;
+    }
+
+    /**
+     * First day of the oldest month a newest-first page of {@code rows} ending at {@code upTo} (open when null)
+     * reaches into, or null for no bound. {@code userId} null counts every user's expenses.
+     */
+    public LocalDate newestFirst(Long userId, LocalDate upTo, int rows) {
+        YearMonth month = edge(userId, EARLIEST, upTo != null ? upTo : LATEST, Sort.Direction.DESC, rows);
+        return month != null ? month.atDay(1) : null;
+    }
+
+    /**
+     * Last day of the newest month an oldest-first page of {@code rows} starting at {@code from} (open when null)
+     * reaches into, or null for no bound.
+     */
+    public LocalDate oldestFirst(Long userId, LocalDate from, int rows) {
+        LocalDate firstMonth = from != null ? YearMonth.from(from).atDay(1) : EARLIEST;
+        YearMonth month = edge(userId, firstMonth, LATEST, Sort.Direction.ASC, rows);
+        return month != null ? month.atEndOfMonth() : null;
+    }
+
+    // Walks the months in page order until they hold a page's worth of expenses.
+    private YearMonth edge(Long userId, LocalDate from, LocalDate to, Sort.Direction direction, int rows) {
+        if (!partitionMaintainer.isPartitioned()) {
+            return null;
+        }
+        Sort sort = Sort.by(direction, "id.monthStart");
+        try (Stream<MonthCount> months = userId == null
+                ? monthlyTotalRepository.streamMonthCounts(from, to, sort)
+                : monthlyTotalRepository.streamMonthCountsByUserId(userId, from, to, sort)) {
+            long counted = 0;
+            for (Iterator<MonthCount> it = months.iterator(); it.hasNext(); ) {
+                MonthCount month = it.next();
+                counted += month.expenseCount();
+                if (counted >= rows) {
+                    return YearMonth.from(month.monthStart());
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ishwor.expenses.partition;
+
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.config.PartitionProperties;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.search.ExpenseTextIndex;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code expenses} in step with the calendar where the table is partitioned
+ * (PostgreSQL with {@code expenses.partitioning.enabled}, see migration V5); elsewhere it does nothing.
+ * <p>
+ * At startup and every {@code expenses.partitioning.interval} it makes sure the current month and the next
+ * {@code months-ahead} have a partition. A new month is created as a plain table, filled with any of its rows that
+ * had landed in {@code expenses_default}, and attached, so far-future expenses never block the creation. With a
+ * {@code retention}, months that ended before it are detached and dropped: one catalog change instead of a
+ * row-by-row delete. The same transaction takes the dropped rows out of the monthly rollup; archived expenses of
+ * the month stay counted there, as the archive still holds them. Each step holds a
+ * transaction-scoped advisory lock, so instances sharing the database never race on the same partition.
+ */
+@Component
+public class ExpensePartitionMaintainer implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ExpensePartitionMaintainer.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("expenses_(\\d{4})_(\\d{2})");
+    private static final long LOCK_KEY = 0x6578_7065_6e73_6573L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseTextIndex textIndex;
+    private final ExpenseColumnStore columnStore;
+    private final ChangeVersions changeVersions;
+    private final ExpenseRollupWriter rollupWriter;
+    private final int monthsAhead;
+    private final Period retention;
+    private final TransactionTemplate transaction;
+    private final boolean partitioned;
+
+    public ExpensePartitionMaintainer(JdbcTemplate jdbcTemplate, ExpenseTextIndex textIndex,
+                                      ExpenseColumnStore columnStore, ChangeVersions changeVersions,
+                                      ExpenseRollupWriter rollupWriter, PartitionProperties properties,
+                                      PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.textIndex = textIndex;
+        this.columnStore = columnStore;
+        this.changeVersions = changeVersions;
+        this.rollupWriter = rollupWriter;
+        this.monthsAhead = properties.monthsAhead();
+        this.retention = properties.retention();
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Migrations have run by now (JdbcTemplate waits for Flyway), and partitioning only changes with them.
+        // Resolved once so keyset pages never wait on a lock around catalog queries.
+        this.partitioned = detectPartitioning(jdbcTemplate);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        maintain(LocalDate.now());
+    }
+
+    @Scheduled(initialDelayString = "${expenses.partitioning.interval:24h}",
+            fixedDelayString = "${expenses.partitioning.interval:24h}")
+    public void run() {
+        maintain(LocalDate.now());
+    }
+
+    public void maintain(LocalDate today) {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.from(today);
+        for (int i = 0; i <= monthsAhead; i++) {
+            ensurePartition(current.plusMonths(i));
+        }
+        if (retention != null) {
+            detachBefore(YearMonth.from(today.minus(retention)));
+        }
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * Creates the month's partition unless it exists, moving its rows out of the default partition first.
+     */
+    public void ensurePartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        transaction.executeWithoutResult(status -> {
+            lock();
+            if (exists(name)) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE expenses INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM expenses_default "
+                    + "WHERE expense_date >= ? AND expense_date < ? RETURNING *) "
+                    + "INSERT INTO " + name + " SELECT * FROM moved", from, to);
+            jdbcTemplate.execute("ALTER TABLE expenses ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Created expense partition {} with {} rows from the default partition", name, moved);
+        });
+    }
+
+    /**
+     * Detaches and drops every monthly partition before {@code firstKept}; returns how many were dropped.
+     */
+    public int detachBefore(YearMonth firstKept) {
+        Map<String, YearMonth> expired = new TreeMap<>();
+        for (String name : jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('expenses') "
+                + "ORDER BY c.relname", String.class)) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (month.isBefore(firstKept)) {
+                    expired.put(name, month);
+                }
+            }
+        }
+        expired.forEach(this::drop);
+        return expired.size();
+    }
+
+    private void drop(String name, YearMonth month) {
+        // Ids are only read when an in-memory store has to forget them; otherwise the drop never scans the month.
+        boolean storesEnabled = textIndex.isEnabled() || columnStore.isEnabled();
+        Map<Long, List<Long>> idsByUser = transaction.execute(status -> {
+            lock();
+            Map<Long, List<Long>> ids = new HashMap<>();
+            if (!exists(name)) {
+                return ids;
+            }
+            if (storesEnabled) {
+                jdbcTemplate.query("SELECT user_id, id FROM " + name, row -> {
+                    ids.computeIfAbsent(row.getLong(1), user -> new ArrayList<>()).add(row.getLong(2));
+                });
+            }
+            Set<Long> users = rollupWriter.subtractMonthTable(name, month);
+            jdbcTemplate.execute("ALTER TABLE expenses DETACH PARTITION " + name);
+            jdbcTemplate.execute("DROP TABLE " + name);
+            users.addAll(ids.keySet());
+            users.forEach(changeVersions::expensesChanged);
+            return ids;
+        });
+        // The drop has committed by now.
+        idsByUser.forEach((userId, ids) -> ids.forEach(id -> {
+            textIndex.remove(userId, id);
+            columnStore.remove(id);
+        }));
+        log.info("Dropped expense partition {} past retention", name);
+    }
+
+    private static boolean detectPartitioning(JdbcTemplate jdbcTemplate) {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        return postgres && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('expenses'))",
+                Boolean.class));
+    }
+
+    static String partitionName(YearMonth month) {
+        return "expenses_" + month.format(SUFFIX);
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, LOCK_KEY);
+    }
+
+    private boolean exists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ishwor.expenses.partition;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * With {@code expenses.partitioning.enabled=true}, adds {@code db/migration/postgresql-partitioned} to Flyway's
+ * locations on PostgreSQL, so migration V5 converts expenses into a table partitioned by month. Other databases
+ * keep the plain table. Flyway checks that every applied migration is still on its path, so once V5 has run the
+ * property has to stay on.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "expenses.partitioning", name = "enabled", havingValue = "true")
+public class PartitionMigrationConfig {
+    static final String LOCATION = "classpath:db/migration/postgresql-partitioned";
+
+    @Bean
+    public FlywayConfigurationCustomizer partitionMigrationCustomizer() {
+        return configuration -> {
+            if (!isPostgres(configuration.getDataSource())) {
+                return;
+            }
+            List<Location> locations = new ArrayList<>(Arrays.asList(configuration.getLocations()));
+            locations.add(new Location(LOCATION));
+            configuration.locations(locations.toArray(Location[]::new));
+        };
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(product) == DatabaseDriver.POSTGRESQL;
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not tell whether the database is PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.model.ExpenseArchiveSegment;
+import com.ishwor.expenses.repository.projection.ArchiveSegmentRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExpenseArchiveSegmentRepository extends JpaRepository<ExpenseArchiveSegment, Long> {
+
+    @Query("select new com.ishwor.expenses.repository.projection.ArchiveSegmentRange(s.id, s.fromDate, s.toDate) " +
+            "from ExpenseArchiveSegment s where s.userId = :userId " +
+            "and s.fromDate <= :to and s.toDate >= :from order by s.fromDate, s.id")
+    List<ArchiveSegmentRange> findOverlapping(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    @Query("select s.data from ExpenseArchiveSegment s where s.id = :id")
+    byte[] findDataById(@Param("id") Long id);
+}
@@ -0,0 +1,41 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.dto.response.CategorySpendResponse;
+import com.ishwor.expenses.model.ExpenseMonthlyTotal;
+import com.ishwor.expenses.model.ExpenseMonthlyTotalId;
+import com.ishwor.expenses.repository.projection.MonthCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseMonthlyTotalRepository extends JpaRepository<ExpenseMonthlyTotal, ExpenseMonthlyTotalId> {
+
+    @Query("select new com.ishwor.expenses.dto.response.CategorySpendResponse(c.id, c.name, t.totalAmount, t.expenseCount) " +
+            "from ExpenseMonthlyTotal t join Category c on c.id = t.id.categoryId " +
+            "where t.id.userId = :userId and t.id.monthStart = :monthStart and t.expenseCount > 0 " +
+            "order by t.totalAmount desc, c.id")
+    List<CategorySpendResponse> findCategorySpend(@Param("userId") Long userId, @Param("monthStart") LocalDate monthStart);
+
+    // Expenses per month in the order of the Sort on id.monthStart, read until a page's worth is counted: the
+    // user's months through idx_expense_monthly_totals_user_month, everyone's through the primary key. Must be
+    // consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "12"))
+    @Query("select new com.ishwor.expenses.repository.projection.MonthCount(t.id.monthStart, sum(t.expenseCount)) " +
+            "from ExpenseMonthlyTotal t where t.id.monthStart between :from and :to group by t.id.monthStart")
+    Stream<MonthCount> streamMonthCounts(@Param("from") LocalDate from, @Param("to") LocalDate to, Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "12"))
+    @Query("select new com.ishwor.expenses.repository.projection.MonthCount(t.id.monthStart, sum(t.expenseCount)) " +
+            "from ExpenseMonthlyTotal t where t.id.userId = :userId and t.id.monthStart between :from and :to " +
+            "group by t.id.monthStart")
+    Stream<MonthCount> streamMonthCountsByUserId(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to, Sort sort);
+}
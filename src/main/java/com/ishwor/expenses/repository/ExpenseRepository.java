@@ -2,12 +2,121 @@ package com.ishwor.expenses.repository;
 
 import com.ishwor.expenses.model.Expense;
 import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.projection.ExpenseAmountRow;
+import com.ishwor.expenses.repository.projection.ExpenseDescription;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseSearchRepository {
+    String VIEW_SELECT = "select new com.ishwor.expenses.repository.projection.ExpenseView(" +
+            "e.id, e.amount, e.description, c.id, c.name, u.id, u.name, e.expenseDate, e.createdAt) " +
+            "from Expense e join e.category c join e.user u ";
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByUserId(Long userId);
 
     List<Expense> findByUser(User user);
-}
\ No newline at end of file
+
+    // Row lock for writes that also adjust the monthly rollup from the expense's previous values.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"user", "category"})
+    Optional<Expense> findForUpdateById(Long id);
+
+    @Query(VIEW_SELECT + "where e.id = :id")
+    Optional<ExpenseView> findViewById(@Param("id") Long id);
+
+    @Query(VIEW_SELECT + "where u.id = :userId and e.id in :ids")
+    List<ExpenseView> findViewsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids, Sort sort);
+
+    // Keyset pagination on (expense_date, id); callers pass a Sort on the same two columns, and a date range that
+    // is either open or the months ExpenseMonthWindow bounds the page to.
+    @Query(VIEW_SELECT + "where e.expenseDate between :from and :to")
+    List<ExpenseView> findViews(@Param("from") LocalDate from, @Param("to") LocalDate to, Sort sort, Limit limit);
+
+    @Query(VIEW_SELECT + "where u.id = :userId and e.expenseDate between :from and :to")
+    List<ExpenseView> findViewsByUserId(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to, Sort sort, Limit limit);
+
+    @Query(VIEW_SELECT + "where e.expenseDate <= :to " +
+            "and (e.expenseDate > :date or (e.expenseDate = :date and e.id > :id))")
+    List<ExpenseView> findViewsAfter(@Param("date") LocalDate date, @Param("id") Long id, @Param("to") LocalDate to,
+                                     Sort sort, Limit limit);
+
+    @Query(VIEW_SELECT + "where e.expenseDate >= :from " +
+            "and (e.expenseDate < :date or (e.expenseDate = :date and e.id < :id))")
+    List<ExpenseView> findViewsBefore(@Param("date") LocalDate date, @Param("id") Long id,
+                                      @Param("from") LocalDate from, Sort sort, Limit limit);
+
+    @Query(VIEW_SELECT + "where u.id = :userId and e.expenseDate <= :to " +
+            "and (e.expenseDate > :date or (e.expenseDate = :date and e.id > :id))")
+    List<ExpenseView> findViewsByUserIdAfter(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                             @Param("id") Long id, @Param("to") LocalDate to, Sort sort,
+                                             Limit limit);
+
+    @Query(VIEW_SELECT + "where u.id = :userId and e.expenseDate >= :from " +
+            "and (e.expenseDate < :date or (e.expenseDate = :date and e.id < :id))")
+    List<ExpenseView> findViewsByUserIdBefore(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                              @Param("id") Long id, @Param("from") LocalDate from, Sort sort,
+                                              Limit limit);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed. A whole ledger reads
+    // every month it has, so this one is not bounded.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + "where u.id = :userId order by e.expenseDate, e.id")
+    Stream<ExpenseView> streamViewsByUserId(@Param("userId") Long userId);
+
+    // Date-bounded variant of streamViewsByUserId.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW_SELECT + "where u.id = :userId and e.expenseDate between :from and :to order by e.expenseDate, e.id")
+    Stream<ExpenseView> streamViewsByUserIdBetween(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to);
+
+    // Source for the in-memory description index; must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ishwor.expenses.repository.projection.ExpenseDescription(e.id, e.user.id, e.description) " +
+            "from Expense e")
+    Stream<ExpenseDescription> streamDescriptions();
+
+    // Source for spending analytics: a range scan of idx_expenses_user_date_id, amounts as cents computed by the
+    // database. Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ishwor.expenses.repository.projection.ExpenseAmountRow(" +
+            "e.expenseDate, e.category.id, cast(e.amount * 100 as Long)) " +
+            "from Expense e where e.user.id = :userId and e.expenseDate between :from and :to")
+    Stream<ExpenseAmountRow> streamAmounts(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    // Archival: the users with anything to archive, then each user's oldest month before the cutoff, one at a
+    // time, its rows locked until they are deleted.
+    @Query("select distinct e.user.id from Expense e where e.expenseDate < :cutoff")
+    List<Long> findUserIdsWithExpensesBefore(@Param("cutoff") LocalDate cutoff);
+
+    @Query("select min(e.expenseDate) from Expense e where e.user.id = :userId and e.expenseDate < :cutoff")
+    Optional<LocalDate> findOldestDateByUserIdBefore(@Param("userId") Long userId, @Param("cutoff") LocalDate cutoff);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Expense e where e.user.id = :userId and e.expenseDate >= :from and e.expenseDate < :to " +
+            "order by e.expenseDate, e.id")
+    List<Expense> findForArchiveByUserId(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from Expense e where e.user.id = :userId and e.expenseDate >= :from and e.expenseDate < :to")
+    int deleteArchivedByUserId(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,17 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ExpenseSearchRepository {
+
+    /**
+     * Same read model as the {@code findViews*} queries, filtered by an arbitrary specification.
+     */
+    List<ExpenseView> findViews(Specification<Expense> spec, Sort sort, Limit limit);
+}
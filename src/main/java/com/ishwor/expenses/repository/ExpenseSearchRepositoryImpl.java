@@ -0,0 +1,48 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class ExpenseSearchRepositoryImpl implements ExpenseSearchRepository {
+    private final EntityManager entityManager;
+
+    ExpenseSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ExpenseView> findViews(Specification<Expense> spec, Sort sort, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExpenseView> query = cb.createQuery(ExpenseView.class);
+        Root<Expense> expense = query.from(Expense.class);
+        Join<Expense, Category> category = expense.join("category");
+        Join<Expense, User> user = expense.join("user");
+
+        query.select(cb.construct(ExpenseView.class,
+                expense.get("id"), expense.get("amount"), expense.get("description"),
+                category.get("id"), category.get("name"), user.get("id"), user.get("name"),
+                expense.get("expenseDate"), expense.get("createdAt")));
+        query.where(spec.toPredicate(expense, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, expense, cb));
+
+        TypedQuery<ExpenseView> typed = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.ishwor.expenses.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * A segment's catalog entry without its data, enough to decide which segments a read has to decode.
+ */
+public record ArchiveSegmentRange(
+        Long id,
+        LocalDate fromDate,
+        LocalDate toDate
+) {}
@@ -0,0 +1,12 @@
+package com.ishwor.expenses.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * The three columns spending analytics needs, with the amount already converted to whole cents.
+ */
+public record ExpenseAmountRow(
+        LocalDate expenseDate,
+        Long categoryId,
+        Long amountCents
+) {}
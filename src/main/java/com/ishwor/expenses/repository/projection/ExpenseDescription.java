@@ -0,0 +1,6 @@
+package com.ishwor.expenses.repository.projection;
+
+/**
+ * Just enough of an expense to (re)build the description index.
+ */
+public record ExpenseDescription(Long id, Long userId, String description) {}
@@ -0,0 +1,21 @@
+package com.ishwor.expenses.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Flat read model selected with a JPQL constructor expression, so list endpoints
+ * resolve category and user names in the same query instead of lazy-loading them per row.
+ */
+public record ExpenseView(
+        Long id,
+        BigDecimal amount,
+        String description,
+        Long categoryId,
+        String categoryName,
+        Long userId,
+        String userName,
+        LocalDate expenseDate,
+        Instant createdAt
+) {}
@@ -0,0 +1,11 @@
+package com.ishwor.expenses.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * How many expenses the rollup holds for one month, across categories (and users, unless filtered by one).
+ */
+public record MonthCount(
+        LocalDate monthStart,
+        Long expenseCount
+) {}
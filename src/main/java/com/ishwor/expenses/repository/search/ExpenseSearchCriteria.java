@@ -0,0 +1,17 @@
+package com.ishwor.expenses.repository.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Filters for the expense search; every field except {@code userId} is optional and bounds are inclusive.
+ */
+public record ExpenseSearchCriteria(
+        Long userId,
+        LocalDate from,
+        LocalDate to,
+        Set<Long> categoryIds,
+        BigDecimal minAmount,
+        BigDecimal maxAmount
+) {}
@@ -0,0 +1,66 @@
+package com.ishwor.expenses.repository.search;
+
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.pagination.ExpenseCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicates for {@link ExpenseSearchCriteria}. The user and category filters compare the foreign-key columns
+ * directly, so with the date range they line up with idx_expenses_user_category_date / idx_expenses_user_date_id.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> matching(ExpenseSearchCriteria criteria) {
+        List<Specification<Expense>> specs = new ArrayList<>();
+        specs.add(belongsTo(criteria.userId()));
+        if (criteria.from() != null) {
+            specs.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), criteria.from()));
+        }
+        if (criteria.to() != null) {
+            specs.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("expenseDate"), criteria.to()));
+        }
+        if (criteria.categoryIds() != null && !criteria.categoryIds().isEmpty()) {
+            specs.add((root, query, cb) -> root.get("category").get("id").in(criteria.categoryIds()));
+        }
+        if (criteria.minAmount() != null) {
+            specs.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), criteria.minAmount()));
+        }
+        if (criteria.maxAmount() != null) {
+            specs.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), criteria.maxAmount()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Expense> belongsTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    // Case-insensitive substring of the description; every word prefix is one, so this narrows a word-prefix search.
+    // The column is a CLOB on H2, which lower() rejects, hence the cast to a string.
+    public static Specification<Expense> descriptionContains(String lowercaseText) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description").as(String.class)),
+                "%" + lowercaseText + "%");
+    }
+
+    public static Specification<Expense> onOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), date);
+    }
+
+    // Keyset continuation for newest-first results: strictly before (expense_date, id).
+    public static Specification<Expense> before(ExpenseCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("expenseDate"), cursor.expenseDate()),
+                cb.and(
+                        cb.equal(root.get("expenseDate"), cursor.expenseDate()),
+                        cb.lessThan(root.get("id"), cursor.id())
+                )
+        );
+    }
+}
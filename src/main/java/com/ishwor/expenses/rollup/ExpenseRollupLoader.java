@@ -0,0 +1,42 @@
+package com.ishwor.expenses.rollup;
+
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills {@code expense_monthly_totals} on startup when the table is empty but expenses already exist,
+ * e.g. the first start after the rollup was introduced. Afterwards writes keep it current. Instances starting
+ * together rebuild it once: the rebuild re-checks under a lock that the table is still empty.
+ */
+@Component
+public class ExpenseRollupLoader implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseRollupLoader.class);
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseMonthlyTotalRepository monthlyTotalRepository;
+    private final ExpenseRollupWriter rollupWriter;
+
+    public ExpenseRollupLoader(ExpenseRepository expenseRepository, ExpenseMonthlyTotalRepository monthlyTotalRepository,
+                               ExpenseRollupWriter rollupWriter) {
+        this.expenseRepository = expenseRepository;
+        this.monthlyTotalRepository = monthlyTotalRepository;
+        this.rollupWriter = rollupWriter;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (monthlyTotalRepository.count() > 0 || expenseRepository.count() == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        if (!rollupWriter.rebuildIfEmpty()) {
+            return;
+        }
+        log.info("Rebuilt {} monthly expense totals in {} ms", monthlyTotalRepository.count(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ishwor.expenses.rollup;
+
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.ExpenseMonthlyTotalId;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies expense writes to {@code expense_monthly_totals}. Callers invoke it inside the transaction that
+ * writes the expense, so the rollup commits or rolls back with it. Each change is a single upsert on the
+ * caller's connection: the first write of a month inserts its row, later ones add to it, and concurrent writers
+ * to a new month never see a duplicate key.
+ */
+@Component
+public class ExpenseRollupWriter {
+    private static final long REBUILD_LOCK_KEY = 0x726f_6c6c_7570_7331L;
+
+    // ON CONFLICT takes the row lock and applies the update atomically, even against a concurrent insert.
+    private static final String POSTGRESQL_UPSERT = "INSERT INTO expense_monthly_totals "
+            + "(month_start, category_id, user_id, total_amount, expense_count) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (month_start, category_id, user_id) DO UPDATE SET "
+            + "total_amount = expense_monthly_totals.total_amount + EXCLUDED.total_amount, "
+            + "expense_count = expense_monthly_totals.expense_count + EXCLUDED.expense_count";
+    // H2 has no ON CONFLICT outside its PostgreSQL mode; the standard MERGE does the same there.
+    private static final String MERGE_UPSERT = "MERGE INTO expense_monthly_totals t USING (VALUES ("
+            + "CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS NUMERIC(14, 2)), CAST(? AS BIGINT))) "
+            + "AS d (month_start, category_id, user_id, total_amount, expense_count) "
+            + "ON t.month_start = d.month_start AND t.category_id = d.category_id AND t.user_id = d.user_id "
+            + "WHEN MATCHED THEN UPDATE SET total_amount = t.total_amount + d.total_amount, "
+            + "expense_count = t.expense_count + d.expense_count "
+            + "WHEN NOT MATCHED THEN INSERT (month_start, category_id, user_id, total_amount, expense_count) "
+            + "VALUES (d.month_start, d.category_id, d.user_id, d.total_amount, d.expense_count)";
+    // The whole rebuild in one statement: nothing passes through the persistence context or the application.
+    private static final String REBUILD = "INSERT INTO expense_monthly_totals "
+            + "(month_start, category_id, user_id, total_amount, expense_count) "
+            + "SELECT CAST(DATE_TRUNC('MONTH', expense_date) AS DATE), category_id, user_id, SUM(amount), COUNT(*) "
+            + "FROM expenses GROUP BY CAST(DATE_TRUNC('MONTH', expense_date) AS DATE), category_id, user_id";
+    // PostgreSQL only: the table is one month's partition, so its rows all belong to month_start.
+    private static final String SUBTRACT_MONTH_TABLE = "UPDATE expense_monthly_totals t "
+            + "SET total_amount = t.total_amount - d.total_amount, expense_count = t.expense_count - d.expense_count "
+            + "FROM (SELECT category_id, user_id, SUM(amount) AS total_amount, COUNT(*) AS expense_count FROM %s "
+            + "GROUP BY category_id, user_id) d "
+            + "WHERE t.month_start = ? AND t.category_id = d.category_id AND t.user_id = d.user_id "
+            + "RETURNING t.user_id";
+
+    private final ExpenseMonthlyTotalRepository monthlyTotalRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final boolean postgres;
+
+    public ExpenseRollupWriter(ExpenseMonthlyTotalRepository monthlyTotalRepository, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.monthlyTotalRepository = monthlyTotalRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Resolved once: apply runs on every expense write and must not wait on a lock or a metadata call.
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    /**
+     * Adds {@code amount} and {@code count} (both may be negative) to the user's month for the category.
+     */
+    public void apply(Long userId, Long categoryId, LocalDate expenseDate, BigDecimal amount, long count) {
+        if (amount.signum() == 0 && count == 0) {
+            return;
+        }
+        LocalDate monthStart = expenseDate.withDayOfMonth(1);
+        if (postgres) {
+            jdbcTemplate.update(POSTGRESQL_UPSERT, monthStart, categoryId, userId, amount, count);
+            return;
+        }
+        try {
+            jdbcTemplate.update(MERGE_UPSERT, monthStart, categoryId, userId, amount, count);
+        } catch (DuplicateKeyException e) {
+            // H2's MERGE looks for the row before inserting, so two first writes to a month can both insert. The
+            // loser gets a duplicate key once the winner commits, and the failed statement leaves its transaction
+            // usable; the second MERGE finds the row and adds to it.
+            jdbcTemplate.update(MERGE_UPSERT, monthStart, categoryId, userId, amount, count);
+        }
+    }
+
+    /**
+     * Adds newly inserted expenses, one update per user/category/month rather than one per expense.
+     */
+    public void applyAdded(Collection<Expense> expenses) {
+        Map<ExpenseMonthlyTotalId, BigDecimal> amounts = new HashMap<>();
+        Map<ExpenseMonthlyTotalId, Long> counts = new HashMap<>();
+        for (Expense expense : expenses) {
+            ExpenseMonthlyTotalId id = new ExpenseMonthlyTotalId(expense.getUser().getId(),
+                    expense.getCategory().getId(), expense.getExpenseDate().withDayOfMonth(1));
+            amounts.merge(id, expense.getAmount(), BigDecimal::add);
+            counts.merge(id, 1L, Long::sum);
+        }
+        amounts.forEach((id, amount) -> apply(id.getUserId(), id.getCategoryId(), id.getMonthStart(), amount, counts.get(id)));
+    }
+
+    /**
+     * Takes the rows of {@code table}, which holds only {@code month}'s expenses (a partition about to be dropped),
+     * out of that month's totals and deletes the totals left empty. Archived expenses of the month stay counted.
+     * Returns the users whose totals changed; must run in the transaction that drops the table.
+     */
+    public Set<Long> subtractMonthTable(String table, YearMonth month) {
+        LocalDate monthStart = month.atDay(1);
+        Set<Long> users = new HashSet<>(jdbcTemplate.queryForList(SUBTRACT_MONTH_TABLE.formatted(table), Long.class,
+                monthStart));
+        jdbcTemplate.update("DELETE FROM expense_monthly_totals WHERE month_start = ? AND expense_count <= 0",
+                monthStart);
+        return users;
+    }
+
+    /**
+     * Recomputes every row from the expenses table, e.g. for a database that predates the rollup.
+     */
+    public void rebuild() {
+        transaction.executeWithoutResult(status -> {
+            lock();
+            replaceAll();
+        });
+    }
+
+    /**
+     * Rebuilds unless another instance filled the table first; returns whether this call rebuilt it.
+     */
+    public boolean rebuildIfEmpty() {
+        return Boolean.TRUE.equals(transaction.execute(status -> {
+            lock();
+            if (monthlyTotalRepository.count() > 0) {
+                return false;
+            }
+            replaceAll();
+            return true;
+        }));
+    }
+
+    private void replaceAll() {
+        monthlyTotalRepository.deleteAllInBatch();
+        jdbcTemplate.update(REBUILD);
+    }
+
+    // Instances starting together against an empty rollup take turns; the second then finds it filled. Held until
+    // the rebuild commits. H2 runs in one process and has no advisory locks.
+    private void lock() {
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, REBUILD_LOCK_KEY);
+        }
+    }
+}
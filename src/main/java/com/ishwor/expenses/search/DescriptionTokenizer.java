@@ -0,0 +1,36 @@
+package com.ishwor.expenses.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits descriptions and queries into lowercase letter/digit runs, so "Uber ride (airport)" indexes as
+ * {@code uber}, {@code ride}, {@code airport}.
+ */
+public final class DescriptionTokenizer {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String[] NONE = new String[0];
+
+    private DescriptionTokenizer() {
+    }
+
+    public static String[] tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return NONE;
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Whether {@code text} has a token starting with each of {@code prefixes}, as {@link ExpenseTextIndex} matches.
+     */
+    public static boolean matchesAll(String text, String[] prefixes) {
+        String[] tokens = tokens(text);
+        return Arrays.stream(prefixes)
+                .allMatch(prefix -> Arrays.stream(tokens).anyMatch(token -> token.startsWith(prefix)));
+    }
+}
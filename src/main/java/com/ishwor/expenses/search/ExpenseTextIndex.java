@@ -0,0 +1,172 @@
+package com.ishwor.expenses.search;
+
+import com.ishwor.expenses.config.SearchProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-user inverted index from description tokens to expense ids, kept in memory.
+ * <p>
+ * Every query token is matched as a prefix ("ub" finds "uber") and all tokens must match. The index only
+ * narrows candidates; callers load the rows from the database. Changes reported inside a transaction are applied
+ * once it commits, so a rolled-back write never shows up. Each user's index has its own read/write lock, so
+ * writers for one user never block searches for another.
+ * <p>
+ * Like the column store this only sees writes made through this instance, so it stays off unless
+ * {@code expenses.search.text-index=true}; callers then search the database instead.
+ */
+@Component
+public class ExpenseTextIndex {
+    private final boolean enabled;
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+    public ExpenseTextIndex(SearchProperties searchProperties) {
+        this.enabled = searchProperties.textIndex();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(Long userId, Long expenseId, String description) {
+        if (!enabled) {
+            return;
+        }
+        String[] tokens = DescriptionTokenizer.tokens(description);
+        afterCommit(() -> userIndex(userId).put(expenseId, tokens));
+    }
+
+    public void update(Long userId, Long expenseId, String description) {
+        add(userId, expenseId, description);
+    }
+
+    public void remove(Long userId, Long expenseId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            UserIndex index = users.get(userId);
+            if (index != null) {
+                index.remove(expenseId);
+            }
+        });
+    }
+
+    /**
+     * Indexes a row read by {@link ExpenseTextIndexLoader}, immediately: the loader's transaction only reads.
+     */
+    void load(Long userId, Long expenseId, String description) {
+        userIndex(userId).put(expenseId, DescriptionTokenizer.tokens(description));
+    }
+
+    public void clear() {
+        users.clear();
+    }
+
+    /**
+     * Ids of the user's expenses whose description matches every token of {@code query}, highest (newest) first.
+     */
+    public long[] search(Long userId, String query, int limit) {
+        String[] tokens = DescriptionTokenizer.tokens(query);
+        UserIndex index = users.get(userId);
+        if (tokens.length == 0 || index == null) {
+            return new long[0];
+        }
+        long[] matches = index.match(tokens);
+        int count = Math.min(limit, matches.length);
+        long[] newestFirst = new long[count];
+        for (int i = 0; i < count; i++) {
+            newestFirst[i] = matches[matches.length - 1 - i];
+        }
+        return newestFirst;
+    }
+
+    private UserIndex userIndex(Long userId) {
+        return users.computeIfAbsent(userId, id -> new UserIndex());
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static final class UserIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+        // Tokens each expense was indexed under, so updates and deletes don't need the old description.
+        private final Map<Long, String[]> tokensByExpense = new HashMap<>();
+
+        void put(Long expenseId, String[] tokens) {
+            lock.writeLock().lock();
+            try {
+                unindex(expenseId);
+                for (String token : tokens) {
+                    postings.computeIfAbsent(token, t -> new PostingList()).add(expenseId);
+                }
+                tokensByExpense.put(expenseId, tokens);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long expenseId) {
+            lock.writeLock().lock();
+            try {
+                unindex(expenseId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long[] match(String[] queryTokens) {
+            lock.readLock().lock();
+            try {
+                long[] result = null;
+                for (String prefix : queryTokens) {
+                    long[] ids = PostingList.union(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values());
+                    result = result == null ? ids : PostingList.intersect(result, ids);
+                    if (result.length == 0) {
+                        break;
+                    }
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void unindex(Long expenseId) {
+            String[] previous = tokensByExpense.remove(expenseId);
+            if (previous == null) {
+                return;
+            }
+            Arrays.stream(previous).forEach(token -> {
+                PostingList list = postings.get(token);
+                if (list != null) {
+                    list.remove(expenseId);
+                    if (list.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ishwor.expenses.search;
+
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.projection.ExpenseDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Fills {@link ExpenseTextIndex} from the expenses table once all beans exist and before the web server
+ * starts accepting requests, so searches never see a half-built index.
+ */
+@Component
+public class ExpenseTextIndexLoader implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseTextIndexLoader.class);
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseTextIndex textIndex;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseTextIndexLoader(ExpenseRepository expenseRepository, ExpenseTextIndex textIndex,
+                                  PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.textIndex = textIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!textIndex.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        AtomicLong indexed = new AtomicLong();
+        textIndex.clear();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ExpenseDescription> rows = expenseRepository.streamDescriptions()) {
+                rows.forEach(row -> {
+                    textIndex.load(row.userId(), row.id(), row.description());
+                    indexed.incrementAndGet();
+                });
+            }
+        });
+        log.info("Indexed {} expense descriptions in {} ms", indexed.get(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.analytics.BucketSize;
+import com.ishwor.expenses.dto.response.SpendingSeriesResponse;
+
+import java.time.LocalDate;
+
+public interface ExpenseAnalyticsService {
+    SpendingSeriesResponse getSpendingSeries(Long userId, LocalDate from, LocalDate to, BucketSize bucket, boolean byCategory);
+}
@@ -0,0 +1,10 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+
+import java.util.List;
+
+public interface ExpenseBatchService {
+    ExpenseBatchResponse addExpenses(List<ExpenseRequest> requests);
+}
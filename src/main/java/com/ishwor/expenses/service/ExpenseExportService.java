@@ -0,0 +1,11 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.exporter.ExpenseExport;
+import com.ishwor.expenses.exporter.ExportFormat;
+
+import java.time.LocalDate;
+
+public interface ExpenseExportService {
+    // Either bound may be null for an open range.
+    ExpenseExport exportExpensesByUser(Long userId, ExportFormat format, LocalDate from, LocalDate to);
+}
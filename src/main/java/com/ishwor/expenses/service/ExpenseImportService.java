@@ -0,0 +1,10 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.dto.response.ExpenseImportResponse;
+import com.ishwor.expenses.importer.ImportFormat;
+
+import java.io.InputStream;
+
+public interface ExpenseImportService {
+    ExpenseImportResponse importExpenses(InputStream input, ImportFormat format);
+}
@@ -2,7 +2,9 @@ package com.ishwor.expenses.service;
 
 
 import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
 import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.repository.search.ExpenseSearchCriteria;
 
 import java.util.List;
 
@@ -10,6 +12,10 @@ public interface ExpenseService {
     ExpenseResponse addExpense(ExpenseRequest request);
     List<ExpenseResponse> getAllExpenses();
     List<ExpenseResponse> getExpensesByUser(Long userId);
+    ExpensePageResponse getExpensesPage(String cursor, Integer size, String sort);
+    ExpensePageResponse getExpensesPageByUser(Long userId, String cursor, Integer size, String sort);
+    ExpensePageResponse searchExpenses(ExpenseSearchCriteria criteria, String cursor, Integer size);
+    List<ExpenseResponse> searchDescriptions(Long userId, String query, Integer limit);
     ExpenseResponse getExpenseById(Long id);
     void deleteExpense(Long id);
     ExpenseResponse updateExpense(Long id, ExpenseRequest request);
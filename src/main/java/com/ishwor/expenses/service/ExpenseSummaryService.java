@@ -0,0 +1,9 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.dto.response.ExpenseSummaryResponse;
+
+import java.time.YearMonth;
+
+public interface ExpenseSummaryService {
+    ExpenseSummaryResponse getMonthlySummary(Long userId, YearMonth month);
+}
@@ -6,5 +6,6 @@ import com.ishwor.expenses.dto.response.UserResponse;
 public interface UserService {
     UserResponse registerUser(UserRequest request);
     UserResponse getUserById(Long id);
+    UserResponse getUserForWrite(Long id);
     UserResponse getUserByEmail(String email);
 }
@@ -1,27 +1,37 @@
 package com.ishwor.expenses.service.impl;
 
+import com.ishwor.expenses.config.CacheNames;
 import com.ishwor.expenses.dto.response.CategoryResponse;
 import com.ishwor.expenses.dto.request.CategoryRequest;
 import com.ishwor.expenses.model.Category;
 import com.ishwor.expenses.repository.CategoryRepository;
 import com.ishwor.expenses.service.CategoryService;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
+@Timed("expenses.service")
 public class CategoryServiceImpl implements CategoryService{
     private final CategoryRepository categoryRepository;
+    private final ChangeVersions changeVersions;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository){
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ChangeVersions changeVersions){
         this.categoryRepository = categoryRepository;
+        this.changeVersions = changeVersions;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.CATEGORY_LIST, allEntries = true)
     public CategoryResponse addCategory(CategoryRequest request) {
         Category category = new Category();
         category.setName(request.name());
@@ -29,6 +39,7 @@ public class CategoryServiceImpl implements CategoryService{
         category.setCreatedAt(Instant.now());
 
         Category savedCategory = categoryRepository.save(category);
+        changeVersions.categoriesChanged();
         return new CategoryResponse(
                 savedCategory.getId(),
                 savedCategory.getName(),
@@ -38,7 +49,10 @@ public class CategoryServiceImpl implements CategoryService{
     }
 
     @Override
+    @Cacheable(CacheNames.CATEGORY_LIST)
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
+        // Served with an ETag and cached for minutes, so read from the primary rather than a lagging replica.
         return categoryRepository.findAll().stream().map(
                 cat -> new CategoryResponse(
                         cat.getId(),
@@ -46,10 +60,11 @@ public class CategoryServiceImpl implements CategoryService{
                         cat.getDescription(),
                         cat.getCreatedAt()
                 )
-        ).collect(Collectors.toList());
+        ).toList();
     }
 
     @Override
+    @Cacheable(CacheNames.CATEGORIES)
     public CategoryResponse getCategoryById(Long id) {
         Category category = categoryRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Category not found")
@@ -63,11 +78,16 @@ public class CategoryServiceImpl implements CategoryService{
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.CATEGORY_LIST, allEntries = true)
+    })
     public void deleteCategory(Long id) {
         if(!categoryRepository.existsById(id)){
             throw new ResourceNotFoundException("Category not found");
         }
         categoryRepository.deleteById(id);
+        changeVersions.categoriesChanged();
     }
 
 }
@@ -0,0 +1,108 @@
+package com.ishwor.expenses.service.impl;
+
+import com.ishwor.expenses.analytics.BucketSize;
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.analytics.ExpenseFilter;
+import com.ishwor.expenses.analytics.SpendColumns;
+import com.ishwor.expenses.analytics.SpendSeries;
+import com.ishwor.expenses.analytics.SpendingSeriesEngine;
+import com.ishwor.expenses.archive.ArchivedExpense;
+import com.ishwor.expenses.archive.ExpenseArchive;
+import com.ishwor.expenses.config.AnalyticsProperties;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.response.CategorySeriesResponse;
+import com.ishwor.expenses.dto.response.SpendingSeriesResponse;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ExpenseAmountRow;
+import com.ishwor.expenses.service.CategoryService;
+import com.ishwor.expenses.service.ExpenseAnalyticsService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@Timed("expenses.service")
+public class ExpenseAnalyticsServiceImpl implements ExpenseAnalyticsService {
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final CategoryService categoryService;
+    private final SpendingSeriesEngine engine;
+    private final ExpenseColumnStore columnStore;
+    private final AnalyticsProperties analyticsProperties;
+    private final ExpenseArchive expenseArchive;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseAnalyticsServiceImpl(ExpenseRepository expenseRepository, UserRepository userRepository,
+                                       CategoryService categoryService, SpendingSeriesEngine engine,
+                                       ExpenseColumnStore columnStore, AnalyticsProperties analyticsProperties, ExpenseArchive expenseArchive,
+                                       ReadYourWrites readYourWrites, PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.categoryService = categoryService;
+        this.engine = engine;
+        this.columnStore = columnStore;
+        this.analyticsProperties = analyticsProperties;
+        this.expenseArchive = expenseArchive;
+        this.readYourWrites = readYourWrites;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public SpendingSeriesResponse getSpendingSeries(Long userId, LocalDate from, LocalDate to, BucketSize bucket,
+                                                    boolean byCategory) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (bucket.count(from, to) > analyticsProperties.maxBuckets()) {
+            throw new BadRequestException("Range is too long for " + bucket.label() + " buckets; the maximum is "
+                    + analyticsProperties.maxBuckets() + " buckets");
+        }
+        if(!userRepository.existsById(userId)){
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        // The column store already holds every expense in the table, current with this instance's writes.
+        SpendColumns columns = columnStore.isEnabled()
+                ? columnStore.spendColumns(ExpenseFilter.forUser(userId, from, to))
+                : new SpendColumns();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            readYourWrites.replicaUnlessUserWritten(userId);
+            if (!columnStore.isEnabled()) {
+                try (Stream<ExpenseAmountRow> rows = expenseRepository.streamAmounts(userId, from, to)) {
+                    rows.forEach(row -> columns.add(row.expenseDate(), row.categoryId(), row.amountCents()));
+                }
+            }
+            // Empty without decoding a segment unless the range reaches back past the archive horizon.
+            try (Stream<ArchivedExpense> archived = expenseArchive.read(userId, from, to)) {
+                archived.forEach(row -> columns.add(row.expenseDate(), row.categoryId(), row.amountCents()));
+            }
+        });
+        SpendSeries series = engine.aggregate(columns, from, to, bucket, byCategory);
+
+        List<CategorySeriesResponse> categories = new ArrayList<>(series.categoryIds().length);
+        for (int c = 0; c < series.categoryIds().length; c++) {
+            Long categoryId = series.categoryIds()[c];
+            categories.add(new CategorySeriesResponse(categoryId, categoryService.getCategoryById(categoryId).name(),
+                    toAmounts(series.categoryCents()[c])));
+        }
+        return new SpendingSeriesResponse(userId, from, to, bucket.label(), series.bucketStarts(),
+                toAmounts(series.totalCents()), Arrays.stream(series.counts()).boxed().toList(), categories);
+    }
+
+    private static List<BigDecimal> toAmounts(long[] cents) {
+        return Arrays.stream(cents).mapToObj(value -> BigDecimal.valueOf(value, 2)).toList();
+    }
+}
@@ -0,0 +1,148 @@
+package com.ishwor.expenses.service.impl;
+
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.config.ExpenseBatchProperties;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseBatchError;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.mapper.ExpenseMapper;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.search.ExpenseTextIndex;
+import com.ishwor.expenses.service.ExpenseBatchService;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Timed("expenses.service")
+public class ExpenseBatchServiceImpl implements ExpenseBatchService {
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final Validator validator;
+    private final ExpenseBatchProperties batchProperties;
+    private final ChangeVersions changeVersions;
+    private final ExpenseTextIndex textIndex;
+    private final ExpenseColumnStore columnStore;
+    private final ExpenseRollupWriter rollupWriter;
+    private final ReadYourWrites readYourWrites;
+
+    public ExpenseBatchServiceImpl(ExpenseRepository expenseRepository, CategoryRepository categoryRepository,
+                                   UserRepository userRepository, Validator validator,
+                                   ExpenseBatchProperties batchProperties, ChangeVersions changeVersions,
+                                   ExpenseTextIndex textIndex, ExpenseColumnStore columnStore,
+                                   ExpenseRollupWriter rollupWriter, ReadYourWrites readYourWrites) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.batchProperties = batchProperties;
+        this.changeVersions = changeVersions;
+        this.textIndex = textIndex;
+        this.columnStore = columnStore;
+        this.rollupWriter = rollupWriter;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    @Transactional
+    public ExpenseBatchResponse addExpenses(List<ExpenseRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one expense");
+        }
+        if (requests.size() > batchProperties.maxItems()) {
+            throw new BadRequestException("Batch exceeds the maximum of " + batchProperties.maxItems() + " expenses");
+        }
+
+        // One lookup per referenced table for the whole batch instead of two per row.
+        Map<Long, User> users = userRepository.findAllById(distinct(requests, ExpenseRequest::userId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Category> categories = categoryRepository.findAllById(distinct(requests, ExpenseRequest::categoryId)).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<Expense> toSave = new ArrayList<>();
+        List<ExpenseBatchError> errors = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ExpenseRequest request = requests.get(i);
+            List<String> messages = validate(request, users, categories);
+            if (!messages.isEmpty()) {
+                errors.add(new ExpenseBatchError(i, messages));
+                continue;
+            }
+
+            Expense expense = new Expense();
+            expense.setAmount(request.amount());
+            expense.setDescription(request.description());
+            expense.setUser(users.get(request.userId()));
+            expense.setCategory(categories.get(request.categoryId()));
+            expense.setExpenseDate(request.expenseDate() != null ? request.expenseDate() : LocalDate.now());
+            expense.setCreatedAt(now);
+            toSave.add(expense);
+        }
+
+        List<Expense> saved = expenseRepository.saveAll(toSave);
+        rollupWriter.applyAdded(saved);
+        List<ExpenseResponse> created = saved.stream()
+                .map(ExpenseMapper::toResponse)
+                .collect(Collectors.toList());
+        created.stream().map(ExpenseResponse::userId).distinct().forEach(userId -> {
+            changeVersions.expensesChanged(userId);
+            readYourWrites.userWritten(userId);
+        });
+        // Applied by the index and the store once this transaction commits.
+        created.forEach(expense -> textIndex.add(expense.userId(), expense.id(), expense.description()));
+        saved.forEach(expense -> columnStore.put(expense.getId(), expense.getUser().getId(),
+                expense.getCategory().getId(), expense.getExpenseDate(), expense.getAmount()));
+
+        return new ExpenseBatchResponse(requests.size(), created.size(), errors.size(), created, errors);
+    }
+
+    private List<String> validate(ExpenseRequest request, Map<Long, User> users, Map<Long, Category> categories) {
+        if (request == null) {
+            return List.of("Expense cannot be null");
+        }
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<ExpenseRequest> violation : validator.validate(request)) {
+            messages.add(violation.getMessage());
+        }
+        if (request.userId() != null && !users.containsKey(request.userId())) {
+            messages.add("User not found");
+        }
+        if (request.categoryId() != null && !categories.containsKey(request.categoryId())) {
+            messages.add("Category not found");
+        }
+        return messages;
+    }
+
+    private static Set<Long> distinct(List<ExpenseRequest> requests, Function<ExpenseRequest, Long> key) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(key)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,171 @@
+package com.ishwor.expenses.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.ishwor.expenses.archive.ExpenseArchive;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.exporter.ExpenseCsvWriter;
+import com.ishwor.expenses.exporter.ExpenseExport;
+import com.ishwor.expenses.exporter.ExportFormat;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import com.ishwor.expenses.service.ExpenseExportService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Service
+@Timed("expenses.service")
+public class ExpenseExportServiceImpl implements ExpenseExportService {
+    // Stand-ins for an open end of the date range that every supported database can bind.
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ExpenseArchive expenseArchive;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExpenseExportServiceImpl(ExpenseRepository expenseRepository, UserRepository userRepository,
+                                    ObjectMapper objectMapper, ExpenseArchive expenseArchive,
+                                    ReadYourWrites readYourWrites, PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.expenseArchive = expenseArchive;
+        this.readYourWrites = readYourWrites;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public ExpenseExport exportExpensesByUser(Long userId, ExportFormat format, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return output -> {
+            try {
+                // The cursor only stays open inside the transaction, so the whole body is written in it.
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    readYourWrites.replicaUnlessUserWritten(userId);
+                    write(userId, format, from, to, output);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void write(Long userId, ExportFormat format, LocalDate from, LocalDate to, OutputStream output) {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        // Usually empty after a single catalog lookup: only ranges reaching back past the archive horizon decode
+        // segments, and those one month at a time as the merge gets to them.
+        try (Stream<ExpenseView> archived = expenseArchive.readViews(userId, start, end);
+             Stream<ExpenseView> hot = from == null && to == null
+                     ? expenseRepository.streamViewsByUserId(userId)
+                     : expenseRepository.streamViewsByUserIdBetween(userId, start, end)) {
+            Stream<ExpenseView> rows = merge(archived, hot);
+            switch (format) {
+                case CSV -> writeCsv(rows, writer);
+                case NDJSON -> writeNdjson(rows, writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Interleaves archived rows with the hot cursor by (expense date, id), the order both are already in. Hot rows
+     * dated before the archive horizon are possible, since expenses can be backdated after a run.
+     */
+    private static Stream<ExpenseView> merge(Stream<ExpenseView> archived, Stream<ExpenseView> hot) {
+        Iterator<ExpenseView> cold = archived.iterator();
+        Iterator<ExpenseView> warm = hot.iterator();
+        Iterator<ExpenseView> merged = new Iterator<>() {
+            private ExpenseView nextCold = cold.hasNext() ? cold.next() : null;
+            private ExpenseView nextHot = warm.hasNext() ? warm.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextCold != null || nextHot != null;
+            }
+
+            @Override
+            public ExpenseView next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ExpenseView view;
+                if (nextHot == null || (nextCold != null && !isAfter(nextCold, nextHot))) {
+                    view = nextCold;
+                    nextCold = cold.hasNext() ? cold.next() : null;
+                } else {
+                    view = nextHot;
+                    nextHot = warm.hasNext() ? warm.next() : null;
+                }
+                return view;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false);
+    }
+
+    private static boolean isAfter(ExpenseView archived, ExpenseView hot) {
+        int byDate = archived.expenseDate().compareTo(hot.expenseDate());
+        return byDate > 0 || (byDate == 0 && archived.id() > hot.id());
+    }
+
+    private void writeCsv(Stream<ExpenseView> rows, BufferedWriter writer) throws IOException {
+        ExpenseCsvWriter csv = new ExpenseCsvWriter(writer);
+        csv.writeHeader();
+        rows.forEach(view -> {
+            try {
+                csv.write(view);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Stream<ExpenseView> rows, BufferedWriter writer) throws IOException {
+        try (SequenceWriter json = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            rows.forEach(view -> {
+                try {
+                    json.write(view);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,128 @@
+package com.ishwor.expenses.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ishwor.expenses.config.ExpenseBatchProperties;
+import com.ishwor.expenses.config.ExpenseImportProperties;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseBatchError;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseImportError;
+import com.ishwor.expenses.dto.response.ExpenseImportResponse;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.importer.CsvExpenseRowReader;
+import com.ishwor.expenses.importer.ExpenseRow;
+import com.ishwor.expenses.importer.ExpenseRowReader;
+import com.ishwor.expenses.importer.ImportFormat;
+import com.ishwor.expenses.importer.NdjsonExpenseRowReader;
+import com.ishwor.expenses.service.ExpenseBatchService;
+import com.ishwor.expenses.service.ExpenseImportService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams an upload through the batch writer one chunk at a time. Parsing blocks while a
+ * chunk is being written, so the request body is only read as fast as the database
+ * accepts rows and at most one chunk is held in memory.
+ */
+@Service
+@Timed("expenses.service")
+public class ExpenseImportServiceImpl implements ExpenseImportService {
+    private final ExpenseBatchService expenseBatchService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int maxRecordLength;
+
+    public ExpenseImportServiceImpl(ExpenseBatchService expenseBatchService, ObjectMapper objectMapper,
+                                    ExpenseImportProperties importProperties, ExpenseBatchProperties batchProperties) {
+        this.expenseBatchService = expenseBatchService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, Math.min(importProperties.chunkSize(), batchProperties.maxItems()));
+        this.maxReportedErrors = importProperties.maxReportedErrors();
+        this.maxRecordLength = importProperties.maxRecordLength();
+    }
+
+    @Override
+    public ExpenseImportResponse importExpenses(InputStream input, ImportFormat format) {
+        long started = System.nanoTime();
+        ImportTally tally = new ImportTally(maxReportedErrors);
+
+        try (ExpenseRowReader reader = openReader(input, format)) {
+            List<ExpenseRequest> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkLines = new ArrayList<>(chunkSize);
+            ExpenseRow row;
+            while ((row = reader.next()) != null) {
+                tally.rowsRead++;
+                if (row.error() != null) {
+                    tally.reject(row.line(), List.of(row.error()));
+                    continue;
+                }
+                chunk.add(row.request());
+                chunkLines.add(row.line());
+                if (chunk.size() == chunkSize) {
+                    flush(chunk, chunkLines, tally);
+                }
+            }
+            flush(chunk, chunkLines, tally);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import stream", e);
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        double rowsPerSecond = tally.rowsRead * 1_000_000_000d / elapsedNanos;
+        return new ExpenseImportResponse(tally.rowsRead, tally.imported, tally.rejected,
+                elapsedNanos / 1_000_000, rowsPerSecond, tally.errors);
+    }
+
+    private void flush(List<ExpenseRequest> chunk, List<Long> chunkLines, ImportTally tally) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ExpenseBatchResponse result = expenseBatchService.addExpenses(chunk);
+        tally.imported += result.created();
+        for (ExpenseBatchError error : result.errors()) {
+            tally.reject(chunkLines.get(error.index()), error.messages());
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private ExpenseRowReader openReader(InputStream input, ImportFormat format) {
+        if (format == null) {
+            throw new BadRequestException("Unsupported import format");
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return switch (format) {
+            case CSV -> new CsvExpenseRowReader(reader, maxRecordLength);
+            case NDJSON -> new NdjsonExpenseRowReader(reader, objectMapper, maxRecordLength);
+        };
+    }
+
+    private static final class ImportTally {
+        private final int maxReportedErrors;
+        private final List<ExpenseImportError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+
+        private ImportTally(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void reject(long line, List<String> messages) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ExpenseImportError(line, messages));
+            }
+        }
+    }
+}
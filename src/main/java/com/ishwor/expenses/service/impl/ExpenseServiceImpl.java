@@ -1,153 +1,525 @@
 package com.ishwor.expenses.service.impl;
 
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.archive.ExpenseArchive;
+import com.ishwor.expenses.config.ExpensePaginationProperties;
+import com.ishwor.expenses.datasource.ReadYourWrites;
 import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.CategoryResponse;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
 import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.UserResponse;
+import com.ishwor.expenses.exception.BadRequestException;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
-import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.mapper.ExpenseMapper;
 import com.ishwor.expenses.model.Expense;
-import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.pagination.ExpenseCursor;
+import com.ishwor.expenses.partition.ExpenseMonthWindow;
 import com.ishwor.expenses.repository.CategoryRepository;
 import com.ishwor.expenses.repository.ExpenseRepository;
 import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import com.ishwor.expenses.repository.search.ExpenseSearchCriteria;
+import com.ishwor.expenses.repository.search.ExpenseSpecifications;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.search.DescriptionTokenizer;
+import com.ishwor.expenses.search.ExpenseTextIndex;
+import com.ishwor.expenses.service.CategoryService;
 import com.ishwor.expenses.service.ExpenseService;
+import com.ishwor.expenses.service.UserService;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("expenses.service")
 public class ExpenseServiceImpl implements ExpenseService {
+    // Stand-ins for an open end of the date range that every supported database can bind.
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final CategoryService categoryService;
+    private final UserService userService;
+    private final ExpensePaginationProperties paginationProperties;
+    private final ChangeVersions changeVersions;
+    private final ExpenseTextIndex textIndex;
+    private final ExpenseColumnStore columnStore;
+    private final ExpenseRollupWriter rollupWriter;
+    private final ExpenseArchive expenseArchive;
+    private final ExpenseMonthWindow monthWindow;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate transaction;
+    private final DistributionSummary allRows;
+    private final DistributionSummary userRows;
+    private final DistributionSummary pageRows;
+    private final DistributionSummary userPageRows;
+    private final DistributionSummary searchRows;
+    private final DistributionSummary textSearchRows;
 
-    public ExpenseServiceImpl(ExpenseRepository expenseRepository, CategoryRepository categoryRepository,UserRepository userRepository){
+    public ExpenseServiceImpl(ExpenseRepository expenseRepository, CategoryRepository categoryRepository,UserRepository userRepository,
+                              CategoryService categoryService, UserService userService,
+                              ExpensePaginationProperties paginationProperties, ChangeVersions changeVersions,
+                              ExpenseTextIndex textIndex, ExpenseColumnStore columnStore,
+                              ExpenseRollupWriter rollupWriter, ExpenseArchive expenseArchive,
+                              ExpenseMonthWindow monthWindow, ReadYourWrites readYourWrites,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry){
         this.expenseRepository = expenseRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.categoryService = categoryService;
+        this.userService = userService;
+        this.paginationProperties = paginationProperties;
+        this.changeVersions = changeVersions;
+        this.textIndex = textIndex;
+        this.columnStore = columnStore;
+        this.rollupWriter = rollupWriter;
+        this.expenseArchive = expenseArchive;
+        this.monthWindow = monthWindow;
+        this.readYourWrites = readYourWrites;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.allRows = rowsReturned(meterRegistry, "all");
+        this.userRows = rowsReturned(meterRegistry, "user");
+        this.pageRows = rowsReturned(meterRegistry, "page");
+        this.userPageRows = rowsReturned(meterRegistry, "user-page");
+        this.searchRows = rowsReturned(meterRegistry, "search");
+        this.textSearchRows = rowsReturned(meterRegistry, "text-search");
     }
 
     @Override
     public ExpenseResponse addExpense(ExpenseRequest request){
-        User user = userRepository.findById(request.userId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Category category = categoryRepository.findById(request.categoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        // Names come from the user and category caches, whose misses read the primary; the foreign keys are the
+        // final existence check, so on a warm cache the only round trip is the insert.
+        UserResponse user = userService.getUserForWrite(request.userId());
+        CategoryResponse category = categoryService.getCategoryById(request.categoryId());
 
         Expense expense = new Expense();
         expense.setAmount(request.amount());
         expense.setDescription(request.description());
-        expense.setUser(user);
-        expense.setCategory(category);
-        expense.setExpenseDate(request.expenseDate());
+        expense.setUser(userRepository.getReferenceById(user.id()));
+        expense.setCategory(categoryRepository.getReferenceById(category.id()));
+        expense.setExpenseDate(request.expenseDate() != null ? request.expenseDate() : LocalDate.now());
         expense.setCreatedAt(Instant.now());
 
-        Expense savedExpense = expenseRepository.save(expense);
+        // The expense and its monthly rollup commit together.
+        Expense savedExpense = writeChecked(request, () -> {
+            Expense saved = expenseRepository.saveAndFlush(expense);
+            rollupWriter.apply(user.id(), category.id(), saved.getExpenseDate(), saved.getAmount(), 1);
+            return saved;
+        });
+        changeVersions.expensesChanged(user.id());
+        readYourWrites.userWritten(user.id());
+        textIndex.add(user.id(), savedExpense.getId(), savedExpense.getDescription());
+        columnStore.put(savedExpense.getId(), user.id(), category.id(), savedExpense.getExpenseDate(),
+                savedExpense.getAmount());
 
-        return new ExpenseResponse(
-                savedExpense.getId(),
-                savedExpense.getAmount(),
-                savedExpense.getDescription(),
-                savedExpense.getCategory().getId(),
-                savedExpense.getCategory().getName(),
-                savedExpense.getUser().getId(),
-                savedExpense.getUser().getName(),
-                savedExpense.getCreatedAt()
-        );
+        return ExpenseMapper.toResponse(savedExpense, category.name(), user.name());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ExpenseResponse> getAllExpenses() {
-        return expenseRepository.findAll().stream().map(this::mapToResponse).collect(Collectors.toList());
+        // Served with an ETag, so read from the primary: a lagging replica would pair a fresh tag with stale rows.
+        List<ExpenseView> rows = keysetPage(null, null, Sort.Direction.DESC, paginationProperties.legacyListLimit());
+        allRows.record(rows.size());
+        return toResponses(rows);
     }
 
-    private ExpenseResponse mapToResponse(Expense expense) {
-        return  new ExpenseResponse(
-                expense.getId(),
-                expense.getAmount(),
-                expense.getDescription(),
-                expense.getCategory().getId(),
-                expense.getCategory().getName(),
-                expense.getUser().getId(),
-                expense.getUser().getName(),
-                expense.getCreatedAt()
-        );
+    @Transactional(readOnly = true)
+    public List<ExpenseResponse> getExpensesByUser(Long userId){
+        // Served with an ETag, so read from the primary, as getAllExpenses.
+        if(!userRepository.existsById(userId)){
+            throw new ResourceNotFoundException("User not found");
+        }
+        List<ExpenseView> rows = keysetPage(userId, null, Sort.Direction.DESC, paginationProperties.legacyListLimit());
+        userRows.record(rows.size());
+        return toResponses(rows);
     }
 
-    public List<ExpenseResponse> getExpensesByUser(Long userId){
+    @Override
+    @Transactional(readOnly = true)
+    public ExpensePageResponse getExpensesPage(String cursor, Integer size, String sort) {
+        readYourWrites.replicaUnlessExpensesWritten();
+        Sort.Direction direction = parseDirection(sort);
+        int pageSize = paginationProperties.resolvePageSize(size);
+
+        List<ExpenseView> rows = keysetPage(null, decodeCursor(cursor), direction, pageSize + 1);
+        return toPage(rows, pageSize, pageRows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExpensePageResponse getExpensesPageByUser(Long userId, String cursor, Integer size, String sort) {
+        readYourWrites.replicaUnlessUserWritten(userId);
         if(!userRepository.existsById(userId)){
             throw new ResourceNotFoundException("User not found");
         }
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
-        return expenses.stream().map(
-                expense -> new ExpenseResponse(
-                        expense.getId(),
-                        expense.getAmount(),
-                        expense.getDescription(),
-                        expense.getCategory().getId(),
-                        expense.getCategory().getName(),
-                        expense.getUser().getId(),
-                        expense.getUser().getName(),
-                        expense.getCreatedAt()
-                )
-        ).collect(Collectors.toList());
+        Sort.Direction direction = parseDirection(sort);
+        int pageSize = paginationProperties.resolvePageSize(size);
+
+        List<ExpenseView> rows = keysetPage(userId, decodeCursor(cursor), direction, pageSize + 1);
+        return toPage(rows, pageSize, userPageRows);
+    }
+
+    /**
+     * Up to {@code limit} rows in keyset order after {@code after} (from the start when null), for one user or all.
+     * The page is first read within the months {@link ExpenseMonthWindow} expects to fill it; if those come up
+     * short, it continues past the last row read with no date bound.
+     */
+    private List<ExpenseView> keysetPage(Long userId, ExpenseCursor after, Sort.Direction direction, int limit) {
+        LocalDate position = after != null ? after.expenseDate() : null;
+        LocalDate edge = direction.isAscending()
+                ? monthWindow.oldestFirst(userId, position, limit)
+                : monthWindow.newestFirst(userId, position, limit);
+        List<ExpenseView> rows = keysetRows(userId, after, direction, edge, limit);
+        if (edge == null || rows.size() == limit) {
+            return rows;
+        }
+        List<ExpenseView> page = new ArrayList<>(rows);
+        page.addAll(keysetRows(userId, rows.isEmpty() ? after : ExpenseCursor.of(rows.getLast()), direction, null,
+                limit - rows.size()));
+        return page;
     }
 
+    // One keyset query; edge is the far end of the date range in page order, null for an open range.
+    private List<ExpenseView> keysetRows(Long userId, ExpenseCursor after, Sort.Direction direction, LocalDate edge,
+                                         int limit) {
+        Sort sort = pageSort(direction);
+        Limit rows = Limit.of(limit);
+        if (direction.isAscending()) {
+            LocalDate to = edge != null ? edge : LATEST;
+            if (after == null) {
+                return userId == null
+                        ? expenseRepository.findViews(EARLIEST, to, sort, rows)
+                        : expenseRepository.findViewsByUserId(userId, EARLIEST, to, sort, rows);
+            }
+            return userId == null
+                    ? expenseRepository.findViewsAfter(after.expenseDate(), after.id(), to, sort, rows)
+                    : expenseRepository.findViewsByUserIdAfter(userId, after.expenseDate(), after.id(), to, sort, rows);
+        }
+        LocalDate from = edge != null ? edge : EARLIEST;
+        if (after == null) {
+            return userId == null
+                    ? expenseRepository.findViews(from, LATEST, sort, rows)
+                    : expenseRepository.findViewsByUserId(userId, from, LATEST, sort, rows);
+        }
+        return userId == null
+                ? expenseRepository.findViewsBefore(after.expenseDate(), after.id(), from, sort, rows)
+                : expenseRepository.findViewsByUserIdBefore(userId, after.expenseDate(), after.id(), from, sort, rows);
+    }
+
+    /**
+     * Newest first across the expenses table and the archive: where the range reaches back past the archive
+     * horizon, archived expenses are merged in with the same filters, so paging through a search walks the whole
+     * history. One read-only transaction keeps both sides consistent with a concurrent archival run. Without a
+     * {@code from}, the table is read like the other keyset pages: within the months expected to fill the page
+     * first, then past them if they fall short.
+     */
     @Override
-    public ExpenseResponse getExpenseById(Long id) {
-        Expense expense = expenseRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Expense not found")
-        );
-        return new ExpenseResponse(
-                expense.getId(),
-                expense.getAmount(),
-                expense.getDescription(),
-                expense.getCategory().getId(),
-                expense.getCategory().getName(),
-                expense.getUser().getId(),
-                expense.getUser().getName(),
-                expense.getCreatedAt()
-        );
+    @Transactional(readOnly = true)
+    public ExpensePageResponse searchExpenses(ExpenseSearchCriteria criteria, String cursor, Integer size) {
+        if (criteria.from() != null && criteria.to() != null && criteria.from().isAfter(criteria.to())) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (criteria.minAmount() != null && criteria.maxAmount() != null
+                && criteria.minAmount().compareTo(criteria.maxAmount()) > 0) {
+            throw new BadRequestException("'minAmount' must not be greater than 'maxAmount'");
+        }
+        if(!userRepository.existsById(criteria.userId())){
+            throw new ResourceNotFoundException("User not found");
+        }
+        int pageSize = paginationProperties.resolvePageSize(size);
+
+        int limit = pageSize + 1;
 
+        Specification<Expense> spec = ExpenseSpecifications.matching(criteria);
+        ExpenseCursor after = decodeCursor(cursor);
+        LocalDate edge = null;
+        if (criteria.from() == null) {
+            LocalDate upTo = after != null && (criteria.to() == null || after.expenseDate().isBefore(criteria.to()))
+                    ? after.expenseDate() : criteria.to();
+            edge = monthWindow.newestFirst(criteria.userId(), upTo, limit);
+        }
+        List<ExpenseView> rows = searchTable(spec, after, edge, limit);
+        if (edge != null && rows.size() < limit) {
+            rows = new ArrayList<>(rows);
+            rows.addAll(searchTable(spec, rows.isEmpty() ? after : ExpenseCursor.of(rows.getLast()), null,
+                    limit - rows.size()));
+        }
+        return toPage(withArchived(criteria, after, rows, limit), pageSize, searchRows);
+    }
+
+    private List<ExpenseView> searchTable(Specification<Expense> spec, ExpenseCursor after, LocalDate edge, int limit) {
+        if (after != null) {
+            spec = spec.and(ExpenseSpecifications.before(after));
+        }
+        if (edge != null) {
+            spec = spec.and(ExpenseSpecifications.onOrAfter(edge));
+        }
+        return expenseRepository.findViews(spec, pageSort(Sort.Direction.DESC), Limit.of(limit));
+    }
+
+    /**
+     * Merges archived matches into a newest-first page of hot rows. The catalog tells how recent the newest
+     * archived expense in range can be, so a full page of hot rows newer than that costs one index probe and
+     * decodes nothing; otherwise segments are decoded newest month first until the page is full.
+     */
+    private List<ExpenseView> withArchived(ExpenseSearchCriteria criteria, ExpenseCursor after, List<ExpenseView> hot,
+                                           int limit) {
+        LocalDate from = criteria.from() != null ? criteria.from() : EARLIEST;
+        LocalDate to = criteria.to() != null ? criteria.to() : LATEST;
+        if (after != null && after.expenseDate().isBefore(to)) {
+            to = after.expenseDate();
+        }
+        Optional<LocalDate> newestArchived = expenseArchive.newestDate(criteria.userId(), from, to);
+        if (newestArchived.isEmpty()
+                || (hot.size() == limit && hot.getLast().expenseDate().isAfter(newestArchived.get()))) {
+            return hot;
+        }
+        List<ExpenseView> merged = new ArrayList<>(limit);
+        try (Stream<ExpenseView> archived = expenseArchive.readViewsNewestFirst(criteria.userId(), from, to)) {
+            Iterator<ExpenseView> cold = archived.filter(view -> matches(view, criteria, after)).iterator();
+            Iterator<ExpenseView> warm = hot.iterator();
+            ExpenseView nextCold = cold.hasNext() ? cold.next() : null;
+            ExpenseView nextHot = warm.hasNext() ? warm.next() : null;
+            while (merged.size() < limit && (nextCold != null || nextHot != null)) {
+                if (nextCold == null || (nextHot != null && isNewer(nextHot, nextCold))) {
+                    merged.add(nextHot);
+                    nextHot = warm.hasNext() ? warm.next() : null;
+                } else {
+                    merged.add(nextCold);
+                    nextCold = cold.hasNext() ? cold.next() : null;
+                }
+            }
+        }
+        return merged;
+    }
+
+    // The search filters the database applies to hot rows, for archived ones; the date range is the archive's.
+    private static boolean matches(ExpenseView view, ExpenseSearchCriteria criteria, ExpenseCursor after) {
+        return (criteria.categoryIds() == null || criteria.categoryIds().isEmpty()
+                        || criteria.categoryIds().contains(view.categoryId()))
+                && (criteria.minAmount() == null || view.amount().compareTo(criteria.minAmount()) >= 0)
+                && (criteria.maxAmount() == null || view.amount().compareTo(criteria.maxAmount()) <= 0)
+                && (after == null || view.expenseDate().isBefore(after.expenseDate())
+                        || (view.expenseDate().equals(after.expenseDate()) && view.id() < after.id()));
+    }
+
+    // Newest first by (expense date, id).
+    private static boolean isNewer(ExpenseView hot, ExpenseView archived) {
+        int byDate = hot.expenseDate().compareTo(archived.expenseDate());
+        return byDate > 0 || (byDate == 0 && hot.id() > archived.id());
     }
 
     @Override
-    public void deleteExpense(Long id) {
-        if(!expenseRepository.existsById(id)){
-            throw new ResourceNotFoundException("Expense not found");
+    public List<ExpenseResponse> searchDescriptions(Long userId, String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
         }
-        expenseRepository.deleteById(id);
+        if(!userRepository.existsById(userId)){
+            throw new ResourceNotFoundException("User not found");
+        }
+        int size = paginationProperties.resolvePageSize(limit);
+        List<ExpenseView> rows = textIndex.isEnabled() ? indexedDescriptions(userId, query, size)
+                : scannedDescriptions(userId, DescriptionTokenizer.tokens(query), size);
+        textSearchRows.record(rows.size());
+        return toResponses(rows);
     }
 
+    // The index picks the newest matching ids; the rows themselves (and the final order) come from the database.
+    private List<ExpenseView> indexedDescriptions(Long userId, String query, int limit) {
+        long[] ids = textIndex.search(userId, query, limit);
+        return ids.length == 0 ? List.of()
+                : expenseRepository.findViewsByUserIdAndIdIn(userId, Arrays.stream(ids).boxed().toList(),
+                        pageSort(Sort.Direction.DESC));
+    }
+
+    // Without the index: the database returns the user's expenses containing every term, newest first, and only
+    // those with a word starting with each term are kept, reading further pages until the limit is reached.
+    private List<ExpenseView> scannedDescriptions(Long userId, String[] terms, int limit) {
+        if (terms.length == 0) {
+            return List.of();
+        }
+        Specification<Expense> spec = ExpenseSpecifications.belongsTo(userId);
+        for (String term : terms) {
+            spec = spec.and(ExpenseSpecifications.descriptionContains(term));
+        }
+        List<ExpenseView> matches = new ArrayList<>(limit);
+        ExpenseCursor after = null;
+        while (true) {
+            List<ExpenseView> candidates = expenseRepository.findViews(
+                    after == null ? spec : spec.and(ExpenseSpecifications.before(after)),
+                    pageSort(Sort.Direction.DESC), Limit.of(limit));
+            for (ExpenseView candidate : candidates) {
+                if (matches.size() < limit && DescriptionTokenizer.matchesAll(candidate.description(), terms)) {
+                    matches.add(candidate);
+                }
+            }
+            if (matches.size() == limit || candidates.size() < limit) {
+                return matches;
+            }
+            after = ExpenseCursor.of(candidates.getLast());
+        }
+    }
+
+    /**
+     * Expenses in the table only: the archive has no index by id, so an archived expense is not found here. Its
+     * history stays readable through search, exports and spending series.
+     */
     @Override
-    public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
-        Expense expense = expenseRepository.findById(id)
+    public ExpenseResponse getExpenseById(Long id) {
+        return expenseRepository.findViewById(id)
+                .map(ExpenseMapper::toResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense not found"));
+    }
+
+    @Override
+    public void deleteExpense(Long id) {
+        Long userId = transaction.execute(status -> {
+            Expense expense = expenseRepository.findForUpdateById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Expense not found"));
+            expenseRepository.delete(expense);
+            rollupWriter.apply(expense.getUser().getId(), expense.getCategory().getId(), expense.getExpenseDate(),
+                    expense.getAmount().negate(), -1);
+            return expense.getUser().getId();
+        });
+        changeVersions.expensesChanged(userId);
+        readYourWrites.userWritten(userId);
+        textIndex.remove(userId, id);
+        columnStore.remove(id);
+    }
 
-        Category category = categoryRepository.findById(request.categoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+    @Override
+    public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
+        CategoryResponse category = categoryService.getCategoryById(request.categoryId());
 
-        expense.setAmount(request.amount());
-        expense.setDescription(request.description());
-        expense.setCategory(category);
-        expense.setUpdatedAt(Instant.now());
+        Expense updatedExpense = writeChecked(request, () -> {
+            // Locked so a concurrent update cannot move the same old amount out of the rollup twice.
+            Expense expense = expenseRepository.findForUpdateById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Expense not found"));
+            Long userId = expense.getUser().getId();
+            Long oldCategoryId = expense.getCategory().getId();
+            BigDecimal oldAmount = expense.getAmount();
 
-        Expense updatedExpense = expenseRepository.save(expense);
+            expense.setAmount(request.amount());
+            expense.setDescription(request.description());
+            expense.setCategory(categoryRepository.getReferenceById(category.id()));
+            expense.setUpdatedAt(Instant.now());
+            Expense saved = expenseRepository.saveAndFlush(expense);
 
-        return new ExpenseResponse(
-                updatedExpense.getId(),
-                updatedExpense.getAmount(),
-                updatedExpense.getDescription(),
-                updatedExpense.getCategory().getId(),
-                updatedExpense.getCategory().getName(),
-                updatedExpense.getUser().getId(),
-                updatedExpense.getUser().getName(),
-                updatedExpense.getCreatedAt()
-        );
+            if (oldCategoryId.equals(category.id())) {
+                rollupWriter.apply(userId, category.id(), expense.getExpenseDate(), request.amount().subtract(oldAmount), 0);
+            } else {
+                rollupWriter.apply(userId, oldCategoryId, expense.getExpenseDate(), oldAmount.negate(), -1);
+                rollupWriter.apply(userId, category.id(), expense.getExpenseDate(), request.amount(), 1);
+            }
+            return saved;
+        });
+        // Saved while still managed, so this is the graph-loaded instance and its user is initialized.
+        Long userId = updatedExpense.getUser().getId();
+        changeVersions.expensesChanged(userId);
+        readYourWrites.userWritten(userId);
+        textIndex.update(userId, updatedExpense.getId(), updatedExpense.getDescription());
+        columnStore.put(updatedExpense.getId(), userId, category.id(), updatedExpense.getExpenseDate(),
+                updatedExpense.getAmount());
+
+        return ExpenseMapper.toResponse(updatedExpense, category.name(), updatedExpense.getUser().getName());
+    }
+
+    // Runs the write in its own transaction; a foreign-key failure is translated only after the rollback,
+    // since the lookups in missingReference cannot run on an aborted transaction.
+    private Expense writeChecked(ExpenseRequest request, Supplier<Expense> write) {
+        try {
+            return transaction.execute(status -> write.get());
+        } catch (DataIntegrityViolationException e) {
+            throw missingReference(e, request);
+        }
+    }
+
+    // Maps a foreign-key failure back to the 404 the pre-select used to produce.
+    private RuntimeException missingReference(DataIntegrityViolationException e, ExpenseRequest request) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        if (constraint != null) {
+            // Match on the suffix: some dialects report the name with a clipped prefix.
+            String name = constraint.toLowerCase(Locale.ROOT);
+            if (name.contains("expenses_user")) {
+                return new ResourceNotFoundException("User not found");
+            }
+            if (name.contains("expenses_category")) {
+                return new ResourceNotFoundException("Category not found");
+            }
+        }
+        // Schemas created before the constraints were named: fall back to checking which row is missing.
+        if (!userRepository.existsById(request.userId())) {
+            return new ResourceNotFoundException("User not found");
+        }
+        if (!categoryRepository.existsById(request.categoryId())) {
+            return new ResourceNotFoundException("Category not found");
+        }
+        return e;
+    }
+
+    private static List<ExpenseResponse> toResponses(List<ExpenseView> views) {
+        return views.stream().map(ExpenseMapper::toResponse).collect(Collectors.toList());
+    }
+
+    private static ExpensePageResponse toPage(List<ExpenseView> rows, int pageSize, DistributionSummary rowsReturned) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ExpenseView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        rowsReturned.record(items.size());
+        String nextCursor = hasMore ? ExpenseCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new ExpensePageResponse(toResponses(items), nextCursor, hasMore);
+    }
+
+    private static DistributionSummary rowsReturned(MeterRegistry meterRegistry, String query) {
+        return DistributionSummary.builder("expenses.list.rows")
+                .description("Rows returned per expense list call")
+                .tag("query", query)
+                .register(meterRegistry);
     }
 
+    private static ExpenseCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : ExpenseCursor.decode(cursor);
+    }
 
+    private static Sort pageSort(Sort.Direction direction) {
+        return Sort.by(direction, "expenseDate", "id");
+    }
 
+    private static Sort.Direction parseDirection(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.Direction.DESC;
+        }
+        try {
+            return Sort.Direction.fromString(sort);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Sort must be 'asc' or 'desc'");
+        }
+    }
 }
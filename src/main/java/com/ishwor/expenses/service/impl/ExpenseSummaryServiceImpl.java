@@ -0,0 +1,47 @@
+package com.ishwor.expenses.service.impl;
+
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.response.CategorySpendResponse;
+import com.ishwor.expenses.dto.response.ExpenseSummaryResponse;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.service.ExpenseSummaryService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+@Service
+@Timed("expenses.service")
+public class ExpenseSummaryServiceImpl implements ExpenseSummaryService {
+    private final ExpenseMonthlyTotalRepository monthlyTotalRepository;
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+
+    public ExpenseSummaryServiceImpl(ExpenseMonthlyTotalRepository monthlyTotalRepository, UserRepository userRepository,
+                                     ReadYourWrites readYourWrites) {
+        this.monthlyTotalRepository = monthlyTotalRepository;
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExpenseSummaryResponse getMonthlySummary(Long userId, YearMonth month) {
+        readYourWrites.replicaUnlessUserWritten(userId);
+        if(!userRepository.existsById(userId)){
+            throw new ResourceNotFoundException("User not found");
+        }
+        // Served entirely from the rollup: one row per category the user spent in that month.
+        List<CategorySpendResponse> categories = monthlyTotalRepository.findCategorySpend(userId, month.atDay(1));
+        BigDecimal total = categories.stream()
+                .map(CategorySpendResponse::totalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long count = categories.stream().mapToLong(CategorySpendResponse::expenseCount).sum();
+        return new ExpenseSummaryResponse(userId, month, total, count, categories);
+    }
+}
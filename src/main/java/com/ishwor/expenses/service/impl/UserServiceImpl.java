@@ -1,19 +1,27 @@
 package com.ishwor.expenses.service.impl;
 
+import com.ishwor.expenses.config.CacheNames;
+import com.ishwor.expenses.datasource.ReadYourWrites;
 import com.ishwor.expenses.dto.request.UserRequest;
 import com.ishwor.expenses.dto.response.UserResponse;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
 import com.ishwor.expenses.model.User;
 import com.ishwor.expenses.repository.UserRepository;
 import com.ishwor.expenses.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("expenses.service")
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
     }
 
     @Override
@@ -24,12 +32,29 @@ public class UserServiceImpl implements UserService {
         user.setPassword(request.password()); // 🚨 TODO: Hash password before saving (security best practice)
 
         User savedUser = userRepository.save(user);
+        readYourWrites.userWritten(savedUser.getId());
 
         return new UserResponse(savedUser.getId(), savedUser.getName(), savedUser.getEmail());
     }
 
+    // For GET /api/users/{id}: cache misses read a replica, unless this instance wrote the user within the
+    // read-your-writes window.
     @Override
+    @Cacheable(CacheNames.USERS)
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
+        readYourWrites.replicaUnlessUserWritten(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        return new UserResponse(user.getId(), user.getName(), user.getEmail());
+    }
+
+    // The existence check for expense writes shares the cache, but a miss reads the primary: a replica that has
+    // not caught up, or a user created through another instance, would otherwise be a spurious 404.
+    @Override
+    @Cacheable(CacheNames.USERS)
+    public UserResponse getUserForWrite(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -0,0 +1,68 @@
+package com.ishwor.expenses.versioning;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change counters behind the list ETags: one for all expenses, one per user and one for categories.
+ * <p>
+ * Callers read the ETag <em>before</em> querying, and writers bump only after commit, so a response can carry
+ * an older version than its data but never a newer one. The epoch is new on every start, so tags issued by a
+ * previous run never match. Counters live in this instance only; with several instances behind a load balancer
+ * every instance must see every write, which this class does not provide.
+ */
+@Component
+public class ChangeVersions {
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong expenses = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    private final Map<Long, AtomicLong> userExpenses = new ConcurrentHashMap<>();
+
+    public String allExpensesETag() {
+        return etag("e" + expenses.get() + "-c" + categories.get());
+    }
+
+    public String userExpensesETag(Long userId) {
+        AtomicLong version = userExpenses.get(userId);
+        return etag("u" + userId + "." + (version != null ? version.get() : 0) + "-c" + categories.get());
+    }
+
+    public String categoriesETag() {
+        return etag("c" + categories.get());
+    }
+
+    public void expensesChanged(Long userId) {
+        afterCommit(() -> {
+            userExpenses.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+            expenses.incrementAndGet();
+        });
+    }
+
+    public void categoriesChanged() {
+        afterCommit(categories::incrementAndGet);
+    }
+
+    private String etag(String version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    // Bumping before commit would let a concurrent reader pair the new tag with the old rows.
+    private static void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.ishwor.expenses.writebehind;
+
+import com.ishwor.expenses.config.ExpenseBatchProperties;
+import com.ishwor.expenses.config.WriteBehindProperties;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseAcceptedResponse;
+import com.ishwor.expenses.dto.response.ExpenseBatchError;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.exception.ServiceUnavailableException;
+import com.ishwor.expenses.service.ExpenseBatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous ingestion for expense creation. Requests are buffered in a bounded queue and a single flusher
+ * thread writes them in groups through {@link ExpenseBatchService}, so a burst of creates costs one transaction
+ * and a few batched inserts per group instead of one pooled connection per request.
+ *
+ * <p>With {@link WriteBehindDurability#COMMIT} a caller waits until its group has committed; with
+ * {@link WriteBehindDurability#ENQUEUE} it is acknowledged once queued, and expenses that later fail validation
+ * or hit a database error are only logged and counted. The queue is drained on shutdown, after the web server
+ * has stopped taking requests. When a group write throws an exception, its expenses are retried one per
+ * transaction, so only the offending ones fail; an error fails that group only. If the flusher itself dies,
+ * ingestion stops and everything still queued is failed rather than left waiting.
+ */
+@Component
+@ConditionalOnProperty(prefix = "expenses.write-behind", name = "enabled", havingValue = "true")
+public class ExpenseWriteBehindQueue implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseWriteBehindQueue.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final ExpenseBatchService expenseBatchService;
+    private final WriteBehindDurability durability;
+    private final BlockingQueue<PendingExpense> queue;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final long commitTimeoutNanos;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ExpenseWriteBehindQueue(ExpenseBatchService expenseBatchService, WriteBehindProperties properties,
+                                   ExpenseBatchProperties batchProperties, MeterRegistry meterRegistry) {
+        this.expenseBatchService = expenseBatchService;
+        this.durability = properties.durability();
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+        this.maxBatch = Math.max(1, Math.min(properties.maxBatch(), batchProperties.maxItems()));
+        this.maxDelayNanos = properties.maxDelay().toNanos();
+        this.commitTimeoutNanos = properties.commitTimeout().toNanos();
+        Gauge.builder("expenses.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Expenses accepted but not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("expenses.ingest.flush")
+                .description("Time to write one group of queued expenses")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("expenses.ingest.batch.size")
+                .description("Expenses written per group transaction")
+                .register(meterRegistry);
+        this.rejected = failures(meterRegistry, "rejected");
+        this.failed = failures(meterRegistry, "error");
+    }
+
+    /**
+     * Queues an expense that has already passed request validation; user and category are checked when written.
+     */
+    public ExpenseAcceptedResponse submit(ExpenseRequest request) {
+        if (!running) {
+            throw new ServiceUnavailableException("Expense ingestion is not running");
+        }
+        PendingExpense pending = new PendingExpense(UUID.randomUUID().toString(), request, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new ServiceUnavailableException("Expense ingestion queue is full");
+        }
+        // Stopped between the check and the offer: the flusher may already have exited, so take it back.
+        if (!running && queue.remove(pending)) {
+            throw new ServiceUnavailableException("Expense ingestion is not running");
+        }
+
+        if (durability == WriteBehindDurability.ENQUEUE) {
+            return new ExpenseAcceptedResponse(pending.acceptedId(), null, false);
+        }
+        try {
+            ExpenseResponse created = pending.result().get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+            return new ExpenseAcceptedResponse(pending.acceptedId(), created.id(), true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // The expense stays queued and may still be written; the caller only stops waiting for it.
+            throw new ServiceUnavailableException("Timed out waiting for the queued expense to be written");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the queued expense to be written");
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("expense-write-behind").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the web server's phases, so this stops after it and sees no new submissions while draining.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<PendingExpense> group = new ArrayList<>(maxBatch);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingExpense first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                fill(group);
+                flush(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Write-behind flusher interrupted with {} expenses queued", queue.size());
+        } catch (Throwable e) {
+            log.error("Write-behind flusher died with {} expenses queued", queue.size(), e);
+        } finally {
+            // Nothing drains the queue once this thread exits, so refuse new submissions and fail what is left.
+            running = false;
+            abandon(group);
+        }
+    }
+
+    private void abandon(List<PendingExpense> group) {
+        queue.drainTo(group);
+        List<PendingExpense> unwritten = group.stream().filter(pending -> !pending.result().isDone()).toList();
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        failed.increment(unwritten.size());
+        log.error("Write-behind flusher stopped with {} expenses unwritten", unwritten.size());
+        ServiceUnavailableException stopped = new ServiceUnavailableException("Expense ingestion stopped before the expense was written");
+        unwritten.forEach(pending -> pending.result().completeExceptionally(stopped));
+    }
+
+    // Group commit: wait up to max-delay after the first expense for the group to fill.
+    private void fill(List<PendingExpense> group) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (group.size() < maxBatch) {
+            queue.drainTo(group, maxBatch - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            PendingExpense next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void flush(List<PendingExpense> group) {
+        long started = System.nanoTime();
+        try {
+            write(group);
+        } catch (Exception e) {
+            if (group.size() == 1) {
+                fail(group, e);
+            } else {
+                // One bad row, e.g. a constraint violation, rolls back the whole group; write each on its own so
+                // only that row's caller sees the failure.
+                log.warn("Group of {} queued expenses failed, writing them one by one", group.size(), e);
+                group.forEach(this::writeAlone);
+            }
+        } catch (Throwable e) {
+            fail(group, e);
+        } finally {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            batchSizes.record(group.size());
+        }
+    }
+
+    private void writeAlone(PendingExpense pending) {
+        try {
+            write(List.of(pending));
+        } catch (Throwable e) {
+            fail(List.of(pending), e);
+        }
+    }
+
+    private void write(List<PendingExpense> group) {
+        ExpenseBatchResponse result = expenseBatchService.addExpenses(
+                group.stream().map(PendingExpense::request).toList());
+        Map<Integer, ExpenseBatchError> errors = result.errors().stream()
+                .collect(Collectors.toMap(ExpenseBatchError::index, Function.identity()));
+        // Created expenses come back in submission order, skipping the rejected ones.
+        Iterator<ExpenseResponse> created = result.expenses().iterator();
+        for (int i = 0; i < group.size(); i++) {
+            ExpenseBatchError error = errors.get(i);
+            if (error == null) {
+                group.get(i).result().complete(created.next());
+            } else {
+                rejected.increment();
+                log.warn("Queued expense {} rejected: {}", group.get(i).acceptedId(), error.messages());
+                group.get(i).result().completeExceptionally(rejection(error.messages()));
+            }
+        }
+    }
+
+    private void fail(List<PendingExpense> group, Throwable e) {
+        failed.increment(group.size());
+        log.error("Failed to write {} queued expenses", group.size(), e);
+        group.forEach(pending -> pending.result().completeExceptionally(e));
+    }
+
+    private static RuntimeException rejection(List<String> messages) {
+        return messages.stream()
+                .filter(message -> message.endsWith("not found"))
+                .findFirst()
+                .<RuntimeException>map(ResourceNotFoundException::new)
+                .orElseGet(() -> new BadRequestException(String.join("; ", messages)));
+    }
+
+    private static Counter failures(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("expenses.ingest.failed")
+                .description("Queued expenses that were never written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record PendingExpense(String acceptedId, ExpenseRequest request, CompletableFuture<ExpenseResponse> result) {}
+}
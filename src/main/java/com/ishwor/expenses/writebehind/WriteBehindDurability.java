@@ -0,0 +1,11 @@
+package com.ishwor.expenses.writebehind;
+
+/**
+ * When an asynchronously ingested expense is acknowledged.
+ */
+public enum WriteBehindDurability {
+    // After the group transaction holding the expense has committed; the response carries the expense id.
+    COMMIT,
+    // As soon as the expense is queued; anything still queued is lost if the process dies.
+    ENQUEUE
+}
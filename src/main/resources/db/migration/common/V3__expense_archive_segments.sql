@@ -0,0 +1,21 @@
+-- One row per compressed segment written by the archival job. A segment holds one user's expenses between
+-- from_date and to_date that were moved out of the expenses table in a single run; data is the encoded segment,
+-- stored with its catalog entry so every instance reads the same archive and backups include it.
+CREATE SEQUENCE expense_archive_segments_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE expense_archive_segments (
+    id         BIGINT                      NOT NULL,
+    user_id    BIGINT                      NOT NULL,
+    from_date  DATE                        NOT NULL,
+    to_date    DATE                        NOT NULL,
+    row_count  INTEGER                     NOT NULL,
+    data       BYTEA                       NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_expense_archive_segments PRIMARY KEY (id)
+);
+
+-- Reads look up the segments of one user whose dates overlap the requested range.
+CREATE INDEX idx_expense_archive_segments_user_dates ON expense_archive_segments (user_id, from_date, to_date);
+
+ALTER TABLE expense_archive_segments
+    ADD CONSTRAINT fk_expense_archive_segments_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,57 @@
+-- Range-partitions expenses by month of expense_date, so date-bounded queries only visit the months they ask for
+-- and retention can detach a month instead of deleting its rows. Partitions are named expenses_YYYY_MM.
+-- Dates whose month has no partition yet go to expenses_default; ExpensePartitionMaintainer creates the coming
+-- months ahead of time. Only on Flyway's path with expenses.partitioning.enabled=true on PostgreSQL
+-- (PartitionMigrationConfig); otherwise the plain table stays.
+
+ALTER TABLE expenses RENAME TO expenses_unpartitioned;
+
+CREATE TABLE expenses (
+    id           BIGINT                      NOT NULL,
+    amount       NUMERIC(10, 2)              NOT NULL,
+    description  TEXT,
+    category_id  BIGINT                      NOT NULL,
+    user_id      BIGINT                      NOT NULL,
+    expense_date DATE                        NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE
+) PARTITION BY RANGE (expense_date);
+
+CREATE TABLE expenses_default PARTITION OF expenses DEFAULT;
+
+DO $$
+DECLARE
+    first_day DATE;
+BEGIN
+    FOR first_day IN
+        SELECT DISTINCT date_trunc('month', expense_date)::date FROM expenses_unpartitioned
+        UNION
+        SELECT date_trunc('month', current_date)::date
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF expenses FOR VALUES FROM (%L) TO (%L)',
+                       'expenses_' || to_char(first_day, 'YYYY_MM'), first_day, (first_day + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO expenses (id, amount, description, category_id, user_id, expense_date, created_at, updated_at)
+SELECT id, amount, description, category_id, user_id, expense_date, created_at, updated_at
+FROM expenses_unpartitioned;
+
+DROP TABLE expenses_unpartitioned;
+
+-- The primary key of a partitioned table has to contain the partition column, so pk_expenses becomes
+-- (id, expense_date), and PostgreSQL cannot enforce a unique id on its own across partitions. The sequence is
+-- what keeps ids unique: the rows copied above were unique under the old key, every later id comes from
+-- nextval('expenses_id_seq') through Hibernate, nothing inserts an explicit id, and no foreign key references
+-- expenses.id. Lookups by id alone probe the key's index once per partition.
+ALTER TABLE expenses ADD CONSTRAINT pk_expenses PRIMARY KEY (id, expense_date);
+
+CREATE INDEX idx_expenses_user_date_id ON expenses (user_id, expense_date, id);
+CREATE INDEX idx_expenses_date_id ON expenses (expense_date, id);
+CREATE INDEX idx_expenses_user_category_date ON expenses (user_id, category_id, expense_date);
+CREATE INDEX idx_expenses_category ON expenses (category_id);
+
+ALTER TABLE expenses
+    ADD CONSTRAINT fk_expenses_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE SET NULL;
+ALTER TABLE expenses
+    ADD CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,44 @@
+-- The schema exactly as Hibernate's ddl-auto: update created it from the original entities, with the names it
+-- generated for the constraints. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it, so everything added since belongs in later versions.
+-- Keep in step with h2/V1__baseline.sql, which differs only in the type of unbounded text columns.
+
+CREATE SEQUENCE categories_id_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE expenses_id_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE categories (
+    id          BIGINT                      NOT NULL,
+    name        VARCHAR(100)                NOT NULL,
+    description TEXT,
+    created_at  TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE expenses (
+    id           BIGINT                      NOT NULL,
+    amount       NUMERIC(10, 2)              NOT NULL,
+    description  TEXT,
+    category_id  BIGINT                      NOT NULL,
+    user_id      BIGINT                      NOT NULL,
+    expense_date DATE,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id         BIGINT                      NOT NULL,
+    name       VARCHAR(100)                NOT NULL,
+    password   VARCHAR(100)                NOT NULL,
+    email      VARCHAR(255)                NOT NULL UNIQUE,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE expenses
+    ADD CONSTRAINT FKjao23ohq935a4qrorwwsen0lr FOREIGN KEY (category_id) REFERENCES categories ON DELETE SET NULL;
+ALTER TABLE expenses
+    ADD CONSTRAINT FKhpk0n2cbnfiuu5nrgl0ika3hq FOREIGN KEY (user_id) REFERENCES users ON DELETE CASCADE;
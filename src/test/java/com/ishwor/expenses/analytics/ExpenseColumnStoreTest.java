@@ -0,0 +1,136 @@
+package com.ishwor.expenses.analytics;
+
+import com.ishwor.expenses.config.AnalyticsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseColumnStoreTest {
+
+    private final ExpenseColumnStore store = new ExpenseColumnStore(new AnalyticsProperties(4000, 50_000, true));
+
+    @Test
+    void testFiltersCombine() {
+
+        store.put(1L, 1L, 10L, LocalDate.of(2024, 1, 5), new BigDecimal("12.50"));
+        store.put(2L, 1L, 20L, LocalDate.of(2024, 1, 20), new BigDecimal("3.00"));
+        store.put(3L, 1L, 10L, LocalDate.of(2024, 2, 1), new BigDecimal("8.00"));
+        store.put(4L, 2L, 10L, LocalDate.of(2024, 1, 6), new BigDecimal("100.00"));
+
+
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        assertEquals(1_550, store.sumCents(ExpenseFilter.forUser(1L, from, to)));
+        assertEquals(1_250, store.sumCents(new ExpenseFilter(1L, 10L, from, to)));
+        assertEquals(2_050, store.sumCents(new ExpenseFilter(1L, 10L, null, null)));
+        assertEquals(2, store.count(new ExpenseFilter(null, 10L, from, to)));
+        assertEquals(12_350, store.sumCents(ExpenseFilter.all()));
+        assertEquals(0, store.count(ExpenseFilter.forUser(99L, null, null)));
+        assertEquals(0, store.count(new ExpenseFilter(null, 99L, null, null)));
+    }
+
+    @Test
+    void testGroupsAreOrderedByKeyAndSkipEmptyOnes() {
+
+        store.put(1L, 7L, 30L, LocalDate.of(2024, 1, 1), new BigDecimal("1.00"));
+        store.put(2L, 3L, 10L, LocalDate.of(2024, 1, 2), new BigDecimal("2.00"));
+        store.put(3L, 7L, 10L, LocalDate.of(2024, 1, 3), new BigDecimal("4.00"));
+        store.put(4L, 5L, 20L, LocalDate.of(2025, 1, 1), new BigDecimal("8.00"));
+
+
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        GroupedSpend byCategory = store.sumByCategory(new ExpenseFilter(null, null, from, to));
+        GroupedSpend byUser = store.sumByUser(new ExpenseFilter(null, null, from, to));
+
+
+        assertArrayEquals(new long[]{10, 30}, byCategory.keys());
+        assertArrayEquals(new long[]{600, 100}, byCategory.cents());
+        assertArrayEquals(new long[]{2, 1}, byCategory.counts());
+        assertArrayEquals(new long[]{3, 7}, byUser.keys());
+        assertArrayEquals(new long[]{200, 500}, byUser.cents());
+    }
+
+    @Test
+    void testUpdatesAndRemovesMatchAPlainMap() {
+        // Random puts, overwrites and removes, checked against the same changes kept in a map.
+        Random random = new Random(42);
+        Map<Long, long[]> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                store.remove(id);
+                expected.remove(id);
+            } else {
+                long user = 1 + random.nextInt(20);
+                long cents = random.nextInt(100_000);
+                store.put(id, user, 1L, LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)),
+                        BigDecimal.valueOf(cents, 2));
+                expected.put(id, new long[]{user, cents});
+            }
+        }
+
+
+        assertEquals(expected.size(), store.size());
+        for (long user = 1; user <= 20; user++) {
+            long userId = user;
+            long cents = expected.values().stream().filter(row -> row[0] == userId).mapToLong(row -> row[1]).sum();
+            assertEquals(cents, store.sumCents(ExpenseFilter.forUser(user, null, null)));
+        }
+    }
+
+    @Test
+    void testChangesInsideATransactionApplyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.put(1L, 1L, 1L, LocalDate.of(2024, 1, 1), BigDecimal.TEN);
+            assertEquals(0, store.size());
+
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+
+            assertEquals(1, store.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSpendColumnsFeedTheSeriesEngine() {
+        store.put(1L, 1L, 4L, LocalDate.of(2024, 3, 2), new BigDecimal("5.00"));
+        store.put(2L, 1L, 4L, LocalDate.of(2024, 4, 2), new BigDecimal("6.00"));
+        SpendingSeriesEngine engine = new SpendingSeriesEngine(new AnalyticsProperties(4000, 50_000, true));
+
+
+        SpendColumns columns = store.spendColumns(ExpenseFilter.forUser(1L, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31)));
+        SpendSeries series = engine.aggregate(columns, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31),
+                BucketSize.MONTH, true);
+
+
+        assertEquals(1, columns.size());
+        assertArrayEquals(new long[]{500}, series.totalCents());
+        assertArrayEquals(new long[]{4}, series.categoryIds());
+    }
+
+    @Test
+    void testDisabledStoreIgnoresWrites() {
+        ExpenseColumnStore disabled = new ExpenseColumnStore(new AnalyticsProperties(4000, 50_000, false));
+
+
+        disabled.put(1L, 1L, 1L, LocalDate.of(2024, 1, 1), BigDecimal.TEN);
+
+
+        assertFalse(disabled.isEnabled());
+        assertEquals(0, disabled.size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.ishwor.expenses.analytics;
+
+import com.ishwor.expenses.config.AnalyticsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingSeriesEngineTest {
+
+    private final SpendingSeriesEngine engine = new SpendingSeriesEngine(new AnalyticsProperties(4000, 1_000_000, false));
+
+    @Test
+    void testMonthlyBucketsIncludePartialMonthsAndEmptyBuckets() {
+
+        SpendColumns columns = new SpendColumns();
+        columns.add(LocalDate.of(2024, 1, 15), 1L, 1_000);
+        columns.add(LocalDate.of(2024, 1, 31), 2L, 250);
+        columns.add(LocalDate.of(2024, 3, 1), 1L, 99);
+
+
+        SpendSeries series = engine.aggregate(columns, LocalDate.of(2024, 1, 10), LocalDate.of(2024, 3, 5),
+                BucketSize.MONTH, false);
+
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1)),
+                series.bucketStarts());
+        assertArrayEquals(new long[]{1_250, 0, 99}, series.totalCents());
+        assertArrayEquals(new long[]{2, 0, 1}, series.counts());
+        assertEquals(0, series.categoryIds().length);
+    }
+
+    @Test
+    void testWeeklyBucketsStartOnMonday() {
+
+        SpendColumns columns = new SpendColumns();
+        columns.add(LocalDate.of(2024, 4, 7), 1L, 100);  // Sunday
+        columns.add(LocalDate.of(2024, 4, 8), 1L, 200);  // Monday
+
+
+        SpendSeries series = engine.aggregate(columns, LocalDate.of(2024, 4, 3), LocalDate.of(2024, 4, 9),
+                BucketSize.WEEK, false);
+
+
+        assertEquals(List.of(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 8)), series.bucketStarts());
+        assertArrayEquals(new long[]{100, 200}, series.totalCents());
+    }
+
+    @Test
+    void testSplitByCategory() {
+
+        SpendColumns columns = new SpendColumns();
+        columns.add(LocalDate.of(2024, 1, 1), 7L, 500);
+        columns.add(LocalDate.of(2024, 1, 2), 3L, 40);
+        columns.add(LocalDate.of(2024, 1, 2), 7L, 60);
+
+
+        SpendSeries series = engine.aggregate(columns, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2),
+                BucketSize.DAY, true);
+
+
+        assertArrayEquals(new long[]{3L, 7L}, series.categoryIds());
+        assertArrayEquals(new long[]{0, 40}, series.categoryCents()[0]);
+        assertArrayEquals(new long[]{500, 60}, series.categoryCents()[1]);
+        assertArrayEquals(new long[]{500, 100}, series.totalCents());
+    }
+
+    @Test
+    void testRowsOutsideTheRangeAreIgnored() {
+
+        SpendColumns columns = new SpendColumns();
+        columns.add(LocalDate.of(2023, 12, 31), 1L, 100);
+        columns.add(LocalDate.of(2024, 1, 1), 1L, 200);
+
+
+        SpendSeries series = engine.aggregate(columns, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1),
+                BucketSize.DAY, false);
+
+
+        assertArrayEquals(new long[]{200}, series.totalCents());
+    }
+
+    @Test
+    void testParallelAggregationMatchesSequential() {
+
+        Random random = new Random(42);
+        LocalDate from = LocalDate.of(2015, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        SpendColumns columns = new SpendColumns();
+        for (int i = 0; i < 200_000; i++) {
+            columns.add(from.plusDays(random.nextInt(days)), 1 + random.nextInt(20), 1 + random.nextInt(50_000));
+        }
+        SpendingSeriesEngine parallel = new SpendingSeriesEngine(new AnalyticsProperties(4000, 1, false));
+
+
+        SpendSeries expected = engine.aggregate(columns, from, to, BucketSize.WEEK, true);
+        SpendSeries actual = parallel.aggregate(columns, from, to, BucketSize.WEEK, true);
+
+
+        assertArrayEquals(expected.totalCents(), actual.totalCents());
+        assertArrayEquals(expected.counts(), actual.counts());
+        assertArrayEquals(expected.categoryCents(), actual.categoryCents());
+        assertEquals(200_000, Arrays.stream(actual.counts()).sum());
+    }
+}
@@ -0,0 +1,291 @@
+package com.ishwor.expenses.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.ExpenseArchiveSegment;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseArchiveSegmentRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Archival end to end: expenses past the horizon leave the expenses table, and searches, exports and spending
+ * series read them back from their segments while monthly summaries keep answering from the rollup.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseArchiveTest {
+    // Two-year horizon: everything before 2022-06-01 is archived.
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("expenses.archive.horizon", () -> "2y");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExpenseArchiver archiver;
+
+    @Autowired
+    private ExpenseArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User testUser;
+    private Category books;
+    private final List<Long> expenseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        testUser = new User();
+        testUser.setName("John Doe");
+        testUser.setEmail("archive@example.com");
+        testUser.setPassword("password");
+        testUser = userRepository.save(testUser);
+
+        books = new Category();
+        books.setName("Books");
+        books = categoryRepository.save(books);
+
+        addExpense("12.50", "Used paperback", LocalDate.of(2020, 3, 10));
+        addExpense("30.00", "Atlas", LocalDate.of(2020, 3, 20));
+        addExpense("7.25", "Magazine", LocalDate.of(2021, 7, 1));
+        addExpense("19.99", "Novel", LocalDate.of(2024, 5, 5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        segmentRepository.deleteAllInBatch();
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testArchive_MovesExpiredExpensesIntoMonthlySegments() throws Exception {
+
+        int archived = archiver.archiveExpired(TODAY);
+
+
+        assertEquals(3, archived);
+        assertEquals(1, expenseRepository.count());
+        List<ExpenseArchiveSegment> segments = segmentRepository.findAll(Sort.by("fromDate"));
+        assertEquals(2, segments.size());
+        assertEquals(testUser.getId(), segments.getFirst().getUserId());
+        assertEquals(LocalDate.of(2020, 3, 10), segments.get(0).getFromDate());
+        assertEquals(LocalDate.of(2020, 3, 20), segments.get(0).getToDate());
+        assertEquals(2, segments.get(0).getRowCount());
+        assertEquals(2, ExpenseSegmentCodec.read(new ByteArrayInputStream(segments.get(0).getData())).size());
+        assertEquals(LocalDate.of(2021, 7, 1), segments.get(1).getFromDate());
+        assertEquals(LocalDate.of(2021, 7, 1), segments.get(1).getToDate());
+        assertEquals(1, segments.get(1).getRowCount());
+        assertEquals(0, archiver.archiveExpired(TODAY));
+    }
+
+    @Test
+    void testArchivedExpenses_NotFoundByIdAndLeaveTheLivePages() throws Exception {
+
+        archiver.archiveExpired(TODAY);
+
+
+        mockMvc.perform(get("/api/expenses/" + expenseIds.getFirst()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/expenses/" + expenseIds.getFirst()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(expenseIds.get(3)));
+        mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/search").param("q", "paperback"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testSearch_PagesFromTheTableIntoTheArchive() throws Exception {
+        archiver.archiveExpired(TODAY);
+
+
+        String first = mockMvc.perform(get("/api/expenses/search")
+                        .param("userId", testUser.getId().toString())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(expenseIds.get(3)))
+                .andExpect(jsonPath("$.items[1].id").value(expenseIds.get(2)))
+                .andExpect(jsonPath("$.items[1].categoryName").value("Books"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/expenses/search")
+                        .param("userId", testUser.getId().toString())
+                        .param("size", "2")
+                        .param("cursor", objectMapper.readTree(first).get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(expenseIds.get(1)))
+                .andExpect(jsonPath("$.items[1].id").value(expenseIds.get(0)))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testSearch_AppliesItsFiltersToArchivedExpenses() throws Exception {
+        archiver.archiveExpired(TODAY);
+
+
+        mockMvc.perform(get("/api/expenses/search")
+                        .param("userId", testUser.getId().toString())
+                        .param("from", "2020-01-01")
+                        .param("to", "2021-12-31")
+                        .param("minAmount", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(expenseIds.get(1)))
+                .andExpect(jsonPath("$.items[1].id").value(expenseIds.get(0)));
+    }
+
+    @Test
+    void testSummaryOfArchivedMonthStillAnswersFromTheRollup() throws Exception {
+
+        archiver.archiveExpired(TODAY);
+
+
+        mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/summary").param("month", "2020-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(42.5))
+                .andExpect(jsonPath("$.expenseCount").value(2));
+    }
+
+    @Test
+    void testExport_MergesArchivedRowsInDateOrder() throws Exception {
+        archiver.archiveExpired(TODAY);
+
+
+        String csv = mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+
+        String[] lines = csv.split("\n");
+        assertEquals(5, lines.length);
+        assertEquals(expenseIds.get(0) + ",2020-03-10,12.50,Used paperback," + books.getId() + ",Books,"
+                + testUser.getId() + ",John Doe,", lines[1].substring(0, lines[1].lastIndexOf(',') + 1));
+        assertTrue(lines[2].startsWith(expenseIds.get(1) + ",2020-03-20,30.00,Atlas,"));
+        assertTrue(lines[3].startsWith(expenseIds.get(2) + ",2021-07-01,7.25,Magazine,"));
+        assertTrue(lines[4].startsWith(expenseIds.get(3) + ",2024-05-05,19.99,Novel,"));
+    }
+
+    @Test
+    void testExport_BackdatedExpenseArchivedLaterMergesIntoItsMonth() throws Exception {
+        archiver.archiveExpired(TODAY);
+        addExpense("4.00", "Bookmark", LocalDate.of(2020, 3, 15));
+        archiver.archiveExpired(TODAY);
+
+
+        String csv = mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/export")
+                        .param("to", "2020-12-31"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+
+        assertEquals(3, segmentRepository.count());
+        String[] lines = csv.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[1].startsWith(expenseIds.get(0) + ",2020-03-10,"));
+        assertTrue(lines[2].startsWith(expenseIds.get(4) + ",2020-03-15,"));
+        assertTrue(lines[3].startsWith(expenseIds.get(1) + ",2020-03-20,"));
+    }
+
+    @Test
+    void testExport_RecentRangeSkipsTheArchive() throws Exception {
+        archiver.archiveExpired(TODAY);
+        jdbcTemplate.update("UPDATE expense_archive_segments SET data = ?", (Object) new byte[]{1, 2, 3});
+
+
+        // The segment no longer decodes, so any attempt to read it would fail the request.
+        String ndjson = mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/export")
+                        .param("format", "ndjson")
+                        .param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(1, lines.length);
+        assertEquals(expenseIds.get(3), objectMapper.readTree(lines[0]).get("id").asLong());
+    }
+
+    @Test
+    void testSeries_IncludesArchivedExpensesInRange() throws Exception {
+
+        archiver.archiveExpired(TODAY);
+
+
+        mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/series")
+                        .param("from", "2020-01-01")
+                        .param("to", "2021-12-31")
+                        .param("bucket", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals[2]").value(42.5))
+                .andExpect(jsonPath("$.counts[2]").value(2))
+                .andExpect(jsonPath("$.totals[18]").value(7.25));
+    }
+
+    private void addExpense(String amount, String description, LocalDate date) throws Exception {
+        ExpenseRequest request = new ExpenseRequest(new BigDecimal(amount), description, books.getId(),
+                testUser.getId(), date);
+        String body = mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        expenseIds.add(objectMapper.readTree(body).get("id").asLong());
+    }
+}
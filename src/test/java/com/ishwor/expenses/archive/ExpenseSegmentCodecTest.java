@@ -0,0 +1,75 @@
+package com.ishwor.expenses.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseSegmentCodecTest {
+
+    @Test
+    void testRoundTrip_KeepsEveryColumn() throws IOException {
+        List<ArchivedExpense> rows = List.of(
+                new ArchivedExpense(500L, 1250L, "Groceries", 3L, LocalDate.of(2020, 1, 5),
+                        Instant.parse("2020-01-05T10:15:30.123456Z")),
+                new ArchivedExpense(12L, 0L, null, 1L, LocalDate.of(2020, 1, 5),
+                        Instant.parse("2019-12-31T23:59:59Z")),
+                new ArchivedExpense(Long.MAX_VALUE, 99_999_999L, "Café ☕, \"quoted\"\nnext line", 1_000_000_000L,
+                        LocalDate.of(2021, 12, 31), Instant.parse("2022-01-01T00:00:00.000001Z")),
+                new ArchivedExpense(13L, 1L, "", 3L, LocalDate.of(2022, 2, 1), Instant.EPOCH));
+
+
+        List<ArchivedExpense> read = roundTrip(rows);
+
+
+        assertEquals(rows, read);
+    }
+
+    @Test
+    void testRoundTrip_EmptySegment() throws IOException {
+        assertEquals(List.of(), roundTrip(List.of()));
+    }
+
+    @Test
+    void testEncoding_IsCompactForDateOrderedRows() throws IOException {
+        List<ArchivedExpense> rows = new ArrayList<>();
+        Instant createdAt = Instant.parse("2020-01-01T08:00:00Z");
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new ArchivedExpense(1000L + i, 500L + (i % 97) * 13, "Coffee " + (i % 20), 1L + i % 8,
+                    LocalDate.of(2020, 1, 1).plusDays(i / 10), createdAt.plusSeconds(i * 600L)));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+
+        ExpenseSegmentCodec.write(rows, output);
+
+
+        assertTrue(output.size() < 10_000 * 4, "segment took " + output.size() + " bytes");
+        assertEquals(rows, ExpenseSegmentCodec.read(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @Test
+    void testRead_RejectsOtherFiles() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write("id,amount\n".getBytes());
+        }
+
+
+        assertThrows(IOException.class, () -> ExpenseSegmentCodec.read(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    private static List<ArchivedExpense> roundTrip(List<ArchivedExpense> rows) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExpenseSegmentCodec.write(rows, output);
+        return ExpenseSegmentCodec.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+}
@@ -5,6 +5,7 @@ import com.ishwor.expenses.dto.request.CategoryRequest;
 import com.ishwor.expenses.dto.response.CategoryResponse;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
 import com.ishwor.expenses.service.CategoryService;
+import com.ishwor.expenses.versioning.ChangeVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +36,9 @@ class CategoryControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
     private CategoryResponse categoryResponse;
     private CategoryRequest categoryRequest;
 
@@ -73,6 +77,17 @@ class CategoryControllerTest {
         verify(categoryService, times(1)).getAllCategories();
     }
 
+    @Test
+    void testGetAllCategories_NotModified() throws Exception {
+        String etag = changeVersions.categoriesETag();
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        verify(categoryService, never()).getAllCategories();
+    }
+
     @Test
     void testGetCategoryById() throws Exception {
         when(categoryService.getCategoryById(1L)).thenReturn(categoryResponse);
@@ -1,10 +1,28 @@
 package com.ishwor.expenses.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ishwor.expenses.analytics.BucketSize;
 import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.CategorySpendResponse;
+import com.ishwor.expenses.dto.response.ExpenseBatchError;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseImportResponse;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
 import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.ExpenseSummaryResponse;
+import com.ishwor.expenses.dto.response.SpendingSeriesResponse;
+import com.ishwor.expenses.exception.BadRequestException;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.exporter.ExportFormat;
+import com.ishwor.expenses.importer.ImportFormat;
+import com.ishwor.expenses.repository.search.ExpenseSearchCriteria;
+import com.ishwor.expenses.service.ExpenseAnalyticsService;
+import com.ishwor.expenses.service.ExpenseBatchService;
+import com.ishwor.expenses.service.ExpenseExportService;
+import com.ishwor.expenses.service.ExpenseImportService;
 import com.ishwor.expenses.service.ExpenseService;
+import com.ishwor.expenses.service.ExpenseSummaryService;
+import com.ishwor.expenses.versioning.ChangeVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +33,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,9 +55,27 @@ class ExpenseControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
     @MockitoBean
     private ExpenseService expenseService;
 
+    @MockitoBean
+    private ExpenseBatchService expenseBatchService;
+
+    @MockitoBean
+    private ExpenseImportService expenseImportService;
+
+    @MockitoBean
+    private ExpenseExportService expenseExportService;
+
+    @MockitoBean
+    private ExpenseSummaryService expenseSummaryService;
+
+    @MockitoBean
+    private ExpenseAnalyticsService expenseAnalyticsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -80,6 +121,97 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).addExpense(any(ExpenseRequest.class));
     }
 
+    @Test
+    void testAddExpense_RetryWithIdempotencyKeyReplaysResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        when(expenseService.addExpense(any(ExpenseRequest.class))).thenReturn(expenseResponse);
+
+        mockMvc.perform(post("/api/expenses")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expenseRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+        mockMvc.perform(post("/api/expenses")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expenseRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(expenseService, times(1)).addExpense(any(ExpenseRequest.class));
+    }
+
+    @Test
+    void testAddExpense_IdempotencyKeyReusedWithDifferentBody() throws Exception {
+        String key = UUID.randomUUID().toString();
+        when(expenseService.addExpense(any(ExpenseRequest.class))).thenReturn(expenseResponse);
+        ExpenseRequest otherRequest = new ExpenseRequest(BigDecimal.valueOf(5), "Coffee", 1L, 1L, null);
+
+        mockMvc.perform(post("/api/expenses")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expenseRequest)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/expenses")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, times(1)).addExpense(any(ExpenseRequest.class));
+    }
+
+    @Test
+    void testAddExpensesBatch() throws Exception {
+        ExpenseBatchResponse batchResponse = new ExpenseBatchResponse(2, 1, 1, List.of(expenseResponse),
+                List.of(new ExpenseBatchError(1, List.of("Category not found"))));
+        when(expenseBatchService.addExpenses(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/expenses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(expenseRequest, expenseRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.expenses[0].id").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("Category not found"));
+
+        verify(expenseBatchService, times(1)).addExpenses(anyList());
+    }
+
+    @Test
+    void testImportCsv() throws Exception {
+        when(expenseImportService.importExpenses(any(), eq(ImportFormat.CSV)))
+                .thenReturn(new ExpenseImportResponse(2, 2, 0, 5, 400.0, List.of()));
+
+        mockMvc.perform(post("/api/expenses/import")
+                        .contentType("text/csv")
+                        .content("amount,description,categoryId,userId\n1,A,1,1\n2,B,1,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(2))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        verify(expenseImportService, times(1)).importExpenses(any(), eq(ImportFormat.CSV));
+    }
+
+    @Test
+    void testImportNdjson() throws Exception {
+        when(expenseImportService.importExpenses(any(), eq(ImportFormat.NDJSON)))
+                .thenReturn(new ExpenseImportResponse(1, 1, 0, 1, 1000.0, List.of()));
+
+        mockMvc.perform(post("/api/expenses/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"amount\":1,\"description\":\"A\",\"categoryId\":1,\"userId\":1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        verify(expenseImportService, times(1)).importExpenses(any(), eq(ImportFormat.NDJSON));
+    }
+
     @Test
     void testGetAllExpenses() throws Exception {
         when(expenseService.getAllExpenses()).thenReturn(List.of(expenseResponse));
@@ -94,6 +226,18 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).getAllExpenses();
     }
 
+    @Test
+    void testSearchDescriptions() throws Exception {
+        when(expenseService.searchDescriptions(1L, "groc", 10)).thenReturn(List.of(expenseResponse));
+
+        mockMvc.perform(get("/api/expenses/user/1/search").param("q", "groc").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].description").value("Monthly groceries"));
+
+        verify(expenseService, times(1)).searchDescriptions(1L, "groc", 10);
+    }
+
     @Test
     void testGetExpenseById() throws Exception {
         when(expenseService.getExpenseById(1L)).thenReturn(expenseResponse);
@@ -121,6 +265,171 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).getExpensesByUser(1L);
     }
 
+    @Test
+    void testGetExpensesByUser_NotModified() throws Exception {
+        String etag = changeVersions.userExpensesETag(1L);
+
+        mockMvc.perform(get("/api/expenses/user/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(expenseService, never()).getExpensesByUser(any());
+    }
+
+    @Test
+    void testGetExpensesByUser_StaleETagAfterChange() throws Exception {
+        String staleEtag = changeVersions.userExpensesETag(1L);
+        changeVersions.expensesChanged(1L);
+        when(expenseService.getExpensesByUser(1L)).thenReturn(List.of(expenseResponse));
+
+        mockMvc.perform(get("/api/expenses/user/1").header("If-None-Match", staleEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", changeVersions.userExpensesETag(1L)))
+                .andExpect(jsonPath("$.size()").value(1));
+
+        verify(expenseService, times(1)).getExpensesByUser(1L);
+    }
+
+    @Test
+    void testGetAllExpenses_NotModified() throws Exception {
+        mockMvc.perform(get("/api/expenses").header("If-None-Match", changeVersions.allExpensesETag()))
+                .andExpect(status().isNotModified());
+
+        verify(expenseService, never()).getAllExpenses();
+    }
+
+    @Test
+    void testGetExpensesPageByUser() throws Exception {
+        when(expenseService.getExpensesPageByUser(1L, "abc", 20, "asc"))
+                .thenReturn(new ExpensePageResponse(List.of(expenseResponse), "next", true));
+
+        mockMvc.perform(get("/api/expenses/user/1/page")
+                        .param("cursor", "abc")
+                        .param("size", "20")
+                        .param("sort", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(expenseService, times(1)).getExpensesPageByUser(1L, "abc", 20, "asc");
+    }
+
+    @Test
+    void testSearchExpenses() throws Exception {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                Set.of(1L, 2L), BigDecimal.valueOf(10), BigDecimal.valueOf(250.5));
+        when(expenseService.searchExpenses(criteria, null, 20))
+                .thenReturn(new ExpensePageResponse(List.of(expenseResponse), null, false));
+
+        mockMvc.perform(get("/api/expenses/search")
+                        .param("userId", "1")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31")
+                        .param("categoryId", "1", "2")
+                        .param("minAmount", "10")
+                        .param("maxAmount", "250.5")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        verify(expenseService, times(1)).searchExpenses(criteria, null, 20);
+    }
+
+    @Test
+    void testSearchExpenses_UserIdRequired() throws Exception {
+        mockMvc.perform(get("/api/expenses/search"))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, never()).searchExpenses(any(), any(), any());
+    }
+
+    @Test
+    void testGetExpensesPage_InvalidCursor() throws Exception {
+        when(expenseService.getExpensesPage("bogus", null, null))
+                .thenThrow(new BadRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/expenses/page").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, times(1)).getExpensesPage("bogus", null, null);
+    }
+
+    @Test
+    void testExportExpensesByUser() throws Exception {
+        when(expenseExportService.exportExpensesByUser(1L, ExportFormat.CSV, null, null))
+                .thenReturn(output -> output.write("id,expenseDate\n1,2024-01-05\n".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(get("/api/expenses/user/1/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"expenses-user-1.csv\""))
+                .andExpect(content().string("id,expenseDate\n1,2024-01-05\n"));
+
+        verify(expenseExportService, times(1)).exportExpensesByUser(1L, ExportFormat.CSV, null, null);
+    }
+
+    @Test
+    void testExportExpensesByUser_UserNotFound() throws Exception {
+        when(expenseExportService.exportExpensesByUser(999L, ExportFormat.NDJSON, null, null))
+                .thenThrow(new ResourceNotFoundException("User not found"));
+
+        mockMvc.perform(get("/api/expenses/user/999/export").param("format", "ndjson"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetMonthlySummary() throws Exception {
+        ExpenseSummaryResponse summary = new ExpenseSummaryResponse(1L, YearMonth.of(2024, 3), new BigDecimal("62.50"), 3,
+                List.of(new CategorySpendResponse(1L, "Groceries", new BigDecimal("62.50"), 3)));
+        when(expenseSummaryService.getMonthlySummary(1L, YearMonth.of(2024, 3))).thenReturn(summary);
+
+        mockMvc.perform(get("/api/expenses/user/1/summary").param("month", "2024-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2024-03"))
+                .andExpect(jsonPath("$.totalAmount").value(62.5))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Groceries"));
+    }
+
+    @Test
+    void testGetMonthlySummary_DefaultsToCurrentMonth() throws Exception {
+        when(expenseSummaryService.getMonthlySummary(eq(1L), any(YearMonth.class)))
+                .thenReturn(new ExpenseSummaryResponse(1L, YearMonth.now(), BigDecimal.ZERO, 0, List.of()));
+
+        mockMvc.perform(get("/api/expenses/user/1/summary"))
+                .andExpect(status().isOk());
+
+        verify(expenseSummaryService, times(1)).getMonthlySummary(1L, YearMonth.now());
+    }
+
+    @Test
+    void testGetSpendingSeries() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 14);
+        SpendingSeriesResponse series = new SpendingSeriesResponse(1L, from, to, "week",
+                List.of(from, LocalDate.of(2024, 1, 8)), List.of(new BigDecimal("12.50"), BigDecimal.ZERO.setScale(2)),
+                List.of(2L, 0L), List.of());
+        when(expenseAnalyticsService.getSpendingSeries(1L, from, to, BucketSize.WEEK, false)).thenReturn(series);
+
+        mockMvc.perform(get("/api/expenses/user/1/series")
+                        .param("from", "2024-01-01").param("to", "2024-01-14").param("bucket", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[1]").value("2024-01-08"))
+                .andExpect(jsonPath("$.totals[0]").value(12.5))
+                .andExpect(jsonPath("$.counts[0]").value(2));
+    }
+
+    @Test
+    void testGetSpendingSeries_InvalidBucket() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/1/series").param("bucket", "hour"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(expenseAnalyticsService);
+    }
+
     @Test
     void testUpdateExpense() throws Exception {
         when(expenseService.updateExpense(eq(1L), any(ExpenseRequest.class))).thenReturn(expenseResponse);
@@ -136,6 +445,23 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).updateExpense(eq(1L), any(ExpenseRequest.class));
     }
 
+    @Test
+    void testUpdateExpense_RetryWithIdempotencyKeyReplaysResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        when(expenseService.updateExpense(eq(1L), any(ExpenseRequest.class))).thenReturn(expenseResponse);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(put("/api/expenses/1")
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(expenseRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+
+        verify(expenseService, times(1)).updateExpense(eq(1L), any(ExpenseRequest.class));
+    }
+
     @Test
     void testDeleteExpense() throws Exception {
         doNothing().when(expenseService).deleteExpense(1L);
@@ -0,0 +1,124 @@
+package com.ishwor.expenses.controller;
+
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Description search with the in-memory index off (the default), so every query reads the database.
+ */
+@SpringBootTest(properties = "expenses.search.text-index=false")
+@AutoConfigureMockMvc
+class ExpenseDescriptionSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User testUser;
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("John Doe");
+        testUser.setEmail("description-search@example.com");
+        testUser.setPassword("password");
+        testUser = userRepository.save(testUser);
+
+        testCategory = new Category();
+        testCategory.setName("Transport");
+        testCategory = categoryRepository.save(testCategory);
+
+        saveExpense("Uber to the airport", LocalDate.of(2023, 5, 1));
+        saveExpense("Tuber farm visit", LocalDate.of(2023, 5, 2));
+        saveExpense("UBER eats", LocalDate.of(2023, 5, 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixesIgnoringCase() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/{userId}/search", testUser.getId()).param("q", "ub"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description").value("UBER eats"))
+                .andExpect(jsonPath("$[1].description").value("Uber to the airport"));
+    }
+
+    @Test
+    void testSearchRequiresEveryTermAndSeesNewExpenses() throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":30,\"description\":\"Uber back from the airport\",\"categoryId\":"
+                                + testCategory.getId() + ",\"userId\":" + testUser.getId() + "}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/user/{userId}/search", testUser.getId()).param("q", "uber air"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description").value("Uber back from the airport"))
+                .andExpect(jsonPath("$[1].description").value("Uber to the airport"));
+    }
+
+    @Test
+    void testSearchReadsPastSubstringOnlyRowsToFillTheLimit() throws Exception {
+        saveExpense("Tuber market", LocalDate.of(2023, 5, 4));
+
+        // The newest row containing "ub" is "Tuber market", so the first page of two keeps only one match.
+        mockMvc.perform(get("/api/expenses/user/{userId}/search", testUser.getId())
+                        .param("q", "ub").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description").value("UBER eats"))
+                .andExpect(jsonPath("$[1].description").value("Uber to the airport"));
+    }
+
+    private void saveExpense(String description, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setAmount(BigDecimal.TEN);
+        expense.setDescription(description);
+        expense.setUser(testUser);
+        expense.setCategory(testCategory);
+        expense.setExpenseDate(date);
+        expenseRepository.save(expense);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ishwor.expenses.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asynchronous ingestion end to end in the default commit-acknowledged mode.
+ */
+@SpringBootTest(properties = "expenses.write-behind.enabled=true")
+@AutoConfigureMockMvc
+class ExpenseIngestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User testUser;
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("John Doe");
+        testUser.setEmail("ingest@example.com");
+        testUser.setPassword("password");
+        testUser = userRepository.save(testUser);
+
+        testCategory = new Category();
+        testCategory.setName("Groceries");
+        testCategory = categoryRepository.save(testCategory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testAcceptedExpenseIsCommittedBeforeTheResponse() throws Exception {
+        String body = mockMvc.perform(post("/api/expenses/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(expenseJson(testUser.getId())))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode accepted = objectMapper.readTree(body);
+        assertTrue(accepted.hasNonNull("acceptedId"));
+        assertEquals("Weekly shop",
+                expenseRepository.findById(accepted.get("expenseId").asLong()).orElseThrow().getDescription());
+    }
+
+    @Test
+    void testUnknownUserIsReportedToTheCaller() throws Exception {
+        mockMvc.perform(post("/api/expenses/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(expenseJson(999_999L)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testInvalidRequestIsRejectedBeforeQueueing() throws Exception {
+        mockMvc.perform(post("/api/expenses/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":0,\"description\":\"\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String expenseJson(Long userId) {
+        return "{\"amount\":42.50,\"description\":\"Weekly shop\",\"categoryId\":" + testCategory.getId()
+                + ",\"userId\":" + userId + ",\"expenseDate\":\"2024-05-02\"}";
+    }
+}
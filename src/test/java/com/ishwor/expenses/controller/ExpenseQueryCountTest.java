@@ -0,0 +1,214 @@
+package com.ishwor.expenses.controller;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.service.ExpenseService;
+import com.ishwor.expenses.support.QueryBudget;
+import com.ishwor.expenses.support.QueryCount;
+import com.ishwor.expenses.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for the expense read and write paths against a real database. Rows are spread over
+ * several users and categories so a per-row association load would exceed the budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseQueryCountTest {
+
+    private static final int EXPENSES_PER_USER = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRollupWriter rollupWriter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User testUser;
+    private List<Category> categories;
+    private Expense testExpense;
+
+    @BeforeEach
+    void setUp() {
+        categories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            categories.add(categoryRepository.save(category));
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("query-count-" + i + "@example.com");
+            user.setPassword("password");
+            users.add(userRepository.save(user));
+        }
+        testUser = users.get(0);
+
+        List<Expense> expenses = new ArrayList<>();
+        for (User user : users) {
+            for (int i = 0; i < EXPENSES_PER_USER; i++) {
+                Expense expense = new Expense();
+                expense.setAmount(BigDecimal.valueOf(10 + i));
+                expense.setDescription("Expense " + i);
+                expense.setUser(user);
+                expense.setCategory(categories.get(i % categories.size()));
+                expense.setExpenseDate(LocalDate.of(2024, 1, 1).plusDays(i));
+                expenses.add(expense);
+            }
+        }
+        testExpense = expenseRepository.saveAll(expenses).get(0);
+        rollupWriter.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    // The list, and where expenses is partitioned the rollup read that bounds it to the months it needs.
+    @Test
+    @QueryBudget(statements = 2, entitiesLoaded = 0, collectionsFetched = 0)
+    void testGetAllExpenses() throws Exception {
+        mockMvc.perform(get("/api/expenses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2 * EXPENSES_PER_USER)));
+    }
+
+    // The user check, the list, and on a partitioned table the rollup read.
+    @Test
+    @QueryBudget(statements = 3, entitiesLoaded = 0, collectionsFetched = 0)
+    void testGetExpensesByUser() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/{userId}", testUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(EXPENSES_PER_USER)));
+    }
+
+    // The page, and on a partitioned table the rollup read.
+    @Test
+    @QueryBudget(statements = 2, entitiesLoaded = 0, collectionsFetched = 0)
+    void testGetExpensesPage() throws Exception {
+        mockMvc.perform(get("/api/expenses/page").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(4)));
+    }
+
+    // The user check, the page, and on a partitioned table the rollup read.
+    @Test
+    @QueryBudget(statements = 3, entitiesLoaded = 0, collectionsFetched = 0)
+    void testGetExpensesPageByUser() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/{userId}/page", testUser.getId()).param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(4)));
+    }
+
+    // The user check, the page, and the archive catalog probe.
+    @Test
+    @QueryBudget(statements = 3, entitiesLoaded = 0, collectionsFetched = 0)
+    void testSearchExpenses() throws Exception {
+        mockMvc.perform(get("/api/expenses/search")
+                        .param("userId", testUser.getId().toString())
+                        .param("categoryId", categories.get(0).getId().toString(), categories.get(1).getId().toString())
+                        .param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(4)));
+    }
+
+    @Test
+    @QueryBudget(statements = 1, entitiesLoaded = 0, collectionsFetched = 0)
+    void testGetExpenseById() throws Exception {
+        mockMvc.perform(get("/api/expenses/{id}", testExpense.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(statements = 2, entitiesLoaded = 0, collectionsFetched = 0)
+    void testGetMonthlySummary() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/{userId}/summary", testUser.getId()).param("month", "2024-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expenseCount").value(EXPENSES_PER_USER))
+                .andExpect(jsonPath("$.categories", hasSize(categories.size())));
+    }
+
+    @Test
+    void testCursorPagesCostTheSameAsTheFirstPage() throws Exception {
+        QueryCounter counter = new QueryCounter(entityManagerFactory);
+        String path = "/api/expenses/user/" + testUser.getId() + "/page";
+
+
+        QueryCount firstPage = counter.count(() -> mockMvc.perform(get(path).param("size", "2")));
+        String cursor = expenseService.getExpensesPageByUser(testUser.getId(), null, 2, null).nextCursor();
+        QueryCount nextPage = counter.count(() -> mockMvc.perform(get(path).param("size", "2").param("cursor", cursor)));
+
+
+        assertEquals(firstPage, nextPage);
+    }
+
+    @Test
+    @QueryBudget(statements = 5, entitiesLoaded = 2, collectionsFetched = 0)
+    void testAddExpense_ColdCaches() {
+        // A month that already has a rollup row, so the rollup costs a single update.
+        expenseService.addExpense(new ExpenseRequest(BigDecimal.valueOf(42), "Books",
+                categories.get(0).getId(), testUser.getId(), LocalDate.of(2024, 1, 20)));
+    }
+
+    @Test
+    @QueryBudget(statements = 5, entitiesLoaded = 4, collectionsFetched = 0)
+    void testUpdateExpense() {
+        expenseService.updateExpense(testExpense.getId(), new ExpenseRequest(BigDecimal.valueOf(99), "Updated",
+                categories.get(1).getId(), testUser.getId(), null));
+    }
+}
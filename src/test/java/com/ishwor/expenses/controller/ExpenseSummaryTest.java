@@ -0,0 +1,230 @@
+package com.ishwor.expenses.controller;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.ExpenseMonthlyTotal;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.service.ExpenseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Monthly summaries end to end: the rollup kept by add, update and delete must always match a rebuild
+ * from the expenses table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseSummaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseRollupWriter rollupWriter;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User testUser;
+    private Category groceries;
+    private Category transport;
+    private Expense existing;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("John Doe");
+        testUser.setEmail("summary@example.com");
+        testUser.setPassword("password");
+        testUser = userRepository.save(testUser);
+
+        groceries = new Category();
+        groceries.setName("Groceries");
+        groceries = categoryRepository.save(groceries);
+        transport = new Category();
+        transport.setName("Transport");
+        transport = categoryRepository.save(transport);
+
+        existing = new Expense();
+        existing.setAmount(new BigDecimal("40.00"));
+        existing.setDescription("Weekly shop");
+        existing.setUser(testUser);
+        existing.setCategory(groceries);
+        existing.setExpenseDate(LocalDate.of(2024, 3, 4));
+        existing = expenseRepository.save(existing);
+
+        rollupWriter.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSummaryFollowsAddUpdateAndDelete() throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(expenseJson("12.50", transport, "2024-03-20")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/user/{userId}/summary", testUser.getId()).param("month", "2024-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2024-03"))
+                .andExpect(jsonPath("$.totalAmount").value(52.5))
+                .andExpect(jsonPath("$.expenseCount").value(2))
+                .andExpect(jsonPath("$.categories", hasSize(2)))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Groceries"))
+                .andExpect(jsonPath("$.categories[1].categoryName").value("Transport"));
+
+        mockMvc.perform(put("/api/expenses/{id}", existing.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(expenseJson("30.00", transport, null)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/user/{userId}/summary", testUser.getId()).param("month", "2024-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(42.5))
+                .andExpect(jsonPath("$.categories", hasSize(1)))
+                .andExpect(jsonPath("$.categories[0].categoryName").value("Transport"))
+                .andExpect(jsonPath("$.categories[0].expenseCount").value(2));
+        assertRollupMatchesRebuild();
+
+        mockMvc.perform(delete("/api/expenses/{id}", existing.getId())).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/expenses/user/{userId}/summary", testUser.getId()).param("month", "2024-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(12.5))
+                .andExpect(jsonPath("$.expenseCount").value(1));
+        assertRollupMatchesRebuild();
+    }
+
+    @Test
+    void testSummaryForEmptyMonth() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/{userId}/summary", testUser.getId()).param("month", "2023-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(0))
+                .andExpect(jsonPath("$.expenseCount").value(0))
+                .andExpect(jsonPath("$.categories", hasSize(0)));
+    }
+
+    @Test
+    void testSummaryUserNotFound() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/{userId}/summary", 999_999L).param("month", "2024-03"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testConcurrentFirstWritesToAMonthAllCount() throws Exception {
+        int writers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> added = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            added.add(pool.submit(() -> {
+                start.await();
+                return expenseService.addExpense(new ExpenseRequest(new BigDecimal("2.50"), "Bus", transport.getId(),
+                        testUser.getId(), LocalDate.of(2024, 7, 1)));
+            }));
+        }
+
+
+        start.countDown();
+        for (Future<?> future : added) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+
+        mockMvc.perform(get("/api/expenses/user/" + testUser.getId() + "/summary").param("month", "2024-07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(20.0))
+                .andExpect(jsonPath("$.expenseCount").value(writers));
+        assertRollupMatchesRebuild();
+    }
+
+    @Test
+    void testRebuildIfEmpty_LeavesAFilledRollupAlone() {
+
+        boolean rebuiltFilled = rollupWriter.rebuildIfEmpty();
+        monthlyTotalRepository.deleteAllInBatch();
+        boolean rebuiltEmpty = rollupWriter.rebuildIfEmpty();
+
+
+        assertFalse(rebuiltFilled);
+        assertTrue(rebuiltEmpty);
+        assertEquals(1, monthlyTotalRepository.count());
+    }
+
+    private String expenseJson(String amount, Category category, String date) {
+        return "{\"amount\":" + amount + ",\"description\":\"Expense\",\"categoryId\":" + category.getId()
+                + ",\"userId\":" + testUser.getId() + (date != null ? ",\"expenseDate\":\"" + date + "\"" : "") + "}";
+    }
+
+    private void assertRollupMatchesRebuild() {
+        List<String> incremental = snapshot();
+        rollupWriter.rebuild();
+        assertEquals(snapshot(), incremental);
+    }
+
+    // Rows left at zero by deletes are equivalent to missing ones.
+    private List<String> snapshot() {
+        return monthlyTotalRepository.findAll().stream()
+                .filter(total -> total.getExpenseCount() > 0)
+                .sorted(Comparator.comparing((ExpenseMonthlyTotal total) -> total.getId().getCategoryId())
+                        .thenComparing(total -> total.getId().getMonthStart()))
+                .map(total -> total.getId().getUserId() + "/" + total.getId().getCategoryId() + "/"
+                        + total.getId().getMonthStart() + "=" + total.getTotalAmount().stripTrailingZeros().toPlainString()
+                        + "x" + total.getExpenseCount())
+                .toList();
+    }
+}
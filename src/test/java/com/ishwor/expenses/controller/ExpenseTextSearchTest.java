@@ -0,0 +1,114 @@
+package com.ishwor.expenses.controller;
+
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.search.ExpenseTextIndexLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Description search end to end: rows already in the table at load time, plus the add and delete hooks.
+ */
+@SpringBootTest(properties = "expenses.search.text-index=true")
+@AutoConfigureMockMvc
+class ExpenseTextSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseTextIndexLoader textIndexLoader;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User testUser;
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("John Doe");
+        testUser.setEmail("text-search@example.com");
+        testUser.setPassword("password");
+        testUser = userRepository.save(testUser);
+
+        testCategory = new Category();
+        testCategory.setName("Transport");
+        testCategory = categoryRepository.save(testCategory);
+
+        Expense existing = new Expense();
+        existing.setAmount(BigDecimal.valueOf(18));
+        existing.setDescription("Uber to the airport");
+        existing.setUser(testUser);
+        existing.setCategory(testCategory);
+        existing.setExpenseDate(LocalDate.of(2023, 5, 1));
+        expenseRepository.save(existing);
+
+        textIndexLoader.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSearchFindsLoadedAndNewlyAddedExpenses() throws Exception {
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":12,\"description\":\"Uber eats\",\"categoryId\":" + testCategory.getId()
+                                + ",\"userId\":" + testUser.getId() + "}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/user/{userId}/search", testUser.getId()).param("q", "ub"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description").value("Uber eats"))
+                .andExpect(jsonPath("$[1].description").value("Uber to the airport"));
+    }
+
+    @Test
+    void testDeletedExpenseDisappearsFromSearch() throws Exception {
+        Long id = expenseRepository.findByUserId(testUser.getId()).get(0).getId();
+
+        mockMvc.perform(delete("/api/expenses/{id}", id)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/expenses/user/{userId}/search", testUser.getId()).param("q", "airport"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ishwor.expenses.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPrometheusScrape_ExposesEndpointServiceAndRepositoryTimers() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+
+
+        mockMvc.perform(get("/actuator/prometheus"))
+
+
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/api/categories\"")))
+                .andExpect(content().string(containsString(
+                        "expenses_service_seconds_bucket{class=\"com.ishwor.expenses.service.impl.CategoryServiceImpl\"")))
+                .andExpect(content().string(containsString("method=\"getAllCategories\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("repository=\"CategoryRepository\"")));
+    }
+}
@@ -0,0 +1,232 @@
+package com.ishwor.expenses.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ishwor.expenses.dto.request.CategoryRequest;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.request.UserRequest;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing against two in-memory databases standing in for a primary and a replica. Nothing replicates between
+ * them, which makes it visible which one served a read: the replica only has what a test puts there directly.
+ * The primary is pinned to H2 as well, whatever spring.datasource points at, so its schema can be copied.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "expenses.datasource.replicas[0].url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "expenses.datasource.replicas[0].username=sa",
+        "expenses.datasource.replicas[0].password="
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        // Outside a transaction, so this reads the primary's schema.
+        new JdbcTemplate(dataSource).queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.execute("DROP ALL OBJECTS");
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testReadsAreServedByTheReplica() throws Exception {
+        replica.update("INSERT INTO users (id, name, email, password, created_at) VALUES (9001, 'Replica Only', "
+                + "'replica@example.com', 'password', CURRENT_TIMESTAMP)");
+
+
+        mockMvc.perform(get("/api/expenses/user/9001/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()").value(0));
+    }
+
+    @Test
+    void testUserLookupIsServedByTheReplica() throws Exception {
+        replica.update("INSERT INTO users (id, name, email, password, created_at) VALUES (9002, 'Replica Only', "
+                + "'replica-lookup@example.com', 'password', CURRENT_TIMESTAMP)");
+
+
+        mockMvc.perform(get("/api/users/9002"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replica Only"));
+    }
+
+    @Test
+    void testUnrecordedWriteIsNotVisibleUntilReplicated() throws Exception {
+        User user = new User();
+        user.setName("Written Elsewhere");
+        user.setEmail("elsewhere@example.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+
+
+        // The replica has not "caught up", and nothing recorded the write, so the read is stale.
+        mockMvc.perform(get("/api/expenses/user/" + user.getId() + "/page"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testListWithETagIsServedByThePrimary() throws Exception {
+        User user = new User();
+        user.setName("Written Elsewhere");
+        user.setEmail("elsewhere-etag@example.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+
+
+        // Nothing recorded the write, but a list that hands out an ETag never reads a replica.
+        mockMvc.perform(get("/api/expenses/user/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.size()").value(0));
+    }
+
+    @Test
+    void testExpenseForUnreplicatedUserIsValidatedOnThePrimary() throws Exception {
+        User user = new User();
+        user.setName("Written Elsewhere");
+        user.setEmail("elsewhere-expense@example.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+        Category category = new Category();
+        category.setName("Groceries");
+        category = categoryRepository.save(category);
+        ExpenseRequest request = new ExpenseRequest(new BigDecimal("12.50"), "Bread", category.getId(), user.getId(),
+                LocalDate.of(2024, 1, 20));
+
+
+        // Nothing recorded the user's write and the replica lacks it, but the check on the write path ignores both.
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userName").value("Written Elsewhere"));
+    }
+
+    @Test
+    void testRegisteredUserReadsTheirOwnWrite() throws Exception {
+        Long userId = registerUser("own-write@example.com");
+
+
+        mockMvc.perform(get("/api/expenses/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(0));
+        mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("own-write@example.com"));
+        assertEquals(0, replica.queryForObject("SELECT count(*) FROM users", Integer.class));
+    }
+
+    @Test
+    void testNewExpenseIsListedForItsUser() throws Exception {
+        Long userId = registerUser("expenses@example.com");
+        Category category = new Category();
+        category.setName("Groceries");
+        category = categoryRepository.save(category);
+        ExpenseRequest request = new ExpenseRequest(new BigDecimal("12.50"), "Bread", category.getId(), userId,
+                LocalDate.of(2024, 1, 20));
+
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+
+        mockMvc.perform(get("/api/expenses/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].description").value("Bread"));
+    }
+
+    @Test
+    void testNewCategoryIsListedImmediately() throws Exception {
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequest("Travel", "Trains"))))
+                .andExpect(status().isOk());
+
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Travel"));
+    }
+
+    private Long registerUser(String email) throws Exception {
+        String body = mockMvc.perform(post("/api/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserRequest("Jane Doe", email, "password"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
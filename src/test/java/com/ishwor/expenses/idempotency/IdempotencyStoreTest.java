@@ -0,0 +1,186 @@
+package com.ishwor.expenses.idempotency;
+
+import com.ishwor.expenses.config.IdempotencyProperties;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(5),
+            Duration.ofSeconds(5)));
+
+    @Test
+    void testRetryReturnsStoredOutcome() {
+        AtomicInteger calls = new AtomicInteger();
+
+
+        IdempotentResult<Integer> first = store.execute("create", "key-1", "request", calls::incrementAndGet);
+        IdempotentResult<Integer> retry = store.execute("create", "key-1", "request", calls::incrementAndGet);
+
+
+        assertEquals(1, calls.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.value(), retry.value());
+    }
+
+    @Test
+    void testSameKeyForDifferentOperationsIsIndependent() {
+        AtomicInteger calls = new AtomicInteger();
+
+
+        store.execute("create", "key-1", "request", calls::incrementAndGet);
+        store.execute("update:1", "key-1", "request", calls::incrementAndGet);
+
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentRequestIsRejected() {
+        store.execute("create", "key-1", "request", () -> 1);
+
+
+        assertThrows(BadRequestException.class, () -> store.execute("create", "key-1", "other", () -> 2));
+    }
+
+    @Test
+    void testFailureIsNotStored() {
+        assertThrows(IllegalStateException.class, () -> store.execute("create", "key-1", "request", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+
+        IdempotentResult<Integer> retry = store.execute("create", "key-1", "request", () -> 7);
+
+
+        assertFalse(retry.replayed());
+        assertEquals(7, retry.value());
+    }
+
+    @Test
+    void testInvalidKeyIsRejected() {
+        assertThrows(BadRequestException.class, () -> store.execute("create", " ", "request", () -> 1));
+        assertThrows(BadRequestException.class, () -> store.execute("create", "k".repeat(256), "request", () -> 1));
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitForTheInFlightExecution() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotentResult<Integer>> first = executor.submit(() -> store.execute("create", "key-1", "request", () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotentResult<Integer>> second = executor.submit(() -> store.execute("create", "key-1", "request", calls::incrementAndGet));
+            Future<IdempotentResult<Integer>> third = executor.submit(() -> store.execute("create", "key-1", "request", calls::incrementAndGet));
+
+
+            release.countDown();
+
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).value());
+            assertEquals(1, second.get(5, TimeUnit.SECONDS).value());
+            assertEquals(1, third.get(5, TimeUnit.SECONDS).value());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testErrorReachesWaitersAndFreesTheKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotentResult<Integer>> first = executor.submit(() -> store.execute("create", "key-1", "request", () -> {
+                started.countDown();
+                await(release);
+                throw new StackOverflowError("runaway write");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> waiter = new AtomicReference<>();
+            Future<IdempotentResult<Integer>> duplicate = executor.submit(() -> {
+                waiter.set(Thread.currentThread());
+                return store.execute("create", "key-1", "request", () -> 2);
+            });
+            // Fail the first request only once the duplicate is parked on its future, not still on its way in.
+            awaitTimedWaiting(waiter);
+
+
+            release.countDown();
+
+
+            ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            ExecutionException duplicateError = assertThrows(ExecutionException.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, firstError.getCause());
+            assertInstanceOf(StackOverflowError.class, duplicateError.getCause());
+            assertEquals(3, store.execute("create", "key-1", "request", () -> 3).value());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDuplicateStopsWaitingAfterTheTimeout() throws Exception {
+        IdempotencyStore impatient = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(5),
+                Duration.ofMillis(50)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotentResult<Integer>> first = executor.submit(() -> impatient.execute("create", "key-1", "request", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+
+            assertThrows(ServiceUnavailableException.class, () -> impatient.execute("create", "key-1", "request", () -> 2));
+            release.countDown();
+
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).value());
+            assertTrue(impatient.execute("create", "key-1", "request", () -> 2).replayed());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitTimedWaiting(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "duplicate never started waiting");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ishwor.expenses.importer;
+
+import com.ishwor.expenses.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvExpenseRowReaderTest {
+
+    @Test
+    void testReadsRowsByHeaderName() throws IOException {
+        CsvExpenseRowReader reader = readerFor(
+                "userId,categoryId,amount,description,expenseDate\n" +
+                "1,2,12.50,Coffee,2024-01-05\n" +
+                "1,2,40,\"Dinner, with \"\"friends\"\"\",\n");
+
+        ExpenseRow first = reader.next();
+        ExpenseRow second = reader.next();
+
+        assertEquals(2, first.line());
+        assertEquals(new BigDecimal("12.50"), first.request().amount());
+        assertEquals(2L, first.request().categoryId());
+        assertEquals(LocalDate.of(2024, 1, 5), first.request().expenseDate());
+        assertEquals("Dinner, with \"friends\"", second.request().description());
+        assertNull(second.request().expenseDate());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testQuotedFieldSpanningLines() throws IOException {
+        CsvExpenseRowReader reader = readerFor("""
+                amount,description,categoryId,userId
+                5,"Line one
+                line two",1,1
+                6,Next,1,1
+                """);
+
+        ExpenseRow first = reader.next();
+        ExpenseRow second = reader.next();
+
+        assertEquals("Line one\nline two", first.request().description());
+        assertEquals(4, second.line());
+    }
+
+    @Test
+    void testCarriageReturnLineEndings() throws IOException {
+        CsvExpenseRowReader reader = readerFor("amount,description,categoryId,userId\r\n"
+                + "5,\"Line one\r\nline two\",1,1\r\n"
+                + "6,Next,1,1\r"
+                + "7,Last,1,1");
+
+        ExpenseRow first = reader.next();
+        ExpenseRow second = reader.next();
+        ExpenseRow third = reader.next();
+
+        assertEquals("Line one\nline two", first.request().description());
+        assertEquals("Next", second.request().description());
+        assertEquals(4, second.line());
+        assertEquals(new BigDecimal("7"), third.request().amount());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testUnterminatedQuoteIsRejectedAtTheRecordLimitAndReadingContinues() throws IOException {
+        CsvExpenseRowReader reader = readerFor("amount,description,categoryId,userId\n"
+                + "5,Coffee,1,1\n"
+                + "6,\"never closed,1,1\n"
+                + "7,Tea,1,1\n".repeat(100));
+
+        assertEquals("Coffee", reader.next().request().description());
+        ExpenseRow overlong = reader.next();
+        ExpenseRow resumed = reader.next();
+
+        // 20 characters on line 3 and 10 on each line after it: the 201st is the first of line 22.
+        assertEquals(3, overlong.line());
+        assertEquals("Record is longer than 200 characters; skipped through line 22", overlong.error());
+        assertEquals(23, resumed.line());
+        assertEquals("Tea", resumed.request().description());
+    }
+
+    @Test
+    void testRecordOfExactlyTheLimitIsRead() throws IOException {
+        String description = "x".repeat(200 - "5,,1,1".length());
+        CsvExpenseRowReader reader = readerFor("amount,description,categoryId,userId\n5," + description + ",1,1\n");
+
+        assertEquals(description, reader.next().request().description());
+    }
+
+    @Test
+    void testInvalidValuesBecomeRowErrors() throws IOException {
+        CsvExpenseRowReader reader = readerFor("""
+                amount,description,categoryId,userId,expenseDate
+                abc,Coffee,1,1,
+                5,Coffee,1,1,05/01/2024
+                """);
+
+        assertEquals("Invalid number", reader.next().error());
+        assertEquals("Invalid expenseDate, expected yyyy-MM-dd", reader.next().error());
+    }
+
+    @Test
+    void testMissingRequiredColumn() {
+        CsvExpenseRowReader reader = readerFor("amount,description,userId\n5,Coffee,1\n");
+
+        assertThrows(BadRequestException.class, reader::next);
+    }
+
+    private CsvExpenseRowReader readerFor(String csv) {
+        return new CsvExpenseRowReader(new BufferedReader(new StringReader(csv)), 200);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ishwor.expenses.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonExpenseRowReaderTest {
+
+    @Test
+    void testReadsOneObjectPerLine() throws IOException {
+        NdjsonExpenseRowReader reader = readerFor("{\"amount\":12.50,\"description\":\"Coffee\",\"categoryId\":2,"
+                + "\"userId\":1,\"expenseDate\":\"2024-01-05\"}\r\n"
+                + "\n"
+                + "{\"amount\":40,\"description\":\"Dinner\",\"categoryId\":2,\"userId\":1}\r"
+                + "not json");
+
+        ExpenseRow first = reader.next();
+        ExpenseRow second = reader.next();
+        ExpenseRow third = reader.next();
+
+        assertEquals(1, first.line());
+        assertEquals(new BigDecimal("12.50"), first.request().amount());
+        assertEquals(LocalDate.of(2024, 1, 5), first.request().expenseDate());
+        assertEquals(3, second.line());
+        assertEquals("Dinner", second.request().description());
+        assertTrue(third.error().startsWith("Malformed JSON"));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testOverlongLineIsRejectedAndReadingContinues() throws IOException {
+        NdjsonExpenseRowReader reader = readerFor("{\"amount\":5,\"description\":\"Coffee\",\"categoryId\":1,\"userId\":1}\n"
+                + "{\"amount\":6,\"description\":\"" + "x".repeat(1000) + "\"}\r\n"
+                + "{\"amount\":7,\"description\":\"Tea\",\"categoryId\":1,\"userId\":1}");
+
+        assertEquals("Coffee", reader.next().request().description());
+        ExpenseRow overlong = reader.next();
+        ExpenseRow tea = reader.next();
+
+        assertEquals(2, overlong.line());
+        assertEquals("Line is longer than 200 characters", overlong.error());
+        assertEquals(3, tea.line());
+        assertEquals("Tea", tea.request().description());
+        assertNull(reader.next());
+    }
+
+    private NdjsonExpenseRowReader readerFor(String ndjson) {
+        return new NdjsonExpenseRowReader(new BufferedReader(new StringReader(ndjson)),
+                new ObjectMapper().registerModule(new JavaTimeModule()), 200);
+    }
+}
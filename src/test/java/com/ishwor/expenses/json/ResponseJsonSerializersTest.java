@@ -0,0 +1,109 @@
+package com.ishwor.expenses.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ishwor.expenses.dto.response.CategoryResponse;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tuned serializers must write byte-for-byte what Jackson's own record serialization writes.
+ */
+class ResponseJsonSerializersTest {
+
+    // Dates as ISO-8601 strings, as Spring Boot configures the application's mapper.
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper tuned = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializers(new ResponseJsonSerializers.ExpenseResponseSerializer(),
+                    new ResponseJsonSerializers.CategoryResponseSerializer(),
+                    new ResponseJsonSerializers.UserResponseSerializer())
+            .build();
+
+    @Test
+    void testAmountsMatchJackson() throws Exception {
+        List<String> amounts = List.of("0", "0.00", "0.05", "-12.30", "100.50", "7", "1E+3", "0.0000001",
+                "0.000001", "123456789012345678.9", "999999999999999999", "-0.5", "12345.678901234567");
+
+
+        for (String amount : amounts) {
+            ExpenseResponse expense = expense(1L, new BigDecimal(amount), "x", Instant.EPOCH);
+            assertSameJson(expense);
+        }
+    }
+
+    @Test
+    void testTimestampsMatchJackson() throws Exception {
+        List<Instant> instants = List.of(Instant.EPOCH, Instant.parse("2024-02-29T23:59:59Z"),
+                Instant.parse("2024-06-15T10:15:30.120Z"), Instant.parse("2024-06-15T10:15:30.000123Z"),
+                Instant.parse("2024-06-15T10:15:30.000000001Z"), Instant.parse("1969-12-31T23:59:59.5Z"),
+                Instant.parse("0000-01-01T00:00:00Z"), Instant.parse("9999-12-31T23:59:59.999999999Z"),
+                Instant.parse("+10000-01-01T00:00:00Z"), Instant.parse("-0001-06-01T00:00:00Z"));
+
+
+        for (Instant instant : instants) {
+            assertSameJson(expense(1L, BigDecimal.ONE, "x", instant));
+            assertSameJson(new CategoryResponse(2L, "Travel", null, instant));
+        }
+    }
+
+    @Test
+    void testNullsAndEscapesMatchJackson() throws Exception {
+
+        assertSameJson(new ExpenseResponse(null, null, null, null, null, null, null, null));
+        assertSameJson(expense(3L, new BigDecimal("1.00"), "Café \"Zürich\"\n\t\\ 😀 \u0001", null));
+        assertSameJson(new CategoryResponse(null, null, null, null));
+        assertSameJson(new UserResponse(4L, "Jörg <j@x>", "j\"x@example.com"));
+        assertSameJson(new UserResponse(null, null, null));
+    }
+
+    @Test
+    void testRandomListsAndPagesMatchJackson() throws Exception {
+        Random random = new Random(42);
+        List<ExpenseResponse> expenses = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 10_000_000_000L, random.nextInt(5));
+            Instant createdAt = Instant.ofEpochSecond(random.nextLong() % 100_000_000_000L,
+                    random.nextInt(4) == 0 ? 0 : random.nextInt(1_000_000_000));
+            expenses.add(expense(random.nextLong(), amount, "expense " + random.nextInt(), createdAt));
+        }
+
+
+        assertSameJson(expenses);
+        assertSameJson(new ExpensePageResponse(expenses.subList(0, 10), "cursor", true));
+    }
+
+    @Test
+    void testTimestampMappersKeepJacksonsInstantFormat() throws Exception {
+        ObjectMapper timestamps = Jackson2ObjectMapperBuilder.json()
+                .serializers(new ResponseJsonSerializers.CategoryResponseSerializer())
+                .build();
+        CategoryResponse category = new CategoryResponse(2L, "Travel", null, Instant.parse("2024-06-15T10:15:30.120Z"));
+
+
+        assertEquals(Jackson2ObjectMapperBuilder.json().build().writeValueAsString(category),
+                timestamps.writeValueAsString(category));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(jackson.writeValueAsString(value), tuned.writeValueAsString(value));
+        assertArrayEquals(jackson.writeValueAsBytes(value), tuned.writeValueAsBytes(value));
+    }
+
+    private static ExpenseResponse expense(Long id, BigDecimal amount, String description, Instant createdAt) {
+        return new ExpenseResponse(id, amount, description, 5L, "Groceries", 6L, "John Doe", createdAt);
+    }
+}
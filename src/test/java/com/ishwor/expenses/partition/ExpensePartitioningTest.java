@@ -0,0 +1,248 @@
+package com.ishwor.expenses.partition;
+
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.service.ExpenseService;
+import com.ishwor.expenses.support.SqlCapture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Monthly partitioning as migration V5 sets it up on PostgreSQL. Runs only when spring.datasource points at a
+ * PostgreSQL database with EXPENSES_PARTITIONING=true, as in CI; H2 keeps the plain table. Test rows go to months far in the future, and
+ * the database is expected to be as disposable as for the other integration tests.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ishwor.expenses.support.SqlCapture")
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+@EnabledIfEnvironmentVariable(named = "EXPENSES_PARTITIONING", matches = "true")
+class ExpensePartitioningTest {
+    private static final YearMonth JANUARY = YearMonth.of(2098, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2098, 2);
+    private static final YearMonth MARCH = YearMonth.of(2098, 3);
+
+    @Autowired
+    private ExpensePartitionMaintainer maintainer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRollupWriter rollupWriter;
+
+    private User testUser;
+    private Category groceries;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setName("John Doe");
+        testUser.setEmail("partitions@example.com");
+        testUser.setPassword("password");
+        testUser = userRepository.save(testUser);
+
+        groceries = new Category();
+        groceries.setName("Groceries");
+        groceries = categoryRepository.save(groceries);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS expenses_2098_01, expenses_2098_02, expenses_2098_03");
+        // The retention test also drops every earlier month, including the current ones.
+        maintainer.maintain(LocalDate.now());
+        monthlyTotalRepository.deleteAllInBatch();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testUpcomingMonthsArePartitioned() {
+        assertTrue(maintainer.isPartitioned());
+
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= 3; i++) {
+            assertEquals(current.plusMonths(i).atDay(1), partitionOf(current.plusMonths(i).atDay(15)));
+        }
+    }
+
+    @Test
+    void testDateBoundedQueryScansOnlyItsMonth() {
+        Stream.of(JANUARY, FEBRUARY, MARCH).forEach(maintainer::ensurePartition);
+        saveMonths();
+
+
+        String plan = explainAmounts(FEBRUARY.atDay(1), FEBRUARY.atEndOfMonth());
+
+
+        assertTrue(plan.contains("expenses_2098_02"), plan);
+        assertFalse(plan.contains("expenses_2098_01"), plan);
+        assertFalse(plan.contains("expenses_2098_03"), plan);
+        assertFalse(plan.contains("expenses_default"), plan);
+    }
+
+    @Test
+    void testKeysetPagePlansOnlyTheMonthsThatFillIt() {
+        Stream.of(JANUARY, FEBRUARY, MARCH).forEach(maintainer::ensurePartition);
+        saveMonths();
+        rollupWriter.rebuild();
+
+
+        SqlCapture.clear();
+        ExpensePageResponse page = expenseService.getExpensesPageByUser(testUser.getId(), null, 10, null);
+        String sql = SqlCapture.last();
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                testUser.getId(), MARCH.atDay(1), LocalDate.of(9999, 12, 31), 11));
+
+
+        assertEquals(10, page.items().size());
+        assertTrue(plan.contains("expenses_2098_03"), plan);
+        assertFalse(plan.contains("expenses_2098_02"), plan);
+        assertFalse(plan.contains("expenses_2098_01"), plan);
+        assertFalse(plan.contains(ExpensePartitionMaintainer.partitionName(YearMonth.now())), plan);
+    }
+
+    @Test
+    void testKeysetPageReadsPastMonthsTheRollupOvercounts() {
+        Stream.of(JANUARY, FEBRUARY, MARCH).forEach(maintainer::ensurePartition);
+        List<Long> newestFirst = saveMonths().stream()
+                .sorted(Comparator.comparing(Expense::getExpenseDate).thenComparing(Expense::getId).reversed())
+                .map(Expense::getId)
+                .toList();
+        rollupWriter.rebuild();
+        // As if part of March had been archived: the rollup still counts it.
+        jdbcTemplate.update("UPDATE expense_monthly_totals SET expense_count = 100 WHERE month_start = ?",
+                MARCH.atDay(1));
+
+
+        ExpensePageResponse page = expenseService.getExpensesPageByUser(testUser.getId(), null, 30, null);
+
+
+        assertEquals(newestFirst.subList(0, 30), page.items().stream().map(ExpenseResponse::id).toList());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void testNewPartitionTakesOverRowsFromTheDefaultPartition() {
+        Expense early = expenseRepository.save(expense(MARCH.atDay(10)));
+        assertEquals("expenses_default", tableOf(early.getId()));
+
+
+        maintainer.ensurePartition(MARCH);
+
+
+        assertEquals("expenses_2098_03", tableOf(early.getId()));
+        assertTrue(expenseRepository.findById(early.getId()).isPresent());
+    }
+
+    @Test
+    void testRetentionDropsWholeMonths() {
+        Stream.of(JANUARY, FEBRUARY).forEach(maintainer::ensurePartition);
+        Expense january = expenseRepository.save(expense(JANUARY.atDay(5)));
+        Expense february = expenseRepository.save(expense(FEBRUARY.atDay(5)));
+        rollupWriter.rebuild();
+
+
+        int dropped = maintainer.detachBefore(FEBRUARY);
+
+
+        assertTrue(dropped >= 1);
+        assertNull(partitionOf(JANUARY.atDay(1)));
+        assertFalse(expenseRepository.existsById(january.getId()));
+        assertTrue(expenseRepository.existsById(february.getId()));
+        assertTrue(monthlyTotalRepository.findCategorySpend(testUser.getId(), JANUARY.atDay(1)).isEmpty());
+        assertEquals(1, monthlyTotalRepository.findCategorySpend(testUser.getId(), FEBRUARY.atDay(1)).get(0).expenseCount());
+    }
+
+    // EXPLAINs the exact SQL of the series source query with the same bind values, inside one transaction.
+    private String explainAmounts(LocalDate from, LocalDate to) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            SqlCapture.clear();
+            try (var rows = expenseRepository.streamAmounts(testUser.getId(), from, to)) {
+                assertEquals(28, rows.count());
+            }
+            String sql = SqlCapture.last();
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                    testUser.getId(), from, to));
+        });
+    }
+
+    // One expense for each of the first 28 days of January, February and March.
+    private List<Expense> saveMonths() {
+        List<Expense> expenses = new ArrayList<>();
+        for (YearMonth month : List.of(JANUARY, FEBRUARY, MARCH)) {
+            for (int day = 1; day <= 28; day++) {
+                expenses.add(expense(month.atDay(day)));
+            }
+        }
+        return expenseRepository.saveAll(expenses);
+    }
+
+    private LocalDate partitionOf(LocalDate date) {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('expenses') "
+                + "AND c.relname = ?", String.class, ExpensePartitionMaintainer.partitionName(YearMonth.from(date)));
+        return names.isEmpty() ? null : YearMonth.from(date).atDay(1);
+    }
+
+    private String tableOf(Long expenseId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM expenses WHERE id = ?",
+                String.class, expenseId);
+    }
+
+    private Expense expense(LocalDate date) {
+        Expense expense = new Expense();
+        expense.setAmount(BigDecimal.TEN);
+        expense.setDescription("Groceries");
+        expense.setUser(testUser);
+        expense.setCategory(groceries);
+        expense.setExpenseDate(date);
+        return expense;
+    }
+}
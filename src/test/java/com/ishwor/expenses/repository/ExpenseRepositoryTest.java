@@ -3,16 +3,22 @@ package com.ishwor.expenses.repository;
 import com.ishwor.expenses.model.Category;
 import com.ishwor.expenses.model.Expense;
 import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.projection.ExpenseAmountRow;
+import com.ishwor.expenses.repository.projection.ExpenseView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -127,4 +133,120 @@ class ExpenseRepositoryTest {
         
         assertFalse(deletedExpense.isPresent());
     }
+
+    @Test
+    void testKeysetPaginationByUser() {
+
+        Expense jan = saveExpense("January rent", LocalDate.of(2024, 1, 1));
+        Expense febFirst = saveExpense("February rent", LocalDate.of(2024, 2, 1));
+        Expense febSecond = saveExpense("February groceries", LocalDate.of(2024, 2, 1));
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "expenseDate", "id");
+
+
+        List<ExpenseView> firstPage = expenseRepository.findViewsByUserId(testUser.getId(), LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 12, 31), newestFirst, Limit.of(2));
+        ExpenseView last = firstPage.get(firstPage.size() - 1);
+        List<ExpenseView> secondPage = expenseRepository.findViewsByUserIdBefore(
+                testUser.getId(), last.expenseDate(), last.id(), LocalDate.of(2024, 1, 1), newestFirst, Limit.of(2));
+
+
+        assertEquals(List.of(febSecond.getId(), febFirst.getId()), firstPage.stream().map(ExpenseView::id).toList());
+        assertEquals(List.of(jan.getId()), secondPage.stream().map(ExpenseView::id).toList());
+        assertEquals("Groceries", firstPage.get(0).categoryName());
+        assertEquals("John Doe", firstPage.get(0).userName());
+    }
+
+    @Test
+    void testKeysetPaginationAscending() {
+
+        Expense jan = saveExpense("January rent", LocalDate.of(2024, 1, 1));
+        Expense feb = saveExpense("February rent", LocalDate.of(2024, 2, 1));
+        Sort oldestFirst = Sort.by(Sort.Direction.ASC, "expenseDate", "id");
+
+
+        List<ExpenseView> afterJan = expenseRepository.findViewsAfter(jan.getExpenseDate(), jan.getId(),
+                LocalDate.of(2024, 12, 31), oldestFirst, Limit.of(10));
+        List<ExpenseView> afterJanInJan = expenseRepository.findViewsAfter(jan.getExpenseDate(), jan.getId(),
+                LocalDate.of(2024, 1, 31), oldestFirst, Limit.of(10));
+
+
+        assertEquals(List.of(feb.getId()), afterJan.stream().map(ExpenseView::id).toList());
+        assertTrue(afterJanInJan.isEmpty());
+    }
+
+    @Test
+    void testFindViewsByUserIdAndIdIn() {
+
+        Expense rent = saveExpense("Rent", LocalDate.of(2024, 1, 1));
+        Expense uber = saveExpense("Uber", LocalDate.of(2024, 1, 2));
+        saveExpense("Books", LocalDate.of(2024, 1, 3));
+
+
+        List<ExpenseView> views = expenseRepository.findViewsByUserIdAndIdIn(testUser.getId(),
+                List.of(rent.getId(), uber.getId()), Sort.by(Sort.Direction.DESC, "expenseDate", "id"));
+
+
+        assertEquals(List.of(uber.getId(), rent.getId()), views.stream().map(ExpenseView::id).toList());
+    }
+
+    @Test
+    void testFindViewById() {
+
+        Expense saved = saveExpense("Cinema", LocalDate.of(2024, 3, 9));
+
+
+        Optional<ExpenseView> view = expenseRepository.findViewById(saved.getId());
+
+
+        assertTrue(view.isPresent());
+        assertEquals("Cinema", view.get().description());
+        assertEquals(testCategory.getId(), view.get().categoryId());
+        assertEquals(testUser.getId(), view.get().userId());
+    }
+
+    @Test
+    void testStreamViewsByUserId() {
+
+        Expense feb = saveExpense("February rent", LocalDate.of(2024, 2, 1));
+        Expense jan = saveExpense("January rent", LocalDate.of(2024, 1, 1));
+
+
+        List<Long> ids;
+        try (Stream<ExpenseView> rows = expenseRepository.streamViewsByUserId(testUser.getId())) {
+            ids = rows.map(ExpenseView::id).toList();
+        }
+
+
+        assertEquals(List.of(jan.getId(), feb.getId()), ids);
+    }
+
+    @Test
+    void testStreamAmountsInCentsWithinRange() {
+
+        saveExpense("December rent", LocalDate.of(2023, 12, 31));
+        Expense jan = saveExpense("January rent", LocalDate.of(2024, 1, 1));
+        jan.setAmount(new BigDecimal("1234.56"));
+        expenseRepository.saveAndFlush(jan);
+        saveExpense("February rent", LocalDate.of(2024, 2, 1));
+
+
+        List<ExpenseAmountRow> rows;
+        try (Stream<ExpenseAmountRow> stream = expenseRepository.streamAmounts(testUser.getId(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))) {
+            rows = stream.toList();
+        }
+
+
+        assertEquals(List.of(new ExpenseAmountRow(LocalDate.of(2024, 1, 1), testCategory.getId(), 123456L)), rows);
+    }
+
+    private Expense saveExpense(String description, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setAmount(BigDecimal.valueOf(10.00));
+        expense.setDescription(description);
+        expense.setUser(testUser);
+        expense.setCategory(testCategory);
+        expense.setExpenseDate(date);
+        return expenseRepository.save(expense);
+    }
 }
@@ -0,0 +1,188 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.pagination.ExpenseCursor;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import com.ishwor.expenses.repository.search.ExpenseSearchCriteria;
+import com.ishwor.expenses.repository.search.ExpenseSpecifications;
+import com.ishwor.expenses.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ishwor.expenses.support.SqlCapture")
+class ExpenseSearchRepositoryTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "expenseDate", "id");
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User testUser;
+    private Category groceries;
+    private Category travel;
+
+    @BeforeEach
+    void setUp() {
+        testUser = saveUser("john.doe@example.com");
+        User otherUser = saveUser("jane.doe@example.com");
+        groceries = saveCategory("Groceries");
+        travel = saveCategory("Travel");
+        Category rent = saveCategory("Rent");
+
+        List<Expense> expenses = new ArrayList<>();
+        for (int day = 0; day < 60; day++) {
+            LocalDate date = LocalDate.of(2024, 1, 1).plusDays(day);
+            expenses.add(expense(testUser, groceries, 20 + day, date));
+            expenses.add(expense(testUser, travel, 200 + day, date));
+            expenses.add(expense(testUser, rent, 1000, date));
+            expenses.add(expense(otherUser, groceries, 20 + day, date));
+        }
+        expenseRepository.saveAll(expenses);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testSearch_AppliesEveryFilter() {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(testUser.getId(),
+                LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 20),
+                Set.of(groceries.getId(), travel.getId()), BigDecimal.valueOf(30), BigDecimal.valueOf(205));
+
+
+        List<ExpenseView> views = expenseRepository.findViews(ExpenseSpecifications.matching(criteria), NEWEST_FIRST, Limit.of(100));
+
+
+        // Groceries 30..39 fall on Jan 11-20, travel 200..205 on Jan 1-6 (outside the range), so only groceries.
+        assertEquals(10, views.size());
+        assertTrue(views.stream().allMatch(view -> view.userId().equals(testUser.getId())));
+        assertTrue(views.stream().allMatch(view -> view.categoryName().equals("Groceries")));
+        assertEquals(LocalDate.of(2024, 1, 20), views.get(0).expenseDate());
+        assertEquals(LocalDate.of(2024, 1, 11), views.get(views.size() - 1).expenseDate());
+    }
+
+    @Test
+    void testSearch_ContinuesFromCursor() {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(testUser.getId(), null, null,
+                Set.of(travel.getId()), null, null);
+        List<ExpenseView> firstPage = expenseRepository.findViews(ExpenseSpecifications.matching(criteria), NEWEST_FIRST, Limit.of(5));
+
+
+        List<ExpenseView> nextPage = expenseRepository.findViews(
+                ExpenseSpecifications.matching(criteria).and(ExpenseSpecifications.before(ExpenseCursor.of(firstPage.get(4)))),
+                NEWEST_FIRST, Limit.of(5));
+
+
+        assertEquals(5, nextPage.size());
+        assertEquals(firstPage.get(4).expenseDate().minusDays(1), nextPage.get(0).expenseDate());
+    }
+
+    @Test
+    void testDescriptionContains_IgnoresCaseAndStaysWithTheUser() {
+        List<ExpenseView> views = expenseRepository.findViews(
+                ExpenseSpecifications.belongsTo(testUser.getId()).and(ExpenseSpecifications.descriptionContains("roc")),
+                NEWEST_FIRST, Limit.of(100));
+
+
+        assertEquals(60, views.size());
+        assertTrue(views.stream().allMatch(view -> view.userId().equals(testUser.getId())));
+        assertTrue(views.stream().allMatch(view -> view.description().equals("Groceries")));
+    }
+
+    @Test
+    void testSearchPlan_CategoryFilterUsesUserCategoryDateIndex() {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(testUser.getId(),
+                LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 20), Set.of(groceries.getId()), null, null);
+
+
+        String plan = explainSearch(criteria);
+
+
+        assertTrue(plan.contains("IDX_EXPENSES_USER_CATEGORY_DATE"), plan);
+    }
+
+    @Test
+    void testSearchPlan_DateFilterUsesUserDateIndex() {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(testUser.getId(),
+                LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 20), null, null, null);
+
+
+        String plan = explainSearch(criteria);
+
+
+        assertTrue(plan.contains("IDX_EXPENSES_USER_DATE_ID"), plan);
+    }
+
+    // Runs the search, then EXPLAINs the exact SQL Hibernate generated with the same bind values.
+    private String explainSearch(ExpenseSearchCriteria criteria) {
+        SqlCapture.clear();
+        expenseRepository.findViews(ExpenseSpecifications.matching(criteria), NEWEST_FIRST, Limit.of(50));
+        String sql = SqlCapture.last();
+
+        Query explain = entityManager.createNativeQuery("EXPLAIN " + sql);
+        List<Object> binds = new ArrayList<>();
+        binds.add(criteria.userId());
+        if (criteria.from() != null) {
+            binds.add(criteria.from());
+        }
+        if (criteria.to() != null) {
+            binds.add(criteria.to());
+        }
+        if (criteria.categoryIds() != null) {
+            binds.addAll(criteria.categoryIds());
+        }
+        binds.add(50);
+        for (int i = 0; i < binds.size(); i++) {
+            explain.setParameter(i + 1, binds.get(i));
+        }
+        return String.valueOf(explain.getSingleResult()).toUpperCase();
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+
+    private Category saveCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+
+    private static Expense expense(User user, Category category, int amount, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setAmount(BigDecimal.valueOf(amount));
+        expense.setDescription(category.getName());
+        expense.setUser(user);
+        expense.setCategory(category);
+        expense.setExpenseDate(date);
+        return expense;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The schema comes from the Flyway migrations, with Hibernate only validating it, so these check that the
+ * migrations ran and that the lookups they index for do not scan the table.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ishwor.expenses.support.SqlCapture")
+class SchemaMigrationTest {
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testMigrationsAreApplied() {
+        List<?> versions = entityManager.createNativeQuery(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL "
+                        + "ORDER BY \"installed_rank\"")
+                .getResultList();
+
+
+        assertEquals(List.of("1", "2", "3", "4"), versions);
+    }
+
+    @Test
+    void testIndexesExist() {
+        List<?> indexes = entityManager.createNativeQuery(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES "
+                        + "WHERE TABLE_NAME IN ('EXPENSES', 'EXPENSE_MONTHLY_TOTALS', 'EXPENSE_ARCHIVE_SEGMENTS')")
+                .getResultList();
+
+
+        assertTrue(indexes.containsAll(List.of("idx_expenses_user_date_id", "idx_expenses_date_id",
+                "idx_expenses_user_category_date", "idx_expenses_category",
+                "idx_expense_monthly_totals_user_month", "idx_expense_archive_segments_user_dates")),
+                indexes.toString());
+    }
+
+    @Test
+    void testFindByUserIdUsesAnIndex() {
+        SqlCapture.clear();
+        expenseRepository.findByUserId(1L);
+
+
+        String plan = explain(SqlCapture.last(), 1L);
+
+
+        assertFalse(plan.contains("TABLESCAN"), plan);
+    }
+
+    @Test
+    void testFindByEmailUsesTheUniqueIndex() {
+        User user = new User();
+        user.setName("John Doe");
+        user.setEmail("john.doe@example.com");
+        user.setPassword("password");
+        userRepository.saveAndFlush(user);
+        SqlCapture.clear();
+        userRepository.findByEmail("john.doe@example.com");
+
+
+        String plan = explain(SqlCapture.last(), "john.doe@example.com");
+
+
+        // The constraint keeps the name the database generated for it in V1.
+        assertFalse(plan.contains("TABLESCAN"), plan);
+    }
+
+    private String explain(String sql, Object bind) {
+        Query explain = entityManager.createNativeQuery("EXPLAIN " + sql);
+        explain.setParameter(1, bind);
+        return String.valueOf(explain.getSingleResult()).toUpperCase();
+    }
+}
@@ -0,0 +1,158 @@
+package com.ishwor.expenses.repository;
+
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.ExpenseSummaryResponse;
+import com.ishwor.expenses.service.ExpenseService;
+import com.ishwor.expenses.service.ExpenseSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A database created by the application before the schema migrations, from the DDL Hibernate generated for it then
+ * (db/pre-series), is adopted at the V1 baseline on the first start and brought up to date by the later migrations,
+ * keeping its rows, undated ones included. Runs against PostgreSQL in a schema of its own when spring.datasource
+ * points there, and against a separate in-memory H2 database otherwise. The context is used by this class only, so
+ * it is closed afterwards rather than holding its connections while the rest of the suite runs.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=2")
+@DirtiesContext
+class SchemaUpgradeTest {
+    private static final String ENV_URL = System.getenv("SPRING_DATASOURCE_URL");
+    private static final boolean POSTGRESQL = ENV_URL != null && ENV_URL.startsWith("jdbc:postgresql:");
+    private static final String SCHEMA = "pre_series";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseSummaryService expenseSummaryService;
+
+    @DynamicPropertySource
+    static void preSeriesDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        String url;
+        String username;
+        String password;
+        if (POSTGRESQL) {
+            url = ENV_URL + (ENV_URL.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA;
+            username = System.getenv("SPRING_DATASOURCE_USERNAME");
+            password = System.getenv("SPRING_DATASOURCE_PASSWORD");
+        } else {
+            url = "jdbc:h2:mem:preseries;DB_CLOSE_DELAY=-1";
+            username = "sa";
+            password = "";
+        }
+        try (Connection connection = DriverManager.getConnection(POSTGRESQL ? ENV_URL : url, username, password);
+             Statement statement = connection.createStatement()) {
+            if (POSTGRESQL) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                statement.execute("CREATE SCHEMA " + SCHEMA);
+                statement.execute("SET search_path TO " + SCHEMA);
+            } else {
+                statement.execute("DROP ALL OBJECTS");
+            }
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/pre-series/" + (POSTGRESQL ? "postgresql" : "h2") + ".sql"));
+            insertPreSeriesRows(statement);
+        }
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> username);
+        registry.add("spring.datasource.password", () -> password);
+        registry.add("spring.datasource.driver-class-name", () -> POSTGRESQL ? "org.postgresql.Driver" : "org.h2.Driver");
+    }
+
+    // Ids drawn one at a time, as the original entities did.
+    private static void insertPreSeriesRows(Statement statement) throws SQLException {
+        statement.execute("INSERT INTO users (id, name, password, email, created_at) VALUES ("
+                + nextValue("users_id_seq") + ", 'John Doe', 'password', 'john.doe@example.com', CURRENT_TIMESTAMP)");
+        statement.execute("INSERT INTO categories (id, name) VALUES (" + nextValue("categories_id_seq") + ", 'Groceries')");
+        for (String amount : List.of("12.50", "30.00")) {
+            statement.execute("INSERT INTO expenses (id, amount, description, category_id, user_id, expense_date, "
+                    + "created_at) VALUES (" + nextValue("expenses_id_seq") + ", " + amount
+                    + ", 'Weekly shop', 1, 1, DATE '2024-01-15', CURRENT_TIMESTAMP)");
+        }
+        // expense_date was nullable, and rows created before it defaulted to today can lack one.
+        statement.execute("INSERT INTO expenses (id, amount, description, category_id, user_id, expense_date, "
+                + "created_at) VALUES (" + nextValue("expenses_id_seq") + ", 5.00, 'Undated', 1, 1, NULL, "
+                + "TIMESTAMP WITH TIME ZONE '2024-01-20 12:00:00+00')");
+    }
+
+    private static String nextValue(String sequence) {
+        return POSTGRESQL ? "nextval('" + sequence + "')" : "NEXT VALUE FOR " + sequence;
+    }
+
+    @Test
+    void testPreSeriesDatabaseIsBaselinedAndMigrated() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" || ':' || \"type\" FROM \"flyway_schema_history\" "
+                        + "WHERE \"success\" AND \"version\" IS NOT NULL "
+                        + "ORDER BY \"installed_rank\"", String.class);
+        List<String> constraints = jdbcTemplate.queryForList("SELECT LOWER(constraint_name) "
+                + "FROM information_schema.table_constraints WHERE LOWER(table_name) = 'expenses' "
+                + "AND table_schema = CURRENT_SCHEMA", String.class);
+
+
+        assertEquals("1:BASELINE", versions.get(0), versions.toString());
+        assertTrue(versions.containsAll(List.of("2:SQL", "3:SQL", "4:SQL")), versions.toString());
+        assertTrue(constraints.containsAll(List.of("fk_expenses_category", "fk_expenses_user")), constraints.toString());
+    }
+
+    @Test
+    void testExistingExpensesAreRolledUpAndNewOnesGetFreshIds() {
+
+        ExpenseSummaryResponse january = expenseSummaryService.getMonthlySummary(1L, YearMonth.of(2024, 1));
+        ExpenseResponse added = expenseService.addExpense(new ExpenseRequest(new BigDecimal("5.00"), "Milk", 1L, 1L,
+                LocalDate.of(2024, 1, 20)));
+
+
+        assertEquals(new BigDecimal("47.50"), january.totalAmount());
+        assertEquals(3, january.expenseCount());
+        assertTrue(added.id() > 3, "id " + added.id() + " reuses a pre-series one");
+        assertEquals("Weekly shop", expenseService.getExpenseById(1L).description());
+    }
+
+    @Test
+    void testUndatedExpenseIsDatedTheDayItWasRecordedAndPagesThrough() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+
+
+        do {
+            ExpensePageResponse page = expenseService.getExpensesPageByUser(1L, cursor, 1, "desc");
+            page.items().forEach(item -> seen.add(item.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+
+        assertEquals(LocalDate.of(2024, 1, 20),
+                jdbcTemplate.queryForObject("SELECT expense_date FROM expenses WHERE id = 3", LocalDate.class));
+        assertTrue(seen.containsAll(List.of(1L, 2L, 3L)), seen.toString());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("UPDATE expenses SET expense_date = NULL WHERE id = 3"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.ishwor.expenses.search;
+
+import com.ishwor.expenses.config.SearchProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseTextIndexTest {
+
+    private final ExpenseTextIndex index = new ExpenseTextIndex(new SearchProperties(true));
+
+    @Test
+    void testSearch_MatchesTokenPrefixesCaseInsensitively() {
+        index.add(1L, 10L, "Uber ride (airport)");
+        index.add(1L, 11L, "Monthly RENT");
+        index.add(1L, 12L, "Uber Eats dinner");
+
+
+        assertArrayEquals(new long[]{12L, 10L}, index.search(1L, "ub", 10));
+        assertArrayEquals(new long[]{11L}, index.search(1L, "rent", 10));
+        assertArrayEquals(new long[]{10L}, index.search(1L, "AIR", 10));
+    }
+
+    @Test
+    void testSearch_RequiresEveryToken() {
+        index.add(1L, 10L, "Uber ride airport");
+        index.add(1L, 11L, "Uber eats");
+
+
+        assertArrayEquals(new long[]{10L}, index.search(1L, "uber air", 10));
+        assertArrayEquals(new long[0], index.search(1L, "uber rent", 10));
+    }
+
+    @Test
+    void testSearch_IsScopedToTheUser() {
+        index.add(1L, 10L, "Rent");
+        index.add(2L, 11L, "Rent");
+
+
+        assertArrayEquals(new long[]{10L}, index.search(1L, "rent", 10));
+        assertArrayEquals(new long[0], index.search(3L, "rent", 10));
+    }
+
+    @Test
+    void testSearch_ReturnsNewestIdsUpToLimit() {
+        for (long id = 1; id <= 5; id++) {
+            index.add(1L, id, "coffee");
+        }
+
+
+        assertArrayEquals(new long[]{5L, 4L}, index.search(1L, "coffee", 2));
+    }
+
+    @Test
+    void testUpdateReplacesTokensAndRemoveDropsThem() {
+        index.add(1L, 10L, "Groceries");
+        index.add(1L, 11L, "Groceries");
+
+
+        index.update(1L, 10L, "Books");
+        index.remove(1L, 11L);
+
+
+        assertArrayEquals(new long[0], index.search(1L, "groceries", 10));
+        assertArrayEquals(new long[]{10L}, index.search(1L, "books", 10));
+    }
+
+    @Test
+    void testSearch_IgnoresBlankAndPunctuationOnlyQueries() {
+        index.add(1L, 10L, "Rent");
+
+
+        assertArrayEquals(new long[0], index.search(1L, "  ", 10));
+        assertArrayEquals(new long[0], index.search(1L, "--", 10));
+    }
+
+    @Test
+    void testAdd_InsideATransactionWaitsForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.add(1L, 10L, "Rent");
+
+            assertArrayEquals(new long[0], index.search(1L, "rent", 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+
+        assertArrayEquals(new long[]{10L}, index.search(1L, "rent", 10));
+    }
+
+    @Test
+    void testDisabledIndexIgnoresChanges() {
+        ExpenseTextIndex disabled = new ExpenseTextIndex(new SearchProperties(false));
+
+
+        disabled.add(1L, 10L, "Rent");
+
+
+        assertFalse(disabled.isEnabled());
+        assertArrayEquals(new long[0], disabled.search(1L, "rent", 10));
+    }
+}
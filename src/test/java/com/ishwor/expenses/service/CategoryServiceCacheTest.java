@@ -0,0 +1,94 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.dto.request.CategoryRequest;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class CategoryServiceCacheTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private CategoryRepository categoryRepository;
+
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        testCategory = new Category();
+        testCategory.setId(1L);
+        testCategory.setName("Groceries");
+        testCategory.setDescription("Food and grocery shopping");
+        testCategory.setCreatedAt(Instant.now());
+    }
+
+    @Test
+    void testGetCategoryById_ServedFromCache() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+
+        categoryService.getCategoryById(1L);
+        categoryService.getCategoryById(1L);
+
+        verify(categoryRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testGetAllCategories_EvictedByAddCategory() {
+        when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
+        when(categoryRepository.save(any(Category.class))).thenReturn(testCategory);
+
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+        categoryService.addCategory(new CategoryRequest("Travel", "Trips"));
+        categoryService.getAllCategories();
+
+        verify(categoryRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testDeleteCategory_EvictsLookupAndList() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.findAll()).thenReturn(List.of(testCategory));
+        when(categoryRepository.existsById(1L)).thenReturn(true);
+
+        categoryService.getCategoryById(1L);
+        categoryService.getAllCategories();
+        categoryService.deleteCategory(1L);
+        categoryService.getCategoryById(1L);
+        categoryService.getAllCategories();
+
+        verify(categoryRepository, times(2)).findById(1L);
+        verify(categoryRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testMissingCategoryIsNotCached() {
+        when(categoryRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.getCategoryById(99L));
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.getCategoryById(99L));
+
+        verify(categoryRepository, times(2)).findById(99L);
+    }
+}
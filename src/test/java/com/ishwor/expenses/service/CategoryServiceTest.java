@@ -6,6 +6,7 @@ import com.ishwor.expenses.exception.ResourceNotFoundException;
 import com.ishwor.expenses.model.Category;
 import com.ishwor.expenses.repository.CategoryRepository;
 import com.ishwor.expenses.service.impl.CategoryServiceImpl;
+import com.ishwor.expenses.versioning.ChangeVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +27,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ChangeVersions changeVersions;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -57,6 +61,7 @@ class CategoryServiceTest {
         assertEquals("Groceries", response.name());
         assertEquals("Food and grocery shopping", response.description());
         verify(categoryRepository, times(1)).save(any(Category.class)); 
+        verify(changeVersions, times(1)).categoriesChanged();
     }
 
     @Test
@@ -108,6 +113,7 @@ class CategoryServiceTest {
 
         
         verify(categoryRepository, times(1)).deleteById(1L);
+        verify(changeVersions, times(1)).categoriesChanged();
     }
 
     @Test
@@ -119,5 +125,6 @@ class CategoryServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> categoryService.deleteCategory(99L));
         verify(categoryRepository, times(1)).existsById(99L);
         verify(categoryRepository, never()).deleteById(99L);
+        verify(changeVersions, never()).categoriesChanged();
     }
 }
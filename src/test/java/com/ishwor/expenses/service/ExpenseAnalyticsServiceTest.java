@@ -0,0 +1,137 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.analytics.BucketSize;
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.analytics.SpendingSeriesEngine;
+import com.ishwor.expenses.config.AnalyticsProperties;
+import com.ishwor.expenses.archive.ExpenseArchive;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.response.CategoryResponse;
+import com.ishwor.expenses.dto.response.SpendingSeriesResponse;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ExpenseAmountRow;
+import com.ishwor.expenses.service.impl.ExpenseAnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseAnalyticsServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private ExpenseArchive expenseArchive;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseColumnStore columnStore;
+    private ExpenseAnalyticsServiceImpl expenseAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        AnalyticsProperties properties = new AnalyticsProperties(12, 50_000, true);
+        columnStore = new ExpenseColumnStore(properties);
+        expenseAnalyticsService = new ExpenseAnalyticsServiceImpl(expenseRepository, userRepository, categoryService,
+                new SpendingSeriesEngine(properties), columnStore, properties, expenseArchive, readYourWrites,
+                transactionManager);
+    }
+
+    @Test
+    void testGetSpendingSeries_ConvertsCentsAndNamesCategories() {
+
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 2, 29);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        columnStore.put(10L, 1L, 2L, LocalDate.of(2024, 1, 5), new BigDecimal("10.50"));
+        columnStore.put(11L, 1L, 2L, LocalDate.of(2024, 2, 7), new BigDecimal("0.03"));
+        columnStore.put(12L, 1L, 2L, LocalDate.of(2024, 3, 1), new BigDecimal("99.00"));
+        columnStore.put(13L, 2L, 2L, LocalDate.of(2024, 1, 5), new BigDecimal("5.00"));
+        when(categoryService.getCategoryById(2L)).thenReturn(new CategoryResponse(2L, "Travel", null, Instant.now()));
+
+
+        SpendingSeriesResponse response = expenseAnalyticsService.getSpendingSeries(1L, from, to, BucketSize.MONTH, true);
+
+
+        assertEquals("month", response.bucket());
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1)), response.buckets());
+        assertEquals(List.of(new BigDecimal("10.50"), new BigDecimal("0.03")), response.totals());
+        assertEquals(List.of(1L, 1L), response.counts());
+        assertEquals("Travel", response.categories().get(0).categoryName());
+        assertEquals(response.totals(), response.categories().get(0).totals());
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void testGetSpendingSeries_ReadsTheDatabaseWithoutTheColumnStore() {
+        AnalyticsProperties properties = new AnalyticsProperties(12, 50_000, false);
+        ExpenseAnalyticsServiceImpl databaseBacked = new ExpenseAnalyticsServiceImpl(expenseRepository, userRepository,
+                categoryService, new SpendingSeriesEngine(properties), new ExpenseColumnStore(properties), properties,
+                expenseArchive, readYourWrites, transactionManager);
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 2, 29);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.streamAmounts(1L, from, to)).thenReturn(Stream.of(
+                new ExpenseAmountRow(LocalDate.of(2024, 1, 5), 2L, 1_050L),
+                new ExpenseAmountRow(LocalDate.of(2024, 2, 7), 2L, 3L)));
+
+
+        SpendingSeriesResponse response = databaseBacked.getSpendingSeries(1L, from, to, BucketSize.MONTH, false);
+
+
+        assertEquals(List.of(new BigDecimal("10.50"), new BigDecimal("0.03")), response.totals());
+        assertEquals(List.of(1L, 1L), response.counts());
+    }
+
+    @Test
+    void testGetSpendingSeries_RejectsTooManyBuckets() {
+
+        assertThrows(BadRequestException.class, () -> expenseAnalyticsService.getSpendingSeries(1L,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 13), BucketSize.DAY, false));
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void testGetSpendingSeries_RejectsInvertedRange() {
+
+        assertThrows(BadRequestException.class, () -> expenseAnalyticsService.getSpendingSeries(1L,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), BucketSize.MONTH, false));
+    }
+
+    @Test
+    void testGetSpendingSeries_UserNotFound() {
+
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+
+        assertThrows(ResourceNotFoundException.class, () -> expenseAnalyticsService.getSpendingSeries(99L,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), BucketSize.WEEK, false));
+        verifyNoInteractions(expenseRepository);
+    }
+}
@@ -0,0 +1,180 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.config.ExpenseBatchProperties;
+import com.ishwor.expenses.config.SearchProperties;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.model.Category;
+import com.ishwor.expenses.model.Expense;
+import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.repository.CategoryRepository;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.search.ExpenseTextIndex;
+import com.ishwor.expenses.service.impl.ExpenseBatchServiceImpl;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseBatchServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ExpenseRollupWriter rollupWriter;
+
+    private final ExpenseTextIndex textIndex = new ExpenseTextIndex(new SearchProperties(true));
+
+    private ExpenseBatchServiceImpl expenseBatchService;
+
+    private User testUser;
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        expenseBatchService = new ExpenseBatchServiceImpl(expenseRepository, categoryRepository, userRepository,
+                validator, new ExpenseBatchProperties(3), new ChangeVersions(),
+                textIndex, mock(ExpenseColumnStore.class), rollupWriter, mock(ReadYourWrites.class));
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setName("John Doe");
+
+        testCategory = new Category();
+        testCategory.setId(1L);
+        testCategory.setName("Groceries");
+    }
+
+    @Test
+    void testAddExpenses_ReportsPerItemErrors() {
+
+        List<ExpenseRequest> requests = List.of(
+                new ExpenseRequest(BigDecimal.valueOf(20), "Groceries", 1L, 1L, LocalDate.of(2024, 1, 1)),
+                new ExpenseRequest(BigDecimal.valueOf(20), "", 1L, 1L, null),
+                new ExpenseRequest(BigDecimal.valueOf(20), "Taxi", 99L, 1L, null)
+        );
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(testUser));
+        when(categoryRepository.findAllById(Set.of(1L, 99L))).thenReturn(List.of(testCategory));
+        when(expenseRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Expense> saved = new ArrayList<>(invocation.getArgument(0));
+            saved.forEach(expense -> expense.setId(10L));
+            return saved;
+        });
+
+
+        ExpenseBatchResponse response = expenseBatchService.addExpenses(requests);
+
+
+        assertEquals(3, response.received());
+        assertEquals(1, response.created());
+        assertEquals(2, response.failed());
+        assertEquals("Groceries", response.expenses().get(0).categoryName());
+        assertEquals(1, response.errors().get(0).index());
+        assertEquals(List.of("Description cannot be empty"), response.errors().get(0).messages());
+        assertEquals(2, response.errors().get(1).index());
+        assertEquals(List.of("Category not found"), response.errors().get(1).messages());
+    }
+
+    @Test
+    void testAddExpenses_ResolvesReferencesOncePerBatch() {
+
+        List<ExpenseRequest> requests = List.of(
+                new ExpenseRequest(BigDecimal.valueOf(5), "Coffee", 1L, 1L, null),
+                new ExpenseRequest(BigDecimal.valueOf(7), "Lunch", 1L, 1L, null)
+        );
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(testUser));
+        when(categoryRepository.findAllById(Set.of(1L))).thenReturn(List.of(testCategory));
+        when(expenseRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Expense> saved = new ArrayList<>(invocation.getArgument(0));
+            for (int i = 0; i < saved.size(); i++) {
+                saved.get(i).setId(20L + i);
+            }
+            return saved;
+        });
+
+
+        expenseBatchService.addExpenses(requests);
+
+
+        verify(userRepository, times(1)).findAllById(Set.of(1L));
+        verify(categoryRepository, times(1)).findAllById(Set.of(1L));
+        verify(userRepository, never()).findById(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Expense>> captor = ArgumentCaptor.forClass(List.class);
+        verify(expenseRepository, times(1)).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertNotNull(captor.getValue().get(0).getExpenseDate());
+        verify(rollupWriter, times(1)).applyAdded(captor.getValue());
+    }
+
+    @Test
+    void testAddExpenses_IndexesDescriptionsOnlyOnceCommitted() {
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(testUser));
+        when(categoryRepository.findAllById(Set.of(1L))).thenReturn(List.of(testCategory));
+        when(expenseRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Expense> saved = new ArrayList<>(invocation.getArgument(0));
+            saved.forEach(expense -> expense.setId(30L));
+            return saved;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            expenseBatchService.addExpenses(List.of(new ExpenseRequest(BigDecimal.valueOf(5), "Coffee", 1L, 1L, null)));
+
+            assertArrayEquals(new long[0], textIndex.search(1L, "coffee", 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+
+        assertArrayEquals(new long[]{30L}, textIndex.search(1L, "coffee", 10));
+    }
+
+    @Test
+    void testAddExpenses_TooManyItems() {
+
+        ExpenseRequest request = new ExpenseRequest(BigDecimal.valueOf(5), "Coffee", 1L, 1L, null);
+
+
+        assertThrows(BadRequestException.class,
+                () -> expenseBatchService.addExpenses(List.of(request, request, request, request)));
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void testAddExpenses_EmptyBatch() {
+
+        assertThrows(BadRequestException.class, () -> expenseBatchService.addExpenses(List.of()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ishwor.expenses.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ishwor.expenses.archive.ExpenseArchive;
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.exception.BadRequestException;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.exporter.ExportFormat;
+import com.ishwor.expenses.repository.ExpenseRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import com.ishwor.expenses.service.impl.ExpenseExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseExportServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ExpenseArchive expenseArchive;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpenseExportServiceImpl expenseExportService;
+
+    private ExpenseView coffee;
+    private ExpenseView dinner;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        expenseExportService = new ExpenseExportServiceImpl(expenseRepository, userRepository, objectMapper,
+                expenseArchive, readYourWrites, transactionManager);
+
+        Instant createdAt = Instant.parse("2024-01-05T10:00:00Z");
+        coffee = new ExpenseView(1L, new BigDecimal("3.50"), "Coffee", 2L, "Food", 1L, "John Doe",
+                LocalDate.of(2024, 1, 5), createdAt);
+        dinner = new ExpenseView(2L, new BigDecimal("40.00"), "Dinner, \"team\"", 2L, "Food", 1L, "John Doe",
+                LocalDate.of(2024, 1, 6), createdAt);
+    }
+
+    @Test
+    void testExportCsv_StreamsRowsAndClosesCursor() throws Exception {
+
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.streamViewsByUserId(1L)).thenReturn(Stream.of(coffee, dinner).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+
+        expenseExportService.exportExpensesByUser(1L, ExportFormat.CSV, null, null).writeTo(output);
+
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,expenseDate,amount,description,categoryId,categoryName,userId,userName,createdAt", lines[0]);
+        assertEquals("1,2024-01-05,3.50,Coffee,2,Food,1,John Doe,2024-01-05T10:00:00Z", lines[1]);
+        assertTrue(lines[2].contains("\"Dinner, \"\"team\"\"\""));
+        assertTrue(closed.get());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testExportNdjson_OneObjectPerLine() throws Exception {
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.streamViewsByUserId(1L)).thenReturn(Stream.of(coffee, dinner));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+
+        expenseExportService.exportExpensesByUser(1L, ExportFormat.NDJSON, null, null).writeTo(output);
+
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].contains("\"expenseDate\":\"2024-01-06\""));
+    }
+
+    @Test
+    void testExportCsv_DateRange_MergesArchivedRowsByDate() throws Exception {
+
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        ExpenseView archived = new ExpenseView(7L, new BigDecimal("9.99"), "Old books", 2L, "Food", 1L, "John Doe",
+                LocalDate.of(2023, 5, 1), Instant.parse("2023-05-01T10:00:00Z"));
+        // Backdated after archival, so still in the table but older than the archived row.
+        ExpenseView backdated = new ExpenseView(90L, new BigDecimal("1.00"), "Late receipt", 2L, "Food", 1L,
+                "John Doe", LocalDate.of(2023, 2, 1), Instant.parse("2024-01-10T10:00:00Z"));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseArchive.readViews(1L, from, to)).thenReturn(Stream.of(archived));
+        when(expenseRepository.streamViewsByUserIdBetween(1L, from, to)).thenReturn(Stream.of(backdated, coffee, dinner));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+
+        expenseExportService.exportExpensesByUser(1L, ExportFormat.CSV, from, to).writeTo(output);
+
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[1].startsWith("90,2023-02-01,"));
+        assertTrue(lines[2].startsWith("7,2023-05-01,9.99,Old books,"));
+        assertTrue(lines[3].startsWith("1,2024-01-05,"));
+        assertTrue(lines[4].startsWith("2,2024-01-06,"));
+        verify(expenseRepository, never()).streamViewsByUserId(1L);
+    }
+
+    @Test
+    void testExport_FromAfterTo() {
+
+        assertThrows(BadRequestException.class, () -> expenseExportService.exportExpensesByUser(1L, ExportFormat.CSV,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void testExport_UserNotFound() {
+
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> expenseExportService.exportExpensesByUser(99L, ExportFormat.CSV, null, null));
+        verify(expenseRepository, never()).streamViewsByUserId(99L);
+    }
+}
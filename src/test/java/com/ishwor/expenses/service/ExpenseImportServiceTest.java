@@ -0,0 +1,121 @@
+package com.ishwor.expenses.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ishwor.expenses.config.ExpenseBatchProperties;
+import com.ishwor.expenses.config.ExpenseImportProperties;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseBatchError;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseImportResponse;
+import com.ishwor.expenses.importer.ImportFormat;
+import com.ishwor.expenses.service.impl.ExpenseImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseImportServiceTest {
+
+    @Mock
+    private ExpenseBatchService expenseBatchService;
+
+    private ExpenseImportServiceImpl expenseImportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        expenseImportService = new ExpenseImportServiceImpl(expenseBatchService, objectMapper,
+                new ExpenseImportProperties(2, 10, 1000), new ExpenseBatchProperties(1000));
+    }
+
+    @Test
+    void testImportCsv_WritesInBoundedChunks() {
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> {
+            List<ExpenseRequest> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return new ExpenseBatchResponse(chunk.size(), chunk.size(), 0, List.of(), List.of());
+        });
+        String csv = """
+                amount,description,categoryId,userId
+                1,A,1,1
+                2,B,1,1
+                3,C,1,1
+                4,D,1,1
+                5,E,1,1
+                """;
+
+
+        ExpenseImportResponse response = expenseImportService.importExpenses(stream(csv), ImportFormat.CSV);
+
+
+        assertEquals(List.of(2, 2, 1), chunkSizes);
+        assertEquals(5, response.rowsRead());
+        assertEquals(5, response.imported());
+        assertEquals(0, response.rejected());
+        assertTrue(response.rowsPerSecond() > 0);
+    }
+
+    @Test
+    void testImportNdjson_ReportsRejectsByLine() {
+
+        when(expenseBatchService.addExpenses(anyList())).thenReturn(new ExpenseBatchResponse(2, 1, 1, List.of(),
+                List.of(new ExpenseBatchError(1, List.of("User not found")))));
+        String ndjson = """
+                {"amount":10,"description":"Taxi","categoryId":1,"userId":1}
+                {not json
+                {"amount":12,"description":"Bus","categoryId":1,"userId":42,"expenseDate":"2024-02-01"}
+                """;
+
+
+        ExpenseImportResponse response = expenseImportService.importExpenses(stream(ndjson), ImportFormat.NDJSON);
+
+
+        assertEquals(3, response.rowsRead());
+        assertEquals(1, response.imported());
+        assertEquals(2, response.rejected());
+        assertEquals(2, response.errors().get(0).line());
+        assertEquals(3, response.errors().get(1).line());
+        assertEquals(List.of("User not found"), response.errors().get(1).messages());
+    }
+
+    @Test
+    void testImportCsv_OverlongRecordIsRejectedWithoutStoppingTheImport() {
+
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> {
+            List<ExpenseRequest> chunk = invocation.getArgument(0);
+            return new ExpenseBatchResponse(chunk.size(), chunk.size(), 0, List.of(), List.of());
+        });
+        String csv = "amount,description,categoryId,userId\n"
+                + "1,A,1,1\n"
+                + "2,B,1,1\n"
+                + "3," + "x".repeat(2000) + ",1,1\n"
+                + "4,D,1,1\n";
+
+
+        ExpenseImportResponse response = expenseImportService.importExpenses(stream(csv), ImportFormat.CSV);
+
+
+        assertEquals(4, response.rowsRead());
+        assertEquals(3, response.imported());
+        assertEquals(1, response.rejected());
+        assertEquals(4, response.errors().get(0).line());
+        verify(expenseBatchService, times(2)).addExpenses(anyList());
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,33 +1,62 @@
 package com.ishwor.expenses.service;
 
+import com.ishwor.expenses.analytics.ExpenseColumnStore;
+import com.ishwor.expenses.archive.ExpenseArchive;
+import com.ishwor.expenses.config.ExpensePaginationProperties;
+import com.ishwor.expenses.config.SearchProperties;
+import com.ishwor.expenses.datasource.ReadYourWrites;
 import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.CategoryResponse;
+import com.ishwor.expenses.dto.response.ExpensePageResponse;
 import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.dto.response.UserResponse;
+import com.ishwor.expenses.exception.BadRequestException;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
 import com.ishwor.expenses.model.Category;
 import com.ishwor.expenses.model.Expense;
 import com.ishwor.expenses.model.User;
+import com.ishwor.expenses.pagination.ExpenseCursor;
+import com.ishwor.expenses.partition.ExpenseMonthWindow;
 import com.ishwor.expenses.repository.CategoryRepository;
 import com.ishwor.expenses.repository.ExpenseRepository;
 import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.repository.projection.ExpenseView;
+import com.ishwor.expenses.repository.search.ExpenseSearchCriteria;
+import com.ishwor.expenses.rollup.ExpenseRollupWriter;
+import com.ishwor.expenses.search.ExpenseTextIndex;
 import com.ishwor.expenses.service.impl.ExpenseServiceImpl;
+import com.ishwor.expenses.versioning.ChangeVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ExpenseServiceTest {
+    // The open date range the service passes when a page has no window.
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
 
     @Mock
     private ExpenseRepository expenseRepository;
@@ -38,13 +67,52 @@ class ExpenseServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private ExpensePaginationProperties paginationProperties = new ExpensePaginationProperties(2, 5, 10);
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    @Spy
+    private ExpenseTextIndex textIndex = new ExpenseTextIndex(new SearchProperties(true));
+
+    @Mock
+    private ExpenseColumnStore columnStore;
+
+    @Mock
+    private ExpenseRollupWriter rollupWriter;
+
+    @Mock
+    private ExpenseArchive expenseArchive;
+
+    @Mock
+    private ExpenseMonthWindow monthWindow;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ExpenseServiceImpl expenseService;
 
     private Expense testExpense;
+    private ExpenseView testView;
     private ExpenseRequest expenseRequest;
     private User testUser;
     private Category testCategory;
+    private CategoryResponse categoryResponse;
+    private UserResponse userResponse;
 
     @BeforeEach
     void setUp() {
@@ -54,12 +122,14 @@ class ExpenseServiceTest {
         testUser.setName("John Doe");
         testUser.setEmail("john.doe@example.com");
         testUser.setPassword("securepassword123");
+        userResponse = new UserResponse(1L, "John Doe", "john.doe@example.com");
 
         
         testCategory = new Category();
         testCategory.setId(1L);
         testCategory.setName("Groceries");
         testCategory.setDescription("Food and grocery shopping");
+        categoryResponse = new CategoryResponse(1L, "Groceries", "Food and grocery shopping", Instant.now());
 
         
         testExpense = new Expense();
@@ -71,6 +141,8 @@ class ExpenseServiceTest {
         testExpense.setExpenseDate(LocalDate.now());
         testExpense.setCreatedAt(Instant.now());
 
+        testView = viewOf(testExpense, 1L);
+
         
         expenseRequest = new ExpenseRequest(
                 BigDecimal.valueOf(50.00),
@@ -84,9 +156,11 @@ class ExpenseServiceTest {
     @Test
     void testAddExpense() {
         
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
+        when(userService.getUserForWrite(1L)).thenReturn(userResponse);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryService.getCategoryById(1L)).thenReturn(categoryResponse);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(testCategory);
+        when(expenseRepository.saveAndFlush(any(Expense.class))).thenReturn(testExpense);
 
         
         ExpenseResponse response = expenseService.addExpense(expenseRequest);
@@ -95,13 +169,52 @@ class ExpenseServiceTest {
         assertNotNull(response);
         assertEquals(BigDecimal.valueOf(50.00), response.amount());
         assertEquals("Weekly groceries", response.description());
-        verify(expenseRepository, times(1)).save(any(Expense.class));
+        assertEquals("Groceries", response.categoryName());
+        assertEquals("John Doe", response.userName());
+        verify(expenseRepository, times(1)).saveAndFlush(any(Expense.class));
+        verify(categoryRepository, never()).findById(any());
+        verify(userRepository, never()).findById(any());
+        verify(changeVersions, times(1)).expensesChanged(1L);
+        verify(textIndex, times(1)).add(1L, testExpense.getId(), testExpense.getDescription());
+        verify(rollupWriter, times(1)).apply(1L, 1L, testExpense.getExpenseDate(), BigDecimal.valueOf(50.00), 1);
+    }
+
+    @Test
+    void testAddExpense_ForeignKeyViolationBecomesNotFound() {
+
+        when(userService.getUserForWrite(1L)).thenReturn(userResponse);
+        when(categoryService.getCategoryById(1L)).thenReturn(categoryResponse);
+        when(expenseRepository.saveAndFlush(any(Expense.class))).thenThrow(new DataIntegrityViolationException(
+                "insert failed",
+                new ConstraintViolationException("FK violation", new SQLException(), "FK_EXPENSES_CATEGORY")));
+
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+                () -> expenseService.addExpense(expenseRequest));
+        assertEquals("Category not found", ex.getMessage());
+        verifyNoInteractions(rollupWriter);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void testAddExpense_UnnamedConstraintFallsBackToExistenceCheck() {
+
+        when(userService.getUserForWrite(1L)).thenReturn(userResponse);
+        when(categoryService.getCategoryById(1L)).thenReturn(categoryResponse);
+        when(expenseRepository.saveAndFlush(any(Expense.class)))
+                .thenThrow(new DataIntegrityViolationException("insert failed"));
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+                () -> expenseService.addExpense(expenseRequest));
+        assertEquals("User not found", ex.getMessage());
     }
 
     @Test
     void testAddExpense_UserNotFound() {
         
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userService.getUserForWrite(1L)).thenThrow(new ResourceNotFoundException("User not found"));
 
         
         assertThrows(ResourceNotFoundException.class, () -> expenseService.addExpense(expenseRequest));
@@ -110,8 +223,8 @@ class ExpenseServiceTest {
     @Test
     void testAddExpense_CategoryNotFound() {
         
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userService.getUserForWrite(1L)).thenReturn(userResponse);
+        when(categoryService.getCategoryById(1L)).thenThrow(new ResourceNotFoundException("Category not found"));
 
         
         assertThrows(ResourceNotFoundException.class, () -> expenseService.addExpense(expenseRequest));
@@ -120,7 +233,8 @@ class ExpenseServiceTest {
     @Test
     void testGetAllExpenses() {
         
-        when(expenseRepository.findAll()).thenReturn(List.of(testExpense));
+        when(expenseRepository.findViews(any(LocalDate.class), any(LocalDate.class), any(Sort.class), eq(Limit.of(10))))
+                .thenReturn(List.of(testView));
 
         
         List<ExpenseResponse> expenses = expenseService.getAllExpenses();
@@ -129,14 +243,16 @@ class ExpenseServiceTest {
         assertFalse(expenses.isEmpty());
         assertEquals(1, expenses.size());
         assertEquals("Weekly groceries", expenses.get(0).description());
-        verify(expenseRepository, times(1)).findAll();
+        verify(expenseRepository, times(1)).findViews(any(LocalDate.class), any(LocalDate.class), any(Sort.class),
+                eq(Limit.of(10)));
     }
 
     @Test
     void testGetExpensesByUser_Success() {
         
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(expenseRepository.findByUserId(1L)).thenReturn(List.of(testExpense));
+        when(expenseRepository.findViewsByUserId(eq(1L), any(LocalDate.class), any(LocalDate.class), any(Sort.class),
+                eq(Limit.of(10)))).thenReturn(List.of(testView));
 
         
         List<ExpenseResponse> expenses = expenseService.getExpensesByUser(1L);
@@ -145,7 +261,8 @@ class ExpenseServiceTest {
         assertFalse(expenses.isEmpty());
         assertEquals(1, expenses.size());
         assertEquals("Weekly groceries", expenses.get(0).description());
-        verify(expenseRepository, times(1)).findByUserId(1L);
+        verify(expenseRepository, times(1)).findViewsByUserId(eq(1L), any(LocalDate.class), any(LocalDate.class),
+                any(Sort.class), eq(Limit.of(10)));
     }
 
     @Test
@@ -157,10 +274,189 @@ class ExpenseServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> expenseService.getExpensesByUser(99L));
     }
 
+    @Test
+    void testGetExpensesPage_FirstPageHasMore() {
+        ExpenseView second = viewOf(testExpense, 2L);
+        ExpenseView third = viewOf(testExpense, 3L);
+        when(expenseRepository.findViews(EARLIEST, LATEST, Sort.by(Sort.Direction.DESC, "expenseDate", "id"), Limit.of(3)))
+                .thenReturn(List.of(testView, second, third));
+
+
+        ExpensePageResponse page = expenseService.getExpensesPage(null, null, null);
+
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(new ExpenseCursor(second.expenseDate(), 2L), ExpenseCursor.decode(page.nextCursor()));
+        assertEquals(2, meterRegistry.get("expenses.list.rows").tag("query", "page").summary().totalAmount());
+    }
+
+    @Test
+    void testGetExpensesPageByUser_FollowsCursorAscending() {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        String cursor = new ExpenseCursor(date, 7L).encode();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findViewsByUserIdAfter(1L, date, 7L, LATEST, Sort.by(Sort.Direction.ASC, "expenseDate", "id"),
+                Limit.of(6)))
+                .thenReturn(List.of(testView));
+
+
+        ExpensePageResponse page = expenseService.getExpensesPageByUser(1L, cursor, 50, "asc");
+
+
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testGetExpensesPageByUser_ContinuesPastAShortWindow() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "expenseDate", "id");
+        LocalDate windowStart = testView.expenseDate().withDayOfMonth(1);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(monthWindow.newestFirst(1L, null, 3)).thenReturn(windowStart);
+        when(expenseRepository.findViewsByUserId(1L, windowStart, LATEST, newestFirst, Limit.of(3)))
+                .thenReturn(List.of(testView));
+        when(expenseRepository.findViewsByUserIdBefore(1L, testView.expenseDate(), 1L, EARLIEST, newestFirst, Limit.of(2)))
+                .thenReturn(List.of(viewOf(testExpense, 0L)));
+
+
+        ExpensePageResponse page = expenseService.getExpensesPageByUser(1L, null, null, null);
+
+
+        assertEquals(List.of(1L, 0L), page.items().stream().map(ExpenseResponse::id).toList());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void testGetExpensesPage_InvalidCursor() {
+
+        assertThrows(BadRequestException.class, () -> expenseService.getExpensesPage("not-a-cursor", 10, "desc"));
+    }
+
+    @Test
+    void testGetExpensesPage_InvalidSort() {
+
+        assertThrows(BadRequestException.class, () -> expenseService.getExpensesPage(null, 10, "sideways"));
+    }
+
+    @Test
+    void testSearchExpenses_FirstPageHasMore() {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                Set.of(1L), null, null);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findViews(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "expenseDate", "id")), eq(Limit.of(3))))
+                .thenReturn(List.of(testView, viewOf(testExpense, 2L), viewOf(testExpense, 3L)));
+
+
+        ExpensePageResponse page = expenseService.searchExpenses(criteria, null, null);
+
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(2, meterRegistry.get("expenses.list.rows").tag("query", "search").summary().totalAmount());
+    }
+
+    @Test
+    void testSearchExpenses_FullPageNewerThanTheArchiveDecodesNothing() {
+        ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(1L, null, null, null, null, null);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findViews(any(Specification.class), any(Sort.class), eq(Limit.of(3))))
+                .thenReturn(List.of(testView, viewOf(testExpense, 2L), viewOf(testExpense, 3L)));
+        when(expenseArchive.newestDate(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Optional.of(testView.expenseDate().minusYears(2)));
+
+
+        ExpensePageResponse page = expenseService.searchExpenses(criteria, null, 2);
+
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        verify(expenseArchive, never()).readViewsNewestFirst(any(), any(), any());
+    }
+
+    @Test
+    void testSearchExpenses_InvalidRanges() {
+        ExpenseSearchCriteria dates = new ExpenseSearchCriteria(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1),
+                null, null, null);
+        ExpenseSearchCriteria amounts = new ExpenseSearchCriteria(1L, null, null, null,
+                BigDecimal.valueOf(100), BigDecimal.valueOf(10));
+
+
+        assertThrows(BadRequestException.class, () -> expenseService.searchExpenses(dates, null, null));
+        assertThrows(BadRequestException.class, () -> expenseService.searchExpenses(amounts, null, null));
+        verify(expenseRepository, never()).findViews(any(Specification.class), any(Sort.class), any(Limit.class));
+    }
+
+    @Test
+    void testSearchExpenses_UserNotFound() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+
+        assertThrows(ResourceNotFoundException.class, () -> expenseService.searchExpenses(
+                new ExpenseSearchCriteria(99L, null, null, null, null, null), null, null));
+    }
+
+    @Test
+    void testSearchDescriptions_LoadsMatchedIdsFromRepository() {
+        textIndex.add(1L, 1L, "Weekly groceries");
+        textIndex.add(1L, 2L, "Uber ride");
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findViewsByUserIdAndIdIn(eq(1L), eq(List.of(1L)), any(Sort.class))).thenReturn(List.of(testView));
+
+
+        List<ExpenseResponse> results = expenseService.searchDescriptions(1L, "groc", null);
+
+
+        assertEquals(1, results.size());
+        assertEquals("Weekly groceries", results.get(0).description());
+    }
+
+    @Test
+    void testSearchDescriptions_NoMatchSkipsRepository() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+
+        List<ExpenseResponse> results = expenseService.searchDescriptions(1L, "nothing", null);
+
+
+        assertTrue(results.isEmpty());
+        verify(expenseRepository, never()).findViewsByUserIdAndIdIn(any(), any(), any());
+    }
+
+    @Test
+    void testSearchDescriptions_WithoutIndexKeepsWordPrefixMatchesFromTheDatabase() {
+        doReturn(false).when(textIndex).isEnabled();
+        Expense substringOnly = new Expense();
+        substringOnly.setAmount(BigDecimal.TEN);
+        substringOnly.setDescription("Agroculture fair");
+        substringOnly.setUser(testUser);
+        substringOnly.setCategory(testCategory);
+        substringOnly.setExpenseDate(LocalDate.now());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findViews(any(Specification.class), any(Sort.class), eq(Limit.of(2))))
+                .thenReturn(List.of(viewOf(substringOnly, 3L), testView), List.of());
+
+
+        List<ExpenseResponse> results = expenseService.searchDescriptions(1L, "groc", null);
+
+
+        assertEquals(1, results.size());
+        assertEquals("Weekly groceries", results.get(0).description());
+        verify(expenseRepository, times(2)).findViews(any(Specification.class), any(Sort.class), eq(Limit.of(2)));
+        verify(expenseRepository, never()).findViewsByUserIdAndIdIn(any(), any(), any());
+    }
+
+    @Test
+    void testSearchDescriptions_BlankQuery() {
+
+        assertThrows(BadRequestException.class, () -> expenseService.searchDescriptions(1L, " ", null));
+    }
+
     @Test
     void testGetExpenseById_Success() {
         
-        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
+        when(expenseRepository.findViewById(1L)).thenReturn(Optional.of(testView));
 
         
         ExpenseResponse response = expenseService.getExpenseById(1L);
@@ -168,13 +464,13 @@ class ExpenseServiceTest {
         
         assertNotNull(response);
         assertEquals("Weekly groceries", response.description());
-        verify(expenseRepository, times(1)).findById(1L);
+        verify(expenseRepository, times(1)).findViewById(1L);
     }
 
     @Test
     void testGetExpenseById_NotFound() {
         
-        when(expenseRepository.findById(99L)).thenReturn(Optional.empty());
+        when(expenseRepository.findViewById(99L)).thenReturn(Optional.empty());
 
         
         assertThrows(ResourceNotFoundException.class, () -> expenseService.getExpenseById(99L));
@@ -183,23 +479,27 @@ class ExpenseServiceTest {
     @Test
     void testDeleteExpense_Success() {
         
-        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findForUpdateById(1L)).thenReturn(Optional.of(testExpense));
 
         
         expenseService.deleteExpense(1L);
 
         
-        verify(expenseRepository, times(1)).deleteById(1L);
+        verify(expenseRepository, times(1)).delete(testExpense);
+        verify(rollupWriter, times(1)).apply(1L, 1L, testExpense.getExpenseDate(), BigDecimal.valueOf(-50.00), -1);
+        verify(changeVersions, times(1)).expensesChanged(1L);
     }
 
     @Test
     void testDeleteExpense_NotFound() {
         
-        when(expenseRepository.existsById(99L)).thenReturn(false);
+        when(expenseRepository.findForUpdateById(99L)).thenReturn(Optional.empty());
 
         
         assertThrows(ResourceNotFoundException.class, () -> expenseService.deleteExpense(99L));
-        verify(expenseRepository, never()).deleteById(99L);
+        verify(expenseRepository, never()).delete(any());
+        verifyNoInteractions(rollupWriter);
+        verify(changeVersions, never()).expensesChanged(any());
     }
 
     @Test
@@ -212,9 +512,10 @@ class ExpenseServiceTest {
         );
 
         
-        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
+        when(expenseRepository.findForUpdateById(1L)).thenReturn(Optional.of(testExpense));
+        when(categoryService.getCategoryById(1L)).thenReturn(categoryResponse);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(testCategory);
+        when(expenseRepository.saveAndFlush(any(Expense.class))).thenReturn(testExpense);
 
         
         ExpenseResponse response = expenseService.updateExpense(1L, updatedRequest);
@@ -222,15 +523,53 @@ class ExpenseServiceTest {
         
         assertNotNull(response);
         assertEquals("Updated groceries", response.description());
-        verify(expenseRepository, times(1)).save(any(Expense.class));
+        verify(expenseRepository, times(1)).saveAndFlush(any(Expense.class));
+        verify(rollupWriter, times(1)).apply(1L, 1L, testExpense.getExpenseDate(), new BigDecimal("25.0"), 0);
+        verifyNoMoreInteractions(rollupWriter);
+    }
+
+    @Test
+    void testUpdateExpense_CategoryChangeMovesAmountBetweenRollups() {
+
+        Category travel = new Category();
+        travel.setId(2L);
+        travel.setName("Travel");
+        ExpenseRequest updatedRequest = new ExpenseRequest(BigDecimal.valueOf(80.00), "Train", 2L, 1L, LocalDate.now());
+        when(expenseRepository.findForUpdateById(1L)).thenReturn(Optional.of(testExpense));
+        when(categoryService.getCategoryById(2L)).thenReturn(new CategoryResponse(2L, "Travel", null, Instant.now()));
+        when(categoryRepository.getReferenceById(2L)).thenReturn(travel);
+        when(expenseRepository.saveAndFlush(any(Expense.class))).thenReturn(testExpense);
+
+
+        ExpenseResponse response = expenseService.updateExpense(1L, updatedRequest);
+
+
+        assertEquals("Travel", response.categoryName());
+        verify(rollupWriter, times(1)).apply(1L, 1L, testExpense.getExpenseDate(), BigDecimal.valueOf(-50.00), -1);
+        verify(rollupWriter, times(1)).apply(1L, 2L, testExpense.getExpenseDate(), BigDecimal.valueOf(80.00), 1);
     }
 
     @Test
     void testUpdateExpense_NotFound() {
         
-        when(expenseRepository.findById(99L)).thenReturn(Optional.empty());
+        when(categoryService.getCategoryById(1L)).thenReturn(categoryResponse);
+        when(expenseRepository.findForUpdateById(99L)).thenReturn(Optional.empty());
 
         
         assertThrows(ResourceNotFoundException.class, () -> expenseService.updateExpense(99L, expenseRequest));
     }
+
+    private ExpenseView viewOf(Expense source, Long id) {
+        return new ExpenseView(
+                id,
+                source.getAmount(),
+                source.getDescription(),
+                source.getCategory().getId(),
+                source.getCategory().getName(),
+                source.getUser().getId(),
+                source.getUser().getName(),
+                source.getExpenseDate(),
+                source.getCreatedAt()
+        );
+    }
 }
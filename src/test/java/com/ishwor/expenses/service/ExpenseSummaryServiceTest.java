@@ -0,0 +1,67 @@
+package com.ishwor.expenses.service;
+
+import com.ishwor.expenses.datasource.ReadYourWrites;
+import com.ishwor.expenses.dto.response.CategorySpendResponse;
+import com.ishwor.expenses.dto.response.ExpenseSummaryResponse;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.repository.ExpenseMonthlyTotalRepository;
+import com.ishwor.expenses.repository.UserRepository;
+import com.ishwor.expenses.service.impl.ExpenseSummaryServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseSummaryServiceTest {
+
+    @Mock
+    private ExpenseMonthlyTotalRepository monthlyTotalRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @InjectMocks
+    private ExpenseSummaryServiceImpl expenseSummaryService;
+
+    @Test
+    void testGetMonthlySummary_TotalsCategoryRows() {
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(monthlyTotalRepository.findCategorySpend(1L, LocalDate.of(2024, 3, 1))).thenReturn(List.of(
+                new CategorySpendResponse(1L, "Groceries", new BigDecimal("40.00"), 2),
+                new CategorySpendResponse(2L, "Transport", new BigDecimal("12.50"), 1)));
+
+
+        ExpenseSummaryResponse summary = expenseSummaryService.getMonthlySummary(1L, YearMonth.of(2024, 3));
+
+
+        assertEquals(YearMonth.of(2024, 3), summary.month());
+        assertEquals(new BigDecimal("52.50"), summary.totalAmount());
+        assertEquals(3, summary.expenseCount());
+        assertEquals(2, summary.categories().size());
+    }
+
+    @Test
+    void testGetMonthlySummary_UserNotFound() {
+
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> expenseSummaryService.getMonthlySummary(99L, YearMonth.of(2024, 3)));
+        verifyNoInteractions(monthlyTotalRepository);
+    }
+}
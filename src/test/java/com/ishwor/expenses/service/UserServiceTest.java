@@ -1,5 +1,6 @@
 package com.ishwor.expenses.service;
 
+import com.ishwor.expenses.datasource.ReadYourWrites;
 import com.ishwor.expenses.dto.request.UserRequest;
 import com.ishwor.expenses.dto.response.UserResponse;
 import com.ishwor.expenses.exception.ResourceNotFoundException;
@@ -24,6 +25,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ReadYourWrites readYourWrites;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -56,6 +60,7 @@ class UserServiceTest {
         assertEquals("John Doe", response.name());
         assertEquals("john.doe@example.com", response.email());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(readYourWrites, times(1)).userWritten(testUser.getId());
     }
 
     @Test
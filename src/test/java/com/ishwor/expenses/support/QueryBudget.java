@@ -0,0 +1,24 @@
+package com.ishwor.expenses.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a Spring test whose body (excluding {@code @BeforeEach}/{@code @AfterEach}) exceeds the given
+ * Hibernate work, so a change that turns one query into one per row is caught even when results stay correct.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    long statements();
+
+    long entitiesLoaded() default Long.MAX_VALUE;
+
+    long collectionsFetched() default Long.MAX_VALUE;
+}
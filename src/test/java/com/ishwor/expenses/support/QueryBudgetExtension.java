@@ -0,0 +1,42 @@
+package com.ishwor.expenses.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        EntityManagerFactory entityManagerFactory = SpringExtension.getApplicationContext(context)
+                .getBean(EntityManagerFactory.class);
+        QueryCounter counter = new QueryCounter(entityManagerFactory);
+        counter.reset();
+        context.getStore(NAMESPACE).put(QueryCounter.class, counter);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        QueryCounter counter = context.getStore(NAMESPACE).remove(QueryCounter.class, QueryCounter.class);
+        if (budget == null || counter == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryCount actual = counter.current();
+        assertAll("Query budget exceeded: " + actual,
+                () -> assertTrue(actual.statements() <= budget.statements(),
+                        "statements: " + actual.statements() + " > " + budget.statements()),
+                () -> assertTrue(actual.entitiesLoaded() <= budget.entitiesLoaded(),
+                        "entities loaded: " + actual.entitiesLoaded() + " > " + budget.entitiesLoaded()),
+                () -> assertTrue(actual.collectionsFetched() <= budget.collectionsFetched(),
+                        "collections fetched: " + actual.collectionsFetched() + " > " + budget.collectionsFetched())
+        );
+    }
+}
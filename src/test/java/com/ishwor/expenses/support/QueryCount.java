@@ -0,0 +1,17 @@
+package com.ishwor.expenses.support;
+
+import org.hibernate.stat.Statistics;
+
+/**
+ * Hibernate work done between two points: JDBC statements prepared, entities loaded and collections fetched.
+ */
+public record QueryCount(long statements, long entitiesLoaded, long collectionsFetched) {
+
+    static QueryCount of(Statistics statistics) {
+        return new QueryCount(
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getCollectionFetchCount()
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package com.ishwor.expenses.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Captures Hibernate statistics around a block of test code, e.g. a single MockMvc request.
+ * Statistics are global to the session factory, so counts are only meaningful while tests run one at a time.
+ */
+public class QueryCounter {
+
+    private final Statistics statistics;
+
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public QueryCount current() {
+        return QueryCount.of(statistics);
+    }
+
+    public QueryCount count(ThrowingRunnable block) throws Exception {
+        reset();
+        block.run();
+        return current();
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
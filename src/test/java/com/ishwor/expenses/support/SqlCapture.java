@@ -0,0 +1,32 @@
+package com.ishwor.expenses.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate sends, so tests can EXPLAIN the exact statement a query produced. Register with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static synchronized void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static synchronized String last() {
+        if (STATEMENTS.isEmpty()) {
+            throw new IllegalStateException("No SQL captured");
+        }
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
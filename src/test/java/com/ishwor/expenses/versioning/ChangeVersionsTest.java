@@ -0,0 +1,74 @@
+package com.ishwor.expenses.versioning;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeVersionsTest {
+
+    private final ChangeVersions changeVersions = new ChangeVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testExpenseChange_OnlyAffectsThatUserAndTheGlobalTag() {
+        String user1 = changeVersions.userExpensesETag(1L);
+        String user2 = changeVersions.userExpensesETag(2L);
+        String all = changeVersions.allExpensesETag();
+        String categories = changeVersions.categoriesETag();
+
+
+        changeVersions.expensesChanged(1L);
+
+
+        assertNotEquals(user1, changeVersions.userExpensesETag(1L));
+        assertEquals(user2, changeVersions.userExpensesETag(2L));
+        assertNotEquals(all, changeVersions.allExpensesETag());
+        assertEquals(categories, changeVersions.categoriesETag());
+    }
+
+    @Test
+    void testCategoryChange_AffectsExpenseTagsToo() {
+        String user1 = changeVersions.userExpensesETag(1L);
+        String all = changeVersions.allExpensesETag();
+
+
+        changeVersions.categoriesChanged();
+
+
+        assertNotEquals(user1, changeVersions.userExpensesETag(1L));
+        assertNotEquals(all, changeVersions.allExpensesETag());
+    }
+
+    @Test
+    void testTagsAreStrongAndDifferBetweenInstances() {
+        String tag = changeVersions.categoriesETag();
+
+
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+        assertNotEquals(tag, new ChangeVersions().categoriesETag());
+    }
+
+    @Test
+    void testBumpInsideTransaction_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        String before = changeVersions.userExpensesETag(1L);
+
+
+        changeVersions.expensesChanged(1L);
+        String duringTransaction = changeVersions.userExpensesETag(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+
+        assertEquals(before, duringTransaction);
+        assertNotEquals(before, changeVersions.userExpensesETag(1L));
+    }
+}
@@ -0,0 +1,240 @@
+package com.ishwor.expenses.writebehind;
+
+import com.ishwor.expenses.config.ExpenseBatchProperties;
+import com.ishwor.expenses.config.WriteBehindProperties;
+import com.ishwor.expenses.dto.request.ExpenseRequest;
+import com.ishwor.expenses.dto.response.ExpenseAcceptedResponse;
+import com.ishwor.expenses.dto.response.ExpenseBatchError;
+import com.ishwor.expenses.dto.response.ExpenseBatchResponse;
+import com.ishwor.expenses.dto.response.ExpenseResponse;
+import com.ishwor.expenses.exception.ResourceNotFoundException;
+import com.ishwor.expenses.exception.ServiceUnavailableException;
+import com.ishwor.expenses.service.ExpenseBatchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseWriteBehindQueueTest {
+
+    @Mock
+    private ExpenseBatchService expenseBatchService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong ids = new AtomicLong(100);
+    private ExpenseWriteBehindQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null && queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void testCommitModeGroupsConcurrentSubmissions() throws Exception {
+
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        queue = start(WriteBehindDurability.COMMIT, 100, Duration.ofMillis(200));
+        ExecutorService callers = Executors.newFixedThreadPool(20);
+
+
+        List<Future<ExpenseAcceptedResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(callers.submit(() -> queue.submit(request(1L))));
+        }
+        List<Long> expenseIds = new ArrayList<>();
+        for (Future<ExpenseAcceptedResponse> response : responses) {
+            ExpenseAcceptedResponse accepted = response.get(5, TimeUnit.SECONDS);
+            assertTrue(accepted.committed());
+            assertNotNull(accepted.acceptedId());
+            expenseIds.add(accepted.expenseId());
+        }
+        callers.shutdown();
+
+
+        assertEquals(20, expenseIds.stream().distinct().count());
+        verify(expenseBatchService, atMost(5)).addExpenses(anyList());
+        assertEquals(20, meterRegistry.get("expenses.ingest.batch.size").summary().totalAmount());
+        assertTrue(meterRegistry.get("expenses.ingest.flush").timer().count() >= 1);
+    }
+
+    @Test
+    void testCommitModeSurfacesRejection() {
+
+        when(expenseBatchService.addExpenses(anyList())).thenReturn(new ExpenseBatchResponse(1, 0, 1, List.of(),
+                List.of(new ExpenseBatchError(0, List.of("User not found")))));
+        queue = start(WriteBehindDurability.COMMIT, 10, Duration.ZERO);
+
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> queue.submit(request(99L)));
+
+
+        assertEquals("User not found", ex.getMessage());
+        assertEquals(1, meterRegistry.get("expenses.ingest.failed").tag("reason", "rejected").counter().count());
+    }
+
+    @Test
+    void testErrorFromGroupWriteFailsGroupAndKeepsFlushing() {
+
+        when(expenseBatchService.addExpenses(anyList()))
+                .thenThrow(new AssertionError("boom"))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)));
+        queue = start(WriteBehindDurability.COMMIT, 10, Duration.ZERO);
+
+
+        AssertionError error = assertThrows(AssertionError.class, () -> queue.submit(request(1L)));
+        ExpenseAcceptedResponse next = queue.submit(request(1L));
+
+
+        assertEquals("boom", error.getMessage());
+        assertTrue(next.committed());
+        assertTrue(queue.isRunning());
+        assertEquals(1, meterRegistry.get("expenses.ingest.failed").tag("reason", "error").counter().count());
+    }
+
+    @Test
+    void testFailedGroupIsRetriedOneByOneSoOnlyTheBadExpenseFails() throws Exception {
+
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> {
+            List<ExpenseRequest> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> request.userId() == 99L)) {
+                throw new DataIntegrityViolationException("fk_expenses_user");
+            }
+            return created(requests);
+        });
+        queue = start(WriteBehindDurability.COMMIT, 10, Duration.ofMillis(200));
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+
+
+        Future<ExpenseAcceptedResponse> first = callers.submit(() -> queue.submit(request(1L)));
+        Future<ExpenseAcceptedResponse> bad = callers.submit(() -> queue.submit(request(99L)));
+        Future<ExpenseAcceptedResponse> second = callers.submit(() -> queue.submit(request(2L)));
+        callers.shutdown();
+
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).committed());
+        assertTrue(second.get(5, TimeUnit.SECONDS).committed());
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+        assertEquals(1, meterRegistry.get("expenses.ingest.failed").tag("reason", "error").counter().count());
+    }
+
+    @Test
+    void testCommitWaitIsBounded() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return created(invocation.getArgument(0));
+        });
+        queue = start(WriteBehindDurability.COMMIT, 10, Duration.ZERO, Duration.ofMillis(50));
+
+
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(request(1L)));
+        release.countDown();
+    }
+
+    @Test
+    void testEnqueueModeAcknowledgesBeforeWriteAndDrainsOnStop() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return created(invocation.getArgument(0));
+        });
+        queue = start(WriteBehindDurability.ENQUEUE, 10, Duration.ZERO);
+
+
+        ExpenseAcceptedResponse first = queue.submit(request(1L));
+        ExpenseAcceptedResponse second = queue.submit(request(1L));
+        release.countDown();
+        queue.stop();
+
+
+        assertFalse(first.committed());
+        assertNull(first.expenseId());
+        assertNotEquals(first.acceptedId(), second.acceptedId());
+        verify(expenseBatchService, atLeastOnce()).addExpenses(anyList());
+        assertEquals(2, meterRegistry.get("expenses.ingest.batch.size").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("expenses.ingest.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testFullQueueIsRefused() throws Exception {
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseBatchService.addExpenses(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return created(invocation.getArgument(0));
+        });
+        queue = start(WriteBehindDurability.ENQUEUE, 1, Duration.ZERO);
+        queue.submit(request(1L));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        queue.submit(request(1L));
+
+
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(request(1L)));
+        release.countDown();
+    }
+
+    @Test
+    void testSubmitWhenStoppedIsRefused() {
+
+        queue = new ExpenseWriteBehindQueue(expenseBatchService,
+                new WriteBehindProperties(true, WriteBehindDurability.COMMIT, 10, 10, Duration.ZERO, Duration.ofSeconds(5)),
+                new ExpenseBatchProperties(1000), meterRegistry);
+
+
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(request(1L)));
+        verifyNoInteractions(expenseBatchService);
+    }
+
+    private ExpenseWriteBehindQueue start(WriteBehindDurability durability, int capacity, Duration maxDelay) {
+        return start(durability, capacity, maxDelay, Duration.ofSeconds(5));
+    }
+
+    private ExpenseWriteBehindQueue start(WriteBehindDurability durability, int capacity, Duration maxDelay,
+                                          Duration commitTimeout) {
+        ExpenseWriteBehindQueue started = new ExpenseWriteBehindQueue(expenseBatchService,
+                new WriteBehindProperties(true, durability, capacity, 50, maxDelay, commitTimeout),
+                new ExpenseBatchProperties(1000), meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private ExpenseBatchResponse created(List<ExpenseRequest> requests) {
+        List<ExpenseResponse> expenses = requests.stream()
+                .map(request -> new ExpenseResponse(ids.incrementAndGet(), request.amount(), request.description(),
+                        request.categoryId(), "Groceries", request.userId(), "John Doe", null))
+                .toList();
+        return new ExpenseBatchResponse(requests.size(), expenses.size(), 0, expenses, List.of());
+    }
+
+    private static ExpenseRequest request(Long userId) {
+        return new ExpenseRequest(BigDecimal.valueOf(12), "Lunch", 1L, userId, LocalDate.of(2024, 1, 31));
+    }
+}
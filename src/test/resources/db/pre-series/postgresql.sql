@@ -0,0 +1,10 @@
+-- Generated by Hibernate's ddl-auto from the entities as they were before the schema migrations, on PostgreSQL.
+-- SchemaUpgradeTest creates a database from it to check that the migrations adopt and upgrade it.
+create sequence categories_id_seq start with 1 increment by 1;
+create sequence expenses_id_seq start with 1 increment by 1;
+create sequence users_id_seq start with 1 increment by 1;
+create table categories (created_at timestamp(6) with time zone default CURRENT_TIMESTAMP not null, id bigint not null, updated_at timestamp(6) with time zone, name varchar(100) not null, description text, primary key (id));
+create table expenses (amount numeric(10,2) not null, expense_date date, category_id bigint not null, created_at timestamp(6) with time zone not null, id bigint not null, updated_at timestamp(6) with time zone, user_id bigint not null, description text, primary key (id));
+create table users (created_at timestamp(6) with time zone not null, id bigint not null, updated_at timestamp(6) with time zone, name varchar(100) not null, password varchar(100) not null, email varchar(255) not null unique, primary key (id));
+alter table if exists expenses add constraint FKjao23ohq935a4qrorwwsen0lr foreign key (category_id) references categories on delete set null;
+alter table if exists expenses add constraint FKhpk0n2cbnfiuu5nrgl0ika3hq foreign key (user_id) references users on delete cascade;